@@ -0,0 +1,123 @@
+package com.ecommerce.gateway.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Long-polls config-server's {@code /watch/{application}/{profile}} and refreshes this instance, the
+ * same as a POST to {@code /actuator/refresh}, as soon as the answer carries a new ETag. A config
+ * change reaches every instance within seconds without calling refresh on each one; the refresh is
+ * spread over {@code config.watch.jitter} so the fleet does not re-fetch in lockstep.
+ * <p>
+ * The ETag of the config this instance started with is fetched while the context is created, right
+ * after the config import, so an edit made before the first watch is still seen as a change. If that
+ * fetch fails the first ETag the watch returns triggers a refresh.
+ */
+@Component
+@ConditionalOnProperty(name = {"spring.cloud.config.enabled", "spring.cloud.refresh.enabled", "config.watch.enabled"},
+        havingValue = "true", matchIfMissing = true)
+public class ConfigChangeWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigChangeWatcher.class);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final ContextRefresher contextRefresher;
+    private final RestTemplate restTemplate;
+    private final String environmentUrl;
+    private final String watchUrl;
+    private final Duration jitter;
+    private String startupEtag;
+    private Thread thread;
+
+    public ConfigChangeWatcher(ContextRefresher contextRefresher,
+                               @Value("${spring.cloud.config.uri:http://localhost:8888}") String configUri,
+                               @Value("${spring.cloud.config.name:${spring.application.name}}") String name,
+                               @Value("${spring.cloud.config.profile:default}") String profile,
+                               @Value("${config.watch.read-timeout:45s}") Duration readTimeout,
+                               @Value("${config.watch.jitter:2s}") Duration jitter) {
+        this.contextRefresher = contextRefresher;
+        this.jitter = jitter;
+        String baseUrl = configUri.split(",")[0].replaceAll("/$", "");
+        this.environmentUrl = baseUrl + "/" + name + "/" + profile;
+        this.watchUrl = baseUrl + "/watch/" + name + "/" + profile;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) RETRY_DELAY.toMillis());
+        requestFactory.setReadTimeout((int) readTimeout.toMillis());
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @PostConstruct
+    public void recordStartupEtag() {
+        try {
+            startupEtag = restTemplate.exchange(environmentUrl, HttpMethod.GET, null, Void.class).getHeaders().getETag();
+        } catch (RuntimeException e) {
+            log.debug("Could not read the startup config ETag from {}, the first watch will refresh: {}",
+                environmentUrl, e.toString());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = new Thread(this::watch, "config-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void watch() {
+        String etag = startupEtag;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                if (etag != null) {
+                    headers.setIfNoneMatch(etag);
+                }
+                ResponseEntity<Void> response = restTemplate.exchange(watchUrl, HttpMethod.GET, new HttpEntity<>(headers), Void.class);
+                String current = response.getHeaders().getETag();
+                if (response.getStatusCode() == HttpStatus.NOT_MODIFIED || current == null) {
+                    continue;
+                }
+                if (!current.equals(etag)) {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1));
+                    Set<String> keys = contextRefresher.refresh();
+                    log.info("Config changed on config-server, refreshed keys: {}", keys);
+                }
+                etag = current;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.debug("Config watch on {} failed, retrying in {}: {}", watchUrl, RETRY_DELAY, e.toString());
+                try {
+                    Thread.sleep(RETRY_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
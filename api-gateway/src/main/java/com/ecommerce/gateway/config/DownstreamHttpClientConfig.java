@@ -0,0 +1,22 @@
+package com.ecommerce.gateway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Speaks cleartext HTTP/2 to the services when {@code gateway.downstream.h2c.enabled=true}. The
+ * first request on a connection negotiates through the HTTP/1.1 upgrade, so services without
+ * {@code server.http2.enabled} keep working over HTTP/1.1.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.downstream.h2c.enabled", havingValue = "true")
+public class DownstreamHttpClientConfig {
+
+    @Bean
+    public HttpClientCustomizer h2cHttpClientCustomizer() {
+        return httpClient -> httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+}
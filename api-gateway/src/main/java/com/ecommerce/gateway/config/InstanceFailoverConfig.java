@@ -0,0 +1,47 @@
+package com.ecommerce.gateway.config;
+
+import com.ecommerce.gateway.loadbalancer.ConnectionFailureLifecycle;
+import com.ecommerce.gateway.loadbalancer.InstanceFailoverLoadBalancerConfiguration;
+import com.ecommerce.gateway.loadbalancer.InstanceQuarantine;
+import com.ecommerce.gateway.loadbalancer.LoadBalancerStats;
+import com.ecommerce.gateway.loadbalancer.RegistryInstanceCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Routes every {@code lb://} service from the Eureka client's registry as soon as each fetch lands,
+ * drops instances that refuse connections and re-admits them once their health endpoint answers UP.
+ * Works with either balancer; set {@code gateway.load-balancer.failover.enabled=false} to go back to
+ * the default discovery-client supplier and its cache TTL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.failover.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = InstanceFailoverLoadBalancerConfiguration.class)
+public class InstanceFailoverConfig {
+
+    @Bean
+    public InstanceQuarantine instanceQuarantine(LoadBalancerStats stats, MeterRegistry meterRegistry,
+                                                 @Value("${gateway.load-balancer.failover.probe-interval:2s}") Duration probeInterval,
+                                                 @Value("${gateway.load-balancer.failover.probe-timeout:1s}") Duration probeTimeout,
+                                                 @Value("${gateway.load-balancer.failover.health-path:/actuator/health}") String healthPath) {
+        return new InstanceQuarantine(stats, meterRegistry, probeInterval, probeTimeout, healthPath);
+    }
+
+    @Bean
+    public RegistryInstanceCache registryInstanceCache(DiscoveryClient discoveryClient, InstanceQuarantine quarantine,
+                                                       LoadBalancerStats stats) {
+        return new RegistryInstanceCache(discoveryClient, quarantine, stats);
+    }
+
+    @Bean
+    public ConnectionFailureLifecycle connectionFailureLifecycle(InstanceQuarantine quarantine) {
+        return new ConnectionFailureLifecycle(quarantine);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.gateway.config;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+@Configuration
+public class LoadBalancedClientConfig {
+
+    /**
+     * Resolves {@code lb://} URIs through the same service-instance load balancer as the routes; used
+     * by {@link com.ecommerce.gateway.filter.OrderDetailAggregationGatewayFilterFactory} for its
+     * fan-out calls. Shares the routes' {@link HttpClient}, so connection pool, timeouts and h2c
+     * settings apply to those calls too.
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(HttpClient gatewayHttpClient) {
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(gatewayHttpClient));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.gateway.config;
+
+import com.ecommerce.gateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the default round-robin balancer with peak-EWMA power-of-two-choices for all services.
+ * Set {@code gateway.load-balancer.peak-ewma.enabled=false} to fall back to round-robin.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.peak-ewma.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
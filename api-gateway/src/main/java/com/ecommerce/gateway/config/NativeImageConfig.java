@@ -0,0 +1,59 @@
+package com.ecommerce.gateway.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.filter.LevelFilter;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import com.ecommerce.gateway.diagnostics.DroppedLogEventCounter;
+import com.ecommerce.gateway.filter.HedgedRequestGatewayFilterFactory;
+import com.ecommerce.gateway.filter.OrderDetailAggregationGatewayFilterFactory;
+import com.ecommerce.gateway.filter.UpstreamServerErrorException;
+import com.ecommerce.gateway.ratelimit.TokenBucketRateLimiter;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.appender.LogstashTcpSocketAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Reflection the native image (built with {@code -Pnative}) needs beyond what Spring AOT derives from
+ * the bean definitions: everything here is looked up by name from configuration rather than referenced
+ * by a bean. Spring Cloud Gateway registers its own filters' configs, but not ours.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+public class NativeImageConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Route filter args and rate limiter settings are bound onto these through their setters
+            Stream.of(HedgedRequestGatewayFilterFactory.Config.class, OrderDetailAggregationGatewayFilterFactory.Config.class,
+                    TokenBucketRateLimiter.Config.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS));
+            // The Retry filters' exceptions in api-gateway.yml are resolved with Class.forName
+            hints.reflection()
+                .registerType(IOException.class)
+                .registerType(TimeoutException.class)
+                .registerType(UpstreamServerErrorException.class);
+            // logback-spring.xml: created and configured by Joran through reflection
+            Stream.of(ConsoleAppender.class, LevelFilter.class, ThresholdFilter.class, LogstashEncoder.class,
+                    LoggingEventAsyncDisruptorAppender.class, LogstashTcpSocketAppender.class,
+                    DroppedLogEventCounter.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+            Stream.of(Level.class, FilterReply.class, ch.qos.logback.core.util.Duration.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.gateway.config;
+
+import com.ecommerce.gateway.tracing.AdaptiveSampler;
+import com.ecommerce.gateway.tracing.AdaptiveSamplingProperties;
+import com.ecommerce.gateway.tracing.RouteNamingTracingObservationHandler;
+import com.ecommerce.gateway.tracing.RouteObservationConvention;
+import com.ecommerce.gateway.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Replaces Boot's fixed-probability sampler with {@link AdaptiveSampler} and registers the tail
+ * processor next to Boot's batch span processor; Boot's tracer provider picks up both. The
+ * observation convention is picked up by the WebFlux handler adapter, and the route-naming receiver
+ * handler takes the place of Boot's so server spans reach the sampler with their route name.
+ */
+@Configuration
+@EnableConfigurationProperties(AdaptiveSamplingProperties.class)
+public class TracingSamplingConfig {
+
+    @Bean
+    public Sampler adaptiveSampler(AdaptiveSamplingProperties properties, MeterRegistry meterRegistry,
+                                   @Value("${management.tracing.sampling.probability:0.1}") double fallbackProbability) {
+        return new AdaptiveSampler(properties, fallbackProbability, meterRegistry);
+    }
+
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(AdaptiveSamplingProperties properties,
+                                                               ObjectProvider<SpanExporter> spanExporters,
+                                                               MeterRegistry meterRegistry) {
+        return new TailSamplingSpanProcessor(properties,
+            SpanExporter.composite(spanExporters.orderedStream().toList()), meterRegistry);
+    }
+
+    @Bean
+    public RouteObservationConvention routeObservationConvention() {
+        return new RouteObservationConvention();
+    }
+
+    @Bean
+    @Order(MicrometerTracingAutoConfiguration.RECEIVER_TRACING_OBSERVATION_HANDLER_ORDER)
+    public RouteNamingTracingObservationHandler routeNamingTracingObservationHandler(Tracer tracer, Propagator propagator,
+            RouteObservationConvention routeObservationConvention) {
+        return new RouteNamingTracingObservationHandler(tracer, propagator, routeObservationConvention);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Gateway-wide adaptive concurrency limit, measured on the full proxied round trip. Overflow is
+ * rejected with 503 before a route is called; low-priority traffic ({@code GET /api/**} by default)
+ * is shed first. Rules use the external {@code /api/...} paths.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyGatewayFilter implements GlobalFilter, Ordered {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final List<String[]> highPriority;
+    private final List<String[]> lowPriority;
+
+    public AdaptiveConcurrencyGatewayFilter(MeterRegistry registry,
+            @Value("${gateway.concurrency-limit.initial-limit:200}") int initialLimit,
+            @Value("${gateway.concurrency-limit.min-limit:20}") int minLimit,
+            @Value("${gateway.concurrency-limit.max-limit:2000}") int maxLimit,
+            @Value("${gateway.concurrency-limit.window-ms:200}") long windowMs,
+            @Value("${gateway.concurrency-limit.high-priority:}") String highPriority,
+            @Value("${gateway.concurrency-limit.low-priority:GET /api/**}") String lowPriority) {
+        this.limiter = new AdaptiveConcurrencyLimiter(registry, initialLimit, minLimit, maxLimit, windowMs);
+        this.highPriority = parse(highPriority);
+        this.lowPriority = parse(lowPriority);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!limiter.tryAcquire(priorityOf(request.getMethod().name(), request.getPath().value()))) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set("Retry-After", "1");
+            return response.setComplete();
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean sampled = signal == SignalType.ON_COMPLETE && (status == null || !status.is5xxServerError());
+            limiter.release(sampled ? System.nanoTime() - start : -1);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private AdaptiveConcurrencyLimiter.Priority priorityOf(String method, String path) {
+        if (anyMatch(highPriority, method, path)) {
+            return AdaptiveConcurrencyLimiter.Priority.HIGH;
+        }
+        if (anyMatch(lowPriority, method, path)) {
+            return AdaptiveConcurrencyLimiter.Priority.LOW;
+        }
+        return AdaptiveConcurrencyLimiter.Priority.NORMAL;
+    }
+
+    // Each rule is {method or null, pattern}
+    private static List<String[]> parse(String rules) {
+        return Arrays.stream(rules.split(","))
+            .map(String::trim)
+            .filter(rule -> !rule.isEmpty())
+            .map(rule -> {
+                int space = rule.indexOf(' ');
+                return space < 0
+                    ? new String[] {null, rule}
+                    : new String[] {rule.substring(0, space).toUpperCase(), rule.substring(space + 1).trim()};
+            })
+            .collect(Collectors.toList());
+    }
+
+    private static boolean anyMatch(List<String[]> rules, String method, String path) {
+        for (String[] rule : rules) {
+            if ((rule[0] == null || rule[0].equals(method)) && MATCHER.match(rule[1], path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
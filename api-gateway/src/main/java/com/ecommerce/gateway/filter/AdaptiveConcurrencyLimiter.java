@@ -0,0 +1,150 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-style adaptive concurrency limit.
+ * <p>
+ * Request latency is averaged over short windows and compared with a slowly moving baseline. While
+ * latency stays near the baseline the limit grows by roughly {@code sqrt(limit)} per window; when it
+ * rises the limit shrinks in proportion ({@code limit * baseline / current}, at most halving per
+ * window). Lower priorities may only use part of the limit, so they are shed first as in-flight
+ * requests approach it.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        HIGH(1.0), NORMAL(0.9), LOW(0.7);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_WINDOWS = 50;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+    private volatile double limit;
+    private volatile long windowStart = System.nanoTime();
+    private double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry registry, int initialLimit, int minLimit, int maxLimit, long windowMillis) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowMillis * 1_000_000;
+        Gauge.builder("concurrency_limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive in-flight request limit")
+            .register(registry);
+        Gauge.builder("concurrency_in_flight", inFlight, AtomicInteger::get)
+            .description("Requests currently admitted by the concurrency limiter")
+            .register(registry);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("concurrency_shed_total")
+                .description("Requests rejected by the adaptive concurrency limiter")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry));
+        }
+    }
+
+    /**
+     * Admits a request if the in-flight count is below this priority's share of the limit. Every
+     * successful call must be paired with {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos request latency, or a negative value when the request should not be sampled
+     *                 (e.g. it failed fast)
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos < 0) {
+            return;
+        }
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos && updateLock.tryLock()) {
+            try {
+                if (now - windowStart >= windowNanos) {
+                    closeWindow(now);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void closeWindow(long now) {
+        long samples = windowSamples.sumThenReset();
+        long totalRtt = windowRttNanos.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        windowStart = now;
+        if (samples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double rtt = (double) totalRtt / samples;
+        if (baselineRttNanos == 0) {
+            baselineRttNanos = rtt;
+        } else {
+            baselineRttNanos += (rtt - baselineRttNanos) / BASELINE_WINDOWS;
+            // Let the baseline follow a sustained improvement quickly instead of over 50 windows
+            if (baselineRttNanos > rtt * 2) {
+                baselineRttNanos *= 0.95;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * baselineRttNanos / rtt));
+        double target = current * gradient + Math.sqrt(current);
+        // Not using the limit we have: no evidence that a higher one is safe
+        if (target > current && peak < current / 2) {
+            target = current;
+        }
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
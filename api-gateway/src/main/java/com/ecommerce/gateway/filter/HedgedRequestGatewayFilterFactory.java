@@ -0,0 +1,391 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedges idempotent GETs: if the first attempt has not answered after the route's recent p95 latency
+ * (clamped to {@code min-delay}..{@code max-delay}), a second attempt is sent down the rest of the
+ * filter chain (load balancer and {@code NettyRoutingFilter}) and whichever receives response headers
+ * first wins; the other is cancelled. Only the winner's status, headers and connection are handed to
+ * the exchange, so its body is streamed to the client by {@code NettyWriteResponseFilter} as on any
+ * other route. Hedges are paid for from a {@link HedgeBudget} that earns {@code max-hedge-ratio} of a
+ * hedge per request and holds at most {@code max-hedge-burst}, so a slow backend is not hit with double
+ * load, even after a long quiet spell. Other methods, and GETs that carry a body, pass through to
+ * normal routing.
+ * <pre>
+ * - name: HedgedRequest
+ *   args:
+ *     min-delay: 20ms
+ *     max-delay: 500ms
+ * </pre>
+ * Must come after path-rewriting filters such as StripPrefix; both attempts use the path as
+ * rewritten at this point.
+ */
+@Component
+public class HedgedRequestGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgedRequestGatewayFilterFactory.Config> {
+
+    static final String HEDGE_HEADER = "X-Hedged-Request";
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public HedgedRequestGatewayFilterFactory(MeterRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return Arrays.asList("minDelay", "maxDelay");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        LatencyReservoir latencies = new LatencyReservoir();
+        HedgeBudget budget = new HedgeBudget(config.getMaxHedgeRatio(), config.getMaxHedgeBurst());
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (request.getMethod() != HttpMethod.GET || route == null || hasBody(request.getHeaders())) {
+                return chain.filter(exchange);
+            }
+            String routeId = route.getId();
+            long delayNanos = latencies.percentileNanos(config.getPercentile(),
+                config.getMinDelay().toNanos(), config.getMaxDelay().toNanos());
+            budget.deposit();
+
+            AtomicReference<Attempt> winner = new AtomicReference<>();
+            AtomicBoolean hedgeSent = new AtomicBoolean();
+
+            Mono<Attempt> primary = Mono.defer(() -> route(new Attempt(exchange, false), chain, routeId,
+                latencies, winner));
+            Mono<Attempt> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                .filter(tick -> budget.tryWithdraw())
+                .doOnNext(tick -> hedgeSent.set(true))
+                .flatMap(tick -> route(new Attempt(exchange, true), chain, routeId, latencies, winner));
+
+            return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class, HedgedRequestGatewayFilterFactory::firstCause)
+                .doOnNext(attempt -> {
+                    recordOutcome(routeId, attempt.hedge ? "hedge_won" : hedgeSent.get() ? "primary_won" : "not_hedged");
+                    attempt.commitTo(exchange);
+                })
+                .then();
+        };
+    }
+
+    /**
+     * Runs one attempt through the rest of the chain, which completes once the response headers have
+     * arrived. The first attempt to get there claims {@code winner}; a later one, or one that is
+     * cancelled or answers 502/503/504, closes its upstream connection.
+     */
+    private Mono<Attempt> route(Attempt attempt, GatewayFilterChain chain, String routeId,
+                                LatencyReservoir latencies, AtomicReference<Attempt> winner) {
+        long start = System.nanoTime();
+        return chain.filter(attempt.exchange)
+            .then(Mono.fromCallable(() -> {
+                latencies.record(System.nanoTime() - start);
+                return attempt;
+            }))
+            .flatMap(completed -> {
+                HttpStatusCode status = completed.response.getStatusCode();
+                if (status != null && RETRYABLE_STATUSES.contains(status.value())) {
+                    completed.release();
+                    return Mono.error(new UpstreamServerErrorException(status, routeId));
+                }
+                if (!winner.compareAndSet(null, completed)) {
+                    completed.release();
+                    return Mono.empty();
+                }
+                return Mono.just(completed);
+            })
+            .doOnCancel(() -> {
+                if (winner.get() != attempt) {
+                    attempt.release();
+                }
+            });
+    }
+
+    private static boolean hasBody(HttpHeaders headers) {
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    // firstWithValue reports "all attempts failed" as NoSuchElementException; surface the real cause
+    private static Throwable firstCause(NoSuchElementException e) {
+        for (Throwable suppressed : e.getSuppressed()) {
+            List<Throwable> causes = Exceptions.unwrapMultiple(suppressed);
+            if (!causes.isEmpty()) {
+                return causes.get(0);
+            }
+        }
+        return e;
+    }
+
+    private void recordOutcome(String routeId, String outcome) {
+        outcomes.computeIfAbsent(routeId + ":" + outcome, key -> Counter.builder("gateway_hedge_requests_total")
+            .description("Hedged GETs by which attempt answered first")
+            .tag("route", routeId)
+            .tag("outcome", outcome)
+            .register(registry)).increment();
+    }
+
+    /**
+     * One routing attempt. It gets its own copy of the exchange attributes, so the load balancer and
+     * {@code NettyRoutingFilter} resolve and mark it independently of the other attempt, and a
+     * response that only records the status and headers routing sets on it.
+     */
+    private static final class Attempt {
+        private final boolean hedge;
+        private final CapturedResponse response;
+        private final ServerWebExchange exchange;
+
+        Attempt(ServerWebExchange exchange, boolean hedge) {
+            this.hedge = hedge;
+            this.response = new CapturedResponse(exchange.getResponse());
+            ServerHttpRequest request = hedge
+                ? exchange.getRequest().mutate().header(HEDGE_HEADER, "true").build()
+                : exchange.getRequest();
+            this.exchange = new AttemptExchange(exchange, new BodilessRequest(request), response);
+        }
+
+        /** Hands the routed response to the real exchange, where NettyWriteResponseFilter streams its body. */
+        void commitTo(ServerWebExchange target) {
+            target.getAttributes().putAll(exchange.getAttributes());
+            ServerHttpResponse out = target.getResponse();
+            out.setStatusCode(response.getStatusCode());
+            HttpHeaders headers = response.getHeaders();
+            if (headers.containsKey(HttpHeaders.CONTENT_LENGTH) && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+                out.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            }
+            out.getHeaders().addAll(headers);
+        }
+
+        void release() {
+            Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+            if (connection != null) {
+                connection.dispose();
+            }
+        }
+    }
+
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+        private final ServerHttpRequest request;
+        private final ServerHttpResponse response;
+        private final Map<String, Object> attributes;
+
+        AttemptExchange(ServerWebExchange delegate, ServerHttpRequest request, ServerHttpResponse response) {
+            super(delegate);
+            this.request = request;
+            this.response = response;
+            this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+        }
+
+        @Override
+        public ServerHttpRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    // Both attempts would otherwise subscribe to the client connection's inbound, which allows one reader
+    private static final class BodilessRequest extends ServerHttpRequestDecorator {
+        BodilessRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.empty();
+        }
+    }
+
+    private static final class CapturedResponse extends ServerHttpResponseDecorator {
+        private final HttpHeaders headers = new HttpHeaders();
+        private volatile HttpStatusCode status;
+
+        CapturedResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    /**
+     * Recent attempt latencies in a fixed ring; the percentile is recomputed every
+     * {@link #RECOMPUTE_EVERY} samples rather than per request.
+     */
+    static final class LatencyReservoir {
+        private static final int SIZE = 512;
+        private static final int RECOMPUTE_EVERY = 64;
+        private static final int MIN_SAMPLES = 32;
+
+        private final long[] samples = new long[SIZE];
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile long cachedPercentile = -1;
+        private volatile double cachedFor = -1;
+
+        void record(long nanos) {
+            int n = count.getAndIncrement();
+            samples[n % SIZE] = nanos;
+            if (n % RECOMPUTE_EVERY == 0) {
+                cachedFor = -1;
+            }
+        }
+
+        long percentileNanos(double percentile, long min, long max) {
+            int n = Math.min(count.get(), SIZE);
+            if (n < MIN_SAMPLES) {
+                return max;
+            }
+            if (cachedFor != percentile) {
+                long[] copy = Arrays.copyOf(samples, n);
+                Arrays.sort(copy);
+                cachedPercentile = copy[Math.min(n - 1, (int) Math.ceil(percentile * n) - 1)];
+                cachedFor = percentile;
+            }
+            return Math.max(min, Math.min(max, cachedPercentile));
+        }
+    }
+
+    /**
+     * Token bucket of hedges: each request adds {@code ratio} of a token, up to {@code burst}, and each
+     * hedge spends a whole one. Unlike a ratio of totals since startup, credit from a quiet hour cannot
+     * be spent all at once when the backend turns slow.
+     */
+    static final class HedgeBudget {
+        // Counted in millionths of a hedge, so ten deposits of 0.1 make exactly one
+        private static final long UNIT = 1_000_000;
+
+        private final long earned;
+        private final long capacity;
+        private long balance;
+
+        HedgeBudget(double ratio, int burst) {
+            this.earned = Math.round(ratio * UNIT);
+            this.capacity = Math.max(1, burst) * UNIT;
+        }
+
+        synchronized void deposit() {
+            balance = Math.min(capacity, balance + earned);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (balance < UNIT) {
+                return false;
+            }
+            balance -= UNIT;
+            return true;
+        }
+    }
+
+    public static class Config {
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofMillis(500);
+        private double percentile = 0.95;
+        private double maxHedgeRatio = 0.1;
+        private int maxHedgeBurst = 10;
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public Config setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public Config setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public Config setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        public double getMaxHedgeRatio() {
+            return maxHedgeRatio;
+        }
+
+        public Config setMaxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        public int getMaxHedgeBurst() {
+            return maxHedgeBurst;
+        }
+
+        public Config setMaxHedgeBurst(int maxHedgeBurst) {
+            this.maxHedgeBurst = maxHedgeBurst;
+            return this;
+        }
+    }
+}
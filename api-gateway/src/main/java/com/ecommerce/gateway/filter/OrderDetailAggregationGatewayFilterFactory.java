@@ -0,0 +1,281 @@
+package com.ecommerce.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Answers an order detail page in one round trip: the order, its payments, the ordering user and
+ * the product of every line item, fetched from the services without blocking. Payments are requested
+ * alongside the order; user and products as soon as the order is known, products in
+ * {@code product-batch-size} chunks via {@code /products/batch}. The order itself is required
+ * (its status is returned as-is, a timeout is 504); every other leg has its own
+ * {@code leg-timeout} and is reported under {@code unavailable} when it fails, so the page can
+ * render what arrived.
+ * <pre>
+ * - id: order-detail
+ *   uri: no://op
+ *   predicates:
+ *     - Path=/api/bff/orders/{orderId}
+ *     - Method=GET
+ *   filters:
+ *     - name: OrderDetailAggregation
+ *       args:
+ *         order-timeout: 2s
+ *         leg-timeout: 1s
+ * </pre>
+ */
+@Component
+public class OrderDetailAggregationGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<OrderDetailAggregationGatewayFilterFactory.Config> {
+
+    private static final String AGGREGATE = "order_detail";
+    private static final String ORDER_SERVICE = "http://order-service";
+    private static final String PAYMENT_SERVICE = "http://payment-service";
+    private static final String USER_SERVICE = "http://user-service";
+    private static final String PRODUCT_SERVICE = "http://product-service";
+    private static final List<String> FORWARDED_HEADERS = Arrays.asList(
+        HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_LANGUAGE, "traceparent", "tracestate", "X-Request-Id");
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+
+    public OrderDetailAggregationGatewayFilterFactory(WebClient.Builder loadBalancedWebClientBuilder,
+                                                      ObjectMapper objectMapper, MeterRegistry registry) {
+        super(Config.class);
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return Arrays.asList("orderTimeout", "legTimeout");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            String orderId = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("orderId");
+            if (orderId == null || orderId.isEmpty() || !orderId.chars().allMatch(Character::isDigit)) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order id must be numeric"));
+            }
+            HttpHeaders headers = forwardedHeaders(exchange.getRequest());
+            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+
+            Mono<JsonNode> order = fetch(ORDER_SERVICE + "/orders/" + orderId, headers)
+                .timeout(config.getOrderTimeout())
+                .doOnEach(signal -> {
+                    if (signal.isOnNext() || signal.isOnError()) {
+                        recordLeg("order", signal.isOnNext() ? "ok" : outcomeOf(signal.getThrowable()));
+                    }
+                })
+                .onErrorMap(OrderDetailAggregationGatewayFilterFactory::orderFailure);
+            Mono<Leg> payments = leg("payments", fetch(PAYMENT_SERVICE + "/payments/order/" + orderId, headers), config);
+
+            Mono<ObjectNode> detail = Mono.zip(
+                    order.flatMap(orderNode -> Mono.zip(
+                        Mono.just(orderNode),
+                        leg("user", fetch(USER_SERVICE + "/users/" + orderNode.path("userId").asText(), headers), config),
+                        leg("products", products(orderNode, headers, config), config))),
+                    payments)
+                .map(legs -> compose(legs.getT1().getT1(), legs.getT1().getT2(), legs.getT1().getT3(), legs.getT2()));
+
+            return detail.flatMap(body -> write(exchange.getResponse(), body));
+        };
+    }
+
+    private Mono<JsonNode> fetch(String uri, HttpHeaders headers) {
+        return webClient.get()
+            .uri(uri)
+            .headers(target -> target.addAll(headers))
+            .accept(MediaType.APPLICATION_JSON)
+            .retrieve()
+            .bodyToMono(JsonNode.class);
+    }
+
+    private Mono<JsonNode> products(JsonNode order, HttpHeaders headers, Config config) {
+        Set<String> ids = new LinkedHashSet<>();
+        order.path("orderItems").forEach(item -> {
+            if (item.hasNonNull("productId")) {
+                ids.add(item.get("productId").asText());
+            }
+        });
+        List<List<String>> batches = new ArrayList<>();
+        List<String> remaining = new ArrayList<>(ids);
+        for (int i = 0; i < remaining.size(); i += config.getProductBatchSize()) {
+            batches.add(remaining.subList(i, Math.min(remaining.size(), i + config.getProductBatchSize())));
+        }
+        return Flux.fromIterable(batches)
+            .flatMap(batch -> fetch(PRODUCT_SERVICE + "/products/batch?ids=" + String.join(",", batch), headers))
+            .collect(objectMapper::createArrayNode, (all, batch) -> batch.forEach(all::add))
+            .cast(JsonNode.class);
+    }
+
+    private Mono<Leg> leg(String name, Mono<JsonNode> call, Config config) {
+        return call
+            .timeout(config.getLegTimeout())
+            .map(body -> {
+                recordLeg(name, "ok");
+                return Leg.ok(name, body);
+            })
+            .defaultIfEmpty(Leg.ok(name, null))
+            .onErrorResume(e -> {
+                recordLeg(name, outcomeOf(e));
+                return Mono.just(Leg.failed(name));
+            });
+    }
+
+    private ObjectNode compose(JsonNode order, Leg user, Leg products, Leg payments) {
+        Map<String, JsonNode> productsById = new HashMap<>();
+        if (products.body != null) {
+            products.body.forEach(product -> productsById.put(product.path("id").asText(), product));
+        }
+        ObjectNode orderNode = order.deepCopy();
+        orderNode.path("orderItems").forEach(item -> ((ObjectNode) item)
+            .set("product", products.available ? productsById.get(item.path("productId").asText()) : null));
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.set("order", orderNode);
+        body.set("user", user.body);
+        body.set("payments", payments.body);
+        ArrayNode unavailable = body.putArray("unavailable");
+        for (Leg leg : List.of(user, products, payments)) {
+            if (!leg.available) {
+                unavailable.add(leg.name);
+            }
+        }
+        body.put("partial", !unavailable.isEmpty());
+        return body;
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, ObjectNode body) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static HttpHeaders forwardedHeaders(ServerHttpRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : FORWARDED_HEADERS) {
+            List<String> values = request.getHeaders().get(name);
+            if (values != null) {
+                headers.addAll(name, values);
+            }
+        }
+        return headers;
+    }
+
+    // The order decides the whole response: pass its 4xx through, report everything else as a gateway error
+    private static Throwable orderFailure(Throwable e) {
+        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            return new ResponseStatusException(response.getStatusCode(), "Order lookup failed");
+        }
+        if (e instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Order service did not answer in time");
+        }
+        return new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Order service unavailable", e);
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        return e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()
+            ? "client_error" : "error";
+    }
+
+    private void recordLeg(String leg, String outcome) {
+        registry.counter("gateway_aggregation_legs_total", "aggregate", AGGREGATE, "leg", leg, "outcome", outcome)
+            .increment();
+    }
+
+    private static final class Leg {
+        private final String name;
+        private final JsonNode body;
+        private final boolean available;
+
+        private Leg(String name, JsonNode body, boolean available) {
+            this.name = name;
+            this.body = body;
+            this.available = available;
+        }
+
+        static Leg ok(String name, JsonNode body) {
+            return new Leg(name, body, true);
+        }
+
+        static Leg failed(String name) {
+            return new Leg(name, null, false);
+        }
+    }
+
+    public static class Config {
+        private Duration orderTimeout = Duration.ofSeconds(2);
+        private Duration legTimeout = Duration.ofSeconds(1);
+        private int productBatchSize = 100;
+
+        public Duration getOrderTimeout() {
+            return orderTimeout;
+        }
+
+        public Config setOrderTimeout(Duration orderTimeout) {
+            this.orderTimeout = orderTimeout;
+            return this;
+        }
+
+        public Duration getLegTimeout() {
+            return legTimeout;
+        }
+
+        public Config setLegTimeout(Duration legTimeout) {
+            this.legTimeout = legTimeout;
+            return this;
+        }
+
+        public int getProductBatchSize() {
+            return productBatchSize;
+        }
+
+        public Config setProductBatchSize(int productBatchSize) {
+            this.productBatchSize = productBatchSize;
+            return this;
+        }
+    }
+}
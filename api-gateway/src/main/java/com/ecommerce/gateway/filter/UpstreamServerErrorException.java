@@ -0,0 +1,15 @@
+package com.ecommerce.gateway.filter;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A hedged attempt answered 502/503/504. Raised as an error so the route's Retry and CircuitBreaker
+ * filters see it; if nothing recovers, the client gets the upstream status.
+ */
+public class UpstreamServerErrorException extends ResponseStatusException {
+
+    public UpstreamServerErrorException(HttpStatusCode status, String route) {
+        super(status, "Upstream " + route + " responded " + status.value());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+
+/**
+ * Evicts an instance through {@link InstanceQuarantine} when a load-balanced call (gateway route or
+ * hedged attempt) could not connect to it. Failures after the connection was made are left to
+ * {@link LoadBalancerStats}: a slow or erroring instance is still reachable.
+ */
+public class ConnectionFailureLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final InstanceQuarantine quarantine;
+
+    public ConnectionFailureLifecycle(InstanceQuarantine quarantine) {
+        this.quarantine = quarantine;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED
+                && completionContext.getLoadBalancerResponse() != null
+                && completionContext.getLoadBalancerResponse().hasServer()
+                && isConnectionFailure(completionContext.getThrowable())) {
+            quarantine.evict(completionContext.getLoadBalancerResponse().getServer(), completionContext.getThrowable());
+        }
+    }
+
+    static boolean isConnectionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            // ConnectException covers Netty's refused connections, ConnectTimeoutException an unanswered SYN
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                    || cause instanceof NoRouteToHostException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
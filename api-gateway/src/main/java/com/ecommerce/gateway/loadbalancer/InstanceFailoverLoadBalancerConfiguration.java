@@ -0,0 +1,19 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration that replaces the default discovery-client supplier and its
+ * TTL cache with {@link RegistryInstanceListSupplier}. Like {@link PeakEwmaLoadBalancerConfiguration},
+ * deliberately not a {@code @Configuration}.
+ */
+public class InstanceFailoverLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier registryInstanceListSupplier(Environment environment, RegistryInstanceCache cache) {
+        return new RegistryInstanceListSupplier(environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME), cache);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instances the gateway stops routing to as soon as a connection to them fails, instead of waiting
+ * for Eureka to expire their lease and for the next registry fetch. Evicted instances are probed on
+ * their health endpoint every {@code probe-interval} and re-admitted on the first UP answer, with
+ * their {@link LoadBalancerStats} reset so peak-EWMA tries them again instead of remembering the
+ * failure penalty. Evictions of instances that have left the registry are dropped.
+ * <p>
+ * If every instance of a service is evicted, the full list is used: failing every request at the
+ * gateway is no better than trying.
+ */
+public class InstanceQuarantine {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceQuarantine.class);
+
+    private final Map<String, Eviction> evictions = new ConcurrentHashMap<>();
+    private final LoadBalancerStats stats;
+    private final MeterRegistry registry;
+    private final WebClient probeClient;
+    private final Duration probeInterval;
+    private final String healthPath;
+    private Disposable probing;
+
+    public InstanceQuarantine(LoadBalancerStats stats, MeterRegistry registry, Duration probeInterval,
+                              Duration probeTimeout, String healthPath) {
+        this.stats = stats;
+        this.registry = registry;
+        this.probeInterval = probeInterval;
+        this.healthPath = healthPath;
+        HttpClient httpClient = HttpClient.create()
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) probeTimeout.toMillis())
+            .responseTimeout(probeTimeout);
+        this.probeClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        Gauge.builder("gateway_lb_evicted_instances", evictions, Map::size)
+            .description("Instances evicted after a connection failure and not yet re-admitted")
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        probing = Flux.interval(probeInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> probe())
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (probing != null) {
+            probing.dispose();
+        }
+    }
+
+    public void evict(ServiceInstance instance, Throwable cause) {
+        if (evictions.putIfAbsent(key(instance), new Eviction(instance, System.nanoTime())) == null) {
+            counter("gateway_lb_evictions_total", "Instances evicted after a connection failure", instance).increment();
+            log.warn("Evicted {} instance {} after connection failure: {}", instance.getServiceId(), key(instance), cause.toString());
+        }
+    }
+
+    public boolean isEvicted(ServiceInstance instance) {
+        return !evictions.isEmpty() && evictions.containsKey(key(instance));
+    }
+
+    public List<ServiceInstance> filter(List<ServiceInstance> instances) {
+        if (evictions.isEmpty()) {
+            return instances;
+        }
+        List<ServiceInstance> admitted = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!evictions.containsKey(key(instance))) {
+                admitted.add(instance);
+            }
+        }
+        return admitted.isEmpty() ? instances : admitted;
+    }
+
+    /** Forgets evicted {@code serviceId} instances that are no longer in {@code registered}. */
+    public void retainRegistered(String serviceId, List<ServiceInstance> registered) {
+        if (evictions.isEmpty()) {
+            return;
+        }
+        Set<String> keys = new HashSet<>();
+        for (ServiceInstance instance : registered) {
+            keys.add(key(instance));
+        }
+        evictions.values().removeIf(eviction -> serviceId.equals(eviction.instance.getServiceId())
+            && !keys.contains(key(eviction.instance)));
+    }
+
+    Mono<Void> probe() {
+        return Flux.fromIterable(List.copyOf(evictions.values()))
+            .flatMap(eviction -> probeClient.get()
+                .uri(eviction.instance.getUri().resolve(healthPath))
+                .retrieve()
+                .bodyToMono(Map.class)
+                .filter(health -> "UP".equals(health.get("status")))
+                .doOnNext(health -> readmit(eviction))
+                .onErrorResume(e -> Mono.empty()))
+            .then();
+    }
+
+    private void readmit(Eviction eviction) {
+        ServiceInstance instance = eviction.instance;
+        if (evictions.remove(key(instance), eviction)) {
+            stats.reset(instance);
+            long evictedNanos = System.nanoTime() - eviction.evictedAt;
+            Timer.builder("gateway_lb_instance_eviction_duration")
+                .description("Time from an instance's eviction to its re-admission after a passing health probe")
+                .tag("service", String.valueOf(instance.getServiceId()))
+                .register(registry)
+                .record(evictedNanos, TimeUnit.NANOSECONDS);
+            counter("gateway_lb_readmissions_total", "Evicted instances re-admitted after a passing health probe",
+                instance).increment();
+            log.info("Re-admitted {} instance {} after {} ms", instance.getServiceId(), key(instance),
+                TimeUnit.NANOSECONDS.toMillis(evictedNanos));
+        }
+    }
+
+    private Counter counter(String name, String description, ServiceInstance instance) {
+        return Counter.builder(name)
+            .description(description)
+            .tag("service", String.valueOf(instance.getServiceId()))
+            .register(registry);
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private record Eviction(ServiceInstance instance, long evictedAt) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Live per-instance load, fed by {@link LoadBalancerStatsLifecycle} and read by
+ * {@link PeakEwmaLoadBalancer}.
+ * <p>
+ * Latency is a peak-sensitive EWMA: a sample above the average replaces it outright, lower samples
+ * are blended in with a weight that depends on the time since the last update ({@code decay-time}).
+ * A pausing instance is therefore penalised on its first slow response and forgiven gradually.
+ * Failures count as a {@code failure-penalty} sample.
+ */
+@Component
+public class LoadBalancerStats {
+
+    private final Map<String, InstanceStats> instances = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final LongSupplier nanoClock;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final long staleOutstandingNanos;
+
+    @Autowired
+    public LoadBalancerStats(MeterRegistry registry,
+                             @Value("${gateway.load-balancer.decay-time:10s}") Duration decayTime,
+                             @Value("${gateway.load-balancer.failure-penalty:1s}") Duration failurePenalty) {
+        this(registry, System::nanoTime, decayTime, failurePenalty);
+    }
+
+    LoadBalancerStats(MeterRegistry registry, LongSupplier nanoClock, Duration decayTime, Duration failurePenalty) {
+        this.registry = registry;
+        this.nanoClock = nanoClock;
+        this.decayNanos = decayTime.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        // Completions lost to cancellation never decrement; forget outstanding counts that old
+        this.staleOutstandingNanos = Math.max(decayTime.toNanos() * 3, Duration.ofSeconds(30).toNanos());
+    }
+
+    public void onStart(ServiceInstance instance) {
+        statsFor(instance).start(nanoClock.getAsLong());
+    }
+
+    public void onComplete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        statsFor(instance).complete(nanoClock.getAsLong(), failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos);
+    }
+
+    /**
+     * Lower is better: expected latency times the requests already queued on the instance. Instances
+     * without samples cost nothing so they get probed, unless they already have work outstanding.
+     */
+    public double cost(ServiceInstance instance) {
+        return statsFor(instance).cost(nanoClock.getAsLong());
+    }
+
+    /** Forgets the instance's latency and outstanding count, so it is probed again like a new one. */
+    public void reset(ServiceInstance instance) {
+        statsFor(instance).reset();
+    }
+
+    /**
+     * Forgets {@code serviceId} instances that are no longer in {@code registered}, with their gauges,
+     * so instances replaced by a deploy or autoscaling do not accumulate. A request still in flight to
+     * one re-creates its entry, which the next registry fetch removes again.
+     */
+    public void retainRegistered(String serviceId, List<ServiceInstance> registered) {
+        Set<String> keys = new HashSet<>();
+        for (ServiceInstance instance : registered) {
+            keys.add(key(instance));
+        }
+        for (Iterator<Map.Entry<String, InstanceStats>> it = instances.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, InstanceStats> entry = it.next();
+            if (serviceId.equals(entry.getValue().serviceId) && !keys.contains(entry.getKey())) {
+                it.remove();
+                entry.getValue().meters.forEach(registry::remove);
+            }
+        }
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        String key = key(instance);
+        InstanceStats stats = instances.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        return instances.computeIfAbsent(key, k -> {
+            InstanceStats created = new InstanceStats(instance.getServiceId());
+            Tags tags = Tags.of("service", String.valueOf(instance.getServiceId()), "instance", k);
+            created.meters.add(Gauge.builder("gateway_lb_instance_score", created, s -> s.cost(nanoClock.getAsLong()))
+                .description("Peak-EWMA load balancer cost of the instance (lower wins)")
+                .tags(tags)
+                .register(registry));
+            created.meters.add(Gauge.builder("gateway_lb_instance_latency_ewma_seconds", created, s -> s.ewmaNanos / 1e9)
+                .description("Peak-EWMA response time of the instance")
+                .tags(tags)
+                .register(registry));
+            created.meters.add(Gauge.builder("gateway_lb_instance_outstanding", created, s -> s.outstanding)
+                .description("Requests routed to the instance that have not completed")
+                .tags(tags)
+                .register(registry));
+            return created;
+        });
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private final class InstanceStats {
+        private final String serviceId;
+        private final List<Meter> meters = new ArrayList<>(3);
+        private double ewmaNanos;
+        private int outstanding;
+        private long lastUpdateNanos;
+        private long lastActivityNanos;
+
+        InstanceStats(String serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        synchronized void start(long now) {
+            outstanding++;
+            lastActivityNanos = now;
+        }
+
+        synchronized void complete(long now, long latencyNanos) {
+            if (outstanding > 0) {
+                outstanding--;
+            }
+            lastActivityNanos = now;
+            if (ewmaNanos == 0 || latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdateNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        synchronized void reset() {
+            ewmaNanos = 0;
+            outstanding = 0;
+        }
+
+        synchronized double cost(long now) {
+            if (outstanding > 0 && now - lastActivityNanos > staleOutstandingNanos) {
+                outstanding = 0;
+            }
+            if (ewmaNanos == 0) {
+                return outstanding == 0 ? 0 : failurePenaltyNanos + outstanding;
+            }
+            return ewmaNanos * (outstanding + 1);
+        }
+    }
+}
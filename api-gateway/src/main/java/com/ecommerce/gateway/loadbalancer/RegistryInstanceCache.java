@@ -0,0 +1,53 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The gateway's instance lists, reloaded from the Eureka client's local registry each time the client
+ * applies a registry fetch (usually a delta) instead of on the load balancer cache's fixed TTL, so a
+ * registration or cancellation reaches routing on the next fetch. Reads are a map lookup plus
+ * {@link InstanceQuarantine} filtering. Instances that left the registry are also dropped from the
+ * quarantine and from {@link LoadBalancerStats}.
+ */
+public class RegistryInstanceCache {
+
+    private final DiscoveryClient discoveryClient;
+    private final InstanceQuarantine quarantine;
+    private final LoadBalancerStats stats;
+    private final Map<String, List<ServiceInstance>> instances = new ConcurrentHashMap<>();
+
+    public RegistryInstanceCache(DiscoveryClient discoveryClient, InstanceQuarantine quarantine,
+                                 LoadBalancerStats stats) {
+        this.discoveryClient = discoveryClient;
+        this.quarantine = quarantine;
+        this.stats = stats;
+    }
+
+    public List<ServiceInstance> get(String serviceId) {
+        List<ServiceInstance> registered = instances.get(serviceId);
+        if (registered == null) {
+            registered = instances.computeIfAbsent(serviceId, this::load);
+        }
+        return quarantine.filter(registered);
+    }
+
+    /** Published by the Eureka client after every registry fetch. */
+    @EventListener(HeartbeatEvent.class)
+    public void onRegistryFetched() {
+        instances.replaceAll((serviceId, previous) -> load(serviceId));
+    }
+
+    private List<ServiceInstance> load(String serviceId) {
+        List<ServiceInstance> registered = List.copyOf(discoveryClient.getInstances(serviceId));
+        quarantine.retainRegistered(serviceId, registered);
+        stats.retainRegistered(serviceId, registered);
+        return registered;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/** Serves one service's admitted instances from {@link RegistryInstanceCache}. */
+public class RegistryInstanceListSupplier implements ServiceInstanceListSupplier {
+
+    private final String serviceId;
+    private final RegistryInstanceCache cache;
+
+    public RegistryInstanceListSupplier(String serviceId, RegistryInstanceCache cache) {
+        this.serviceId = serviceId;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return Flux.defer(() -> Flux.just(cache.get(serviceId)));
+    }
+}
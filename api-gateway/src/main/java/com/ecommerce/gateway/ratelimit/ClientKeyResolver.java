@@ -0,0 +1,92 @@
+package com.ecommerce.gateway.ratelimit;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.SecretKey;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Identifies the caller for rate limiting: the authenticated principal, else the subject of a bearer
+ * token whose signature checks out against user-service's key, else the client address. Anything the
+ * client can make up (an unverified token, an {@code X-Forwarded-For} hop) would hand it a fresh
+ * bucket per request, so the address is the connection's peer; {@code X-Forwarded-For} is only read
+ * when that peer is one of {@code gateway.rate-limit.trusted-proxies}, and then the client is the
+ * right-most hop that is not itself a trusted proxy.
+ */
+@Component("clientKeyResolver")
+public class ClientKeyResolver implements KeyResolver {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final SecretKey signingKey;
+    private final Set<String> trustedProxies;
+
+    public ClientKeyResolver(@Value("${jwt.secret:MySecretKeyForJWTTokenGeneration12345678901234567890}") String secret,
+                             @Value("${gateway.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.trustedProxies = trustedProxies.stream()
+            .map(String::trim)
+            .filter(proxy -> !proxy.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+            .map(principal -> "user:" + principal.getName())
+            .switchIfEmpty(Mono.fromSupplier(() -> anonymousKey(exchange.getRequest())));
+    }
+
+    private String anonymousKey(ServerHttpRequest request) {
+        String subject = verifiedSubject(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        return subject != null ? "user:" + subject : "ip:" + clientAddress(request);
+    }
+
+    private String verifiedSubject(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        try {
+            return Jwts.parser()
+                .verifyWith(signingKey)
+                .build()
+                .parseSignedClaims(authorization.substring(BEARER_PREFIX.length()))
+                .getPayload()
+                .getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String peer = remoteAddress != null && remoteAddress.getAddress() != null
+            ? remoteAddress.getAddress().getHostAddress() : "unknown";
+        String forwardedFor = request.getHeaders().getFirst(FORWARDED_FOR);
+        if (!trustedProxies.contains(peer) || forwardedFor == null || forwardedFor.isBlank()) {
+            return peer;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return peer;
+    }
+}
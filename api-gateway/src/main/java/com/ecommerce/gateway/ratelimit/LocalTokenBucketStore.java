@@ -0,0 +1,81 @@
+package com.ecommerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token buckets. Limits are per gateway instance, so a cluster of N gateways admits up to
+ * N times the configured rate. Buckets that have refilled completely carry no state and are swept
+ * once the map grows past {@code gateway.rate-limit.local.max-buckets}.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "local", matchIfMissing = true)
+public class LocalTokenBucketStore implements TokenBucketStore {
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+
+    public LocalTokenBucketStore(MeterRegistry registry,
+                                 @Value("${gateway.rate-limit.local.max-buckets:100000}") int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+        Gauge.builder("gateway_rate_limit_buckets", buckets, Map::size)
+            .description("Token buckets held in memory by the gateway rate limiter")
+            .register(registry);
+    }
+
+    @Override
+    public Mono<ConsumeResult> tryConsume(String key, TokenBucketRateLimiter.Config config) {
+        if (buckets.size() >= maxBuckets) {
+            long now = System.nanoTime();
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(config.getBurstCapacity()));
+        return Mono.just(bucket.tryConsume(config, System.nanoTime()));
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+        private double capacity;
+        private double ratePerNano;
+
+        Bucket(int capacity) {
+            this.tokens = capacity;
+            this.capacity = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized ConsumeResult tryConsume(TokenBucketRateLimiter.Config config, long now) {
+            capacity = config.getBurstCapacity();
+            ratePerNano = config.getReplenishRate() / 1_000_000_000.0;
+            refill(now);
+            int requested = config.getRequestedTokens();
+            if (tokens >= requested) {
+                tokens -= requested;
+                return new ConsumeResult(true, (long) tokens, 0);
+            }
+            long waitNanos = (long) Math.ceil((requested - tokens) / ratePerNano);
+            return new ConsumeResult(false, (long) tokens, Math.max(1, waitNanos / 1_000_000));
+        }
+
+        synchronized boolean isFull(long now) {
+            if (ratePerNano == 0) {
+                return false;
+            }
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * ratePerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.gateway.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Cluster-wide token buckets in Redis. Refill and consume run in one Lua script against Redis'
+ * clock, so gateway instances share a bucket without clock skew. If Redis is unavailable requests are
+ * let through rather than failing the gateway.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "redis")
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTokenBucketStore.class);
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> TOKEN_BUCKET = (RedisScript) RedisScript.of(
+        "local rate = tonumber(ARGV[1])\n"
+        + "local capacity = tonumber(ARGV[2])\n"
+        + "local requested = tonumber(ARGV[3])\n"
+        + "local time = redis.call('TIME')\n"
+        + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n"
+        + "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n"
+        + "local tokens = tonumber(state[1]) or capacity\n"
+        + "local ts = tonumber(state[2]) or now\n"
+        + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)\n"
+        + "local allowed = 0\n"
+        + "local wait = 0\n"
+        + "if tokens >= requested then\n"
+        + "  tokens = tokens - requested\n"
+        + "  allowed = 1\n"
+        + "else\n"
+        + "  wait = math.ceil((requested - tokens) * 1000 / rate)\n"
+        + "end\n"
+        + "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)\n"
+        + "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)\n"
+        + "return { allowed, math.floor(tokens), wait }\n",
+        List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<ConsumeResult> tryConsume(String key, TokenBucketRateLimiter.Config config) {
+        List<String> args = List.of(
+            Double.toString(config.getReplenishRate()),
+            Integer.toString(config.getBurstCapacity()),
+            Integer.toString(config.getRequestedTokens()));
+        return redisTemplate.execute(TOKEN_BUCKET, List.of(KEY_PREFIX + key), args)
+            .next()
+            .map(result -> new ConsumeResult(result.get(0) == 1L, result.get(1), result.get(2)))
+            .onErrorResume(e -> {
+                log.warn("Redis rate limiter unavailable, allowing request: {}", e.getMessage());
+                return Mono.just(new ConsumeResult(true, -1, 0));
+            });
+    }
+}
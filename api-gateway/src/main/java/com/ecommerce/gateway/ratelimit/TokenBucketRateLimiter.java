@@ -0,0 +1,109 @@
+package com.ecommerce.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} for the
+ * {@code RequestRateLimiter} filter. Each route gets its own bucket per client key, sized by the
+ * route's filter args:
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     token-bucket-rate-limiter.replenish-rate: 20
+ *     token-bucket-rate-limiter.burst-capacity: 40
+ * </pre>
+ * Denied requests get 429 with {@code Retry-After} (whole seconds until enough tokens refill).
+ */
+@Component
+@Primary
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+
+    private final TokenBucketStore store;
+    private final MeterRegistry registry;
+    private final Config defaultConfig;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(TokenBucketStore store, MeterRegistry registry,
+                                  ConfigurationService configurationService,
+                                  @Value("${gateway.rate-limit.default.replenish-rate:50}") double replenishRate,
+                                  @Value("${gateway.rate-limit.default.burst-capacity:100}") int burstCapacity) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.registry = registry;
+        this.defaultConfig = new Config().setReplenishRate(replenishRate).setBurstCapacity(burstCapacity);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        return store.tryConsume(routeId + ":" + id, config)
+            .map(result -> {
+                counterFor(routeId, result.isAllowed()).increment();
+                Map<String, String> headers = new HashMap<>();
+                headers.put("X-RateLimit-Replenish-Rate", String.valueOf(config.getReplenishRate()));
+                headers.put("X-RateLimit-Burst-Capacity", String.valueOf(config.getBurstCapacity()));
+                if (result.getRemaining() >= 0) {
+                    headers.put("X-RateLimit-Remaining", String.valueOf(result.getRemaining()));
+                }
+                if (!result.isAllowed()) {
+                    headers.put("Retry-After", String.valueOf(Math.max(1, (result.getRetryAfterMillis() + 999) / 1000)));
+                }
+                return new Response(result.isAllowed(), headers);
+            });
+    }
+
+    private Counter counterFor(String routeId, boolean allowed) {
+        String outcome = allowed ? "allowed" : "limited";
+        return counters.computeIfAbsent(routeId + ":" + outcome, key -> Counter.builder("gateway_rate_limit_requests_total")
+            .description("Requests checked by the gateway rate limiter")
+            .tag("route", routeId)
+            .tag("outcome", outcome)
+            .register(registry));
+    }
+
+    public static class Config {
+        private double replenishRate = 50;
+        private int burstCapacity = 100;
+        private int requestedTokens = 1;
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
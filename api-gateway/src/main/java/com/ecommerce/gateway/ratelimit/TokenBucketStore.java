@@ -0,0 +1,36 @@
+package com.ecommerce.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds token buckets for {@link TokenBucketRateLimiter}. The local store limits per gateway instance;
+ * the Redis store shares buckets across the cluster.
+ */
+public interface TokenBucketStore {
+
+    Mono<ConsumeResult> tryConsume(String key, TokenBucketRateLimiter.Config config);
+
+    final class ConsumeResult {
+        private final boolean allowed;
+        private final long remaining;
+        private final long retryAfterMillis;
+
+        public ConsumeResult(boolean allowed, long remaining, long retryAfterMillis) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
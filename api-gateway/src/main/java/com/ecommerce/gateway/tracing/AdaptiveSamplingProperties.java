@@ -0,0 +1,92 @@
+package com.ecommerce.gateway.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rebound on {@code /actuator/refresh}, and read on every sampling decision, so rates and thresholds
+ * can be tuned from config-server without a restart. Only {@code management.tracing.sampling.probability}
+ * (used while adaptive sampling is disabled) needs a restart.
+ */
+@ConfigurationProperties(prefix = "tracing.adaptive-sampling")
+public class AdaptiveSamplingProperties {
+
+    private boolean enabled = true;
+    /** Root traces sampled per second for each route without an override. */
+    private double defaultRate = 5;
+    /** Per-route rates keyed by span name, e.g. {@code "http get /api/products/{id}"}. */
+    private Map<String, Double> routes = new LinkedHashMap<>();
+    private int maxRoutes = 200;
+    /** Unsampled traces whose local root takes at least this long are exported anyway. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+    private int maxBufferedTraces = 5000;
+    private int maxSpansPerTrace = 200;
+    private Duration bufferTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getDefaultRate() {
+        return defaultRate;
+    }
+
+    public void setDefaultRate(double defaultRate) {
+        this.defaultRate = defaultRate;
+    }
+
+    public Map<String, Double> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Double> routes) {
+        this.routes = routes;
+    }
+
+    public int getMaxRoutes() {
+        return maxRoutes;
+    }
+
+    public void setMaxRoutes(int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getMaxBufferedTraces() {
+        return maxBufferedTraces;
+    }
+
+    public void setMaxBufferedTraces(int maxBufferedTraces) {
+        this.maxBufferedTraces = maxBufferedTraces;
+    }
+
+    public int getMaxSpansPerTrace() {
+        return maxSpansPerTrace;
+    }
+
+    public void setMaxSpansPerTrace(int maxSpansPerTrace) {
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    public Duration getBufferTimeout() {
+        return bufferTimeout;
+    }
+
+    public void setBufferTimeout(Duration bufferTimeout) {
+        this.bufferTimeout = bufferTimeout;
+    }
+}
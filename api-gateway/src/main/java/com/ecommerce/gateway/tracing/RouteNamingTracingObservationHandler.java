@@ -0,0 +1,34 @@
+package com.ecommerce.gateway.tracing;
+
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+
+/**
+ * Boot's receiver tracing handler, except that a server span is started under its route name. The
+ * stock handler starts the span unnamed and Micrometer applies the convention's contextual name only
+ * when the observation stops; WebFlux starts the observation before any {@code WebFilter} runs, so
+ * nothing else can supply the route in time. Without the name {@link AdaptiveSampler} would see every
+ * gateway request as one route and spend a single budget on all of them.
+ */
+public class RouteNamingTracingObservationHandler extends PropagatingReceiverTracingObservationHandler<ReceiverContext> {
+
+    private final RouteObservationConvention convention;
+
+    public RouteNamingTracingObservationHandler(Tracer tracer, Propagator propagator,
+                                                RouteObservationConvention convention) {
+        super(tracer, propagator);
+        this.convention = convention;
+    }
+
+    @Override
+    public Span.Builder customizeExtractedSpan(ReceiverContext context, Span.Builder builder) {
+        if (context instanceof ServerRequestObservationContext request) {
+            builder.name(convention.getContextualName(request));
+        }
+        return builder;
+    }
+}
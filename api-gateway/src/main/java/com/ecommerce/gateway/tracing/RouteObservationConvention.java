@@ -0,0 +1,55 @@
+package com.ecommerce.gateway.tracing;
+
+import org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+
+/**
+ * Names server spans after the request path when no handler pattern is known, which for gateway
+ * routes is always: {@code http get /api/products/{id}} instead of {@code http get}. Numeric and UUID
+ * segments become {@code {id}} so names stay low-cardinality. Micrometer only applies a contextual
+ * name when the observation stops, so {@link RouteNamingTracingObservationHandler} also uses it to
+ * start the span, which is what lets {@link AdaptiveSampler} budget per route.
+ */
+public class RouteObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public String getContextualName(ServerRequestObservationContext context) {
+        if (context.getPathPattern() != null) {
+            return super.getContextualName(context);
+        }
+        String method = context.getCarrier().getMethod().name().toLowerCase();
+        return route("http " + method, context.getCarrier().getPath().pathWithinApplication().value());
+    }
+
+    static String route(String prefix, String path) {
+        StringBuilder route = new StringBuilder(prefix.length() + path.length() + 8).append(prefix).append(' ');
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start + 1);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdentifier(path, start + 1, end)) {
+                route.append("/{id}");
+            } else {
+                route.append(path, start, end);
+            }
+            start = end;
+        }
+        return route.toString();
+    }
+
+    private static boolean isIdentifier(String path, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        boolean digitsOnly = true;
+        boolean uuid = to - from == 36;
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            digitsOnly &= c >= '0' && c <= '9';
+            uuid &= c == '-' || Character.digit(c, 16) >= 0;
+        }
+        return digitsOnly || uuid;
+    }
+}
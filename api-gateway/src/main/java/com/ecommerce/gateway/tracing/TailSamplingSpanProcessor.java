@@ -0,0 +1,230 @@
+package com.ecommerce.gateway.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail half of adaptive sampling. Spans that {@link AdaptiveSampler} recorded without sampling are
+ * buffered per trace until the trace's local root span ends. The trace is then exported if any of its
+ * spans failed or the root took at least {@code slow-threshold}, and discarded otherwise. Sampled
+ * spans are left to Boot's batch processor.
+ * <p>
+ * Buffers are bounded by trace count, spans per trace and age; whatever does not fit is dropped and
+ * counted. Kept spans are re-flagged as sampled and exported in batches from a single daemon thread.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(TailSamplingSpanProcessor.class);
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> ERROR = AttributeKey.stringKey("error");
+    private static final int EXPORT_QUEUE_SIZE = 4096;
+    private static final int EXPORT_BATCH_SIZE = 512;
+
+    private final AdaptiveSamplingProperties properties;
+    private final SpanExporter exporter;
+    private final Map<String, TraceBuffer> buffers = new ConcurrentHashMap<>();
+    private final BlockingQueue<SpanData> exportQueue = new ArrayBlockingQueue<>(EXPORT_QUEUE_SIZE);
+    private final ScheduledExecutorService scheduler;
+    private final Counter keptForError;
+    private final Counter keptAsSlow;
+    private final Counter discarded;
+    private final Counter expired;
+    private final Counter overflow;
+
+    public TailSamplingSpanProcessor(AdaptiveSamplingProperties properties, SpanExporter exporter, MeterRegistry registry) {
+        this.properties = properties;
+        this.exporter = exporter;
+        this.keptForError = decisionCounter("error", registry);
+        this.keptAsSlow = decisionCounter("slow", registry);
+        this.discarded = decisionCounter("discarded", registry);
+        this.expired = decisionCounter("expired", registry);
+        this.overflow = Counter.builder("tracing_tail_spans_dropped_total")
+            .description("Unsampled spans not buffered because a buffer or the export queue was full")
+            .register(registry);
+        Gauge.builder("tracing_tail_buffered_traces", buffers, Map::size)
+            .description("Unsampled traces waiting for their local root span to end")
+            .register(registry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tail-sampling-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::exportAndExpire, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanContext context = span.getSpanContext();
+        if (context.isSampled() || !properties.isEnabled()) {
+            return;
+        }
+        SpanData data = span.toSpanData();
+        boolean localRoot = !span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote();
+        TraceBuffer buffer = bufferFor(context.getTraceId(), !localRoot);
+        if (buffer == null) {
+            // A root with no buffered children needs no buffer of its own
+            if (localRoot) {
+                decide(List.of(data), failed(data), data);
+            } else {
+                overflow.increment();
+            }
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.spans.size() < properties.getMaxSpansPerTrace()) {
+                buffer.spans.add(data);
+            } else {
+                overflow.increment();
+            }
+            buffer.failed |= failed(data);
+        }
+        if (localRoot && buffers.remove(context.getTraceId(), buffer)) {
+            synchronized (buffer) {
+                decide(buffer.spans, buffer.failed, data);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        exportQueued();
+        return exporter.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        // The exporters are shared with Boot's batch processor, which shuts them down
+        scheduler.shutdownNow();
+        exportQueued();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private TraceBuffer bufferFor(String traceId, boolean create) {
+        TraceBuffer buffer = buffers.get(traceId);
+        if (buffer != null || !create) {
+            return buffer;
+        }
+        if (buffers.size() >= properties.getMaxBufferedTraces()) {
+            return null;
+        }
+        return buffers.computeIfAbsent(traceId, id -> new TraceBuffer());
+    }
+
+    private void decide(List<SpanData> spans, boolean failed, SpanData root) {
+        if (failed) {
+            keptForError.increment();
+        } else if (root.getEndEpochNanos() - root.getStartEpochNanos() >= properties.getSlowThreshold().toNanos()) {
+            keptAsSlow.increment();
+        } else {
+            discarded.increment();
+            return;
+        }
+        for (SpanData span : spans) {
+            if (!exportQueue.offer(new SampledSpanData(span))) {
+                overflow.increment();
+            }
+        }
+    }
+
+    private static boolean failed(SpanData span) {
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            return true;
+        }
+        String error = span.getAttributes().get(ERROR);
+        return "SERVER_ERROR".equals(span.getAttributes().get(OUTCOME)) || (error != null && !"none".equals(error));
+    }
+
+    private void exportAndExpire() {
+        try {
+            long cutoff = System.nanoTime() - properties.getBufferTimeout().toNanos();
+            for (Iterator<TraceBuffer> it = buffers.values().iterator(); it.hasNext(); ) {
+                if (it.next().createdAt < cutoff) {
+                    it.remove();
+                    expired.increment();
+                }
+            }
+            exportQueued();
+        } catch (RuntimeException e) {
+            log.warn("Tail sampling export failed: {}", e.getMessage());
+        }
+    }
+
+    private void exportQueued() {
+        List<SpanData> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+        while (exportQueue.drainTo(batch, EXPORT_BATCH_SIZE) > 0) {
+            exporter.export(batch).join(10, TimeUnit.SECONDS);
+            batch.clear();
+        }
+    }
+
+    private static Counter decisionCounter(String decision, MeterRegistry registry) {
+        return Counter.builder("tracing_tail_decisions_total")
+            .description("Unsampled local traces by tail sampling decision")
+            .tag("decision", decision)
+            .register(registry);
+    }
+
+    private static final class TraceBuffer {
+        private final long createdAt = System.nanoTime();
+        private final List<SpanData> spans = new ArrayList<>();
+        private boolean failed;
+    }
+
+    /** Marks a kept span as sampled so collectors and backends treat it like any other exported span. */
+    private static final class SampledSpanData extends DelegatingSpanData {
+        private final SpanContext spanContext;
+
+        SampledSpanData(SpanData delegate) {
+            super(delegate);
+            SpanContext original = delegate.getSpanContext();
+            this.spanContext = SpanContext.create(original.getTraceId(), original.getSpanId(),
+                TraceFlags.getSampled(), original.getTraceState());
+        }
+
+        @Override
+        public SpanContext getSpanContext() {
+            return spanContext;
+        }
+    }
+}
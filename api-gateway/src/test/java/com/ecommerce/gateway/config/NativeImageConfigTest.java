@@ -0,0 +1,43 @@
+package com.ecommerce.gateway.config;
+
+import com.ecommerce.gateway.diagnostics.DroppedLogEventCounter;
+import com.ecommerce.gateway.filter.HedgedRequestGatewayFilterFactory;
+import com.ecommerce.gateway.filter.UpstreamServerErrorException;
+import com.ecommerce.gateway.ratelimit.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The native image only fails on a missing hint at runtime, when a route is first bound or logback
+ * starts, so the types configuration refers to by name are checked here.
+ */
+class NativeImageConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTest() {
+        new NativeImageConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void routeFilterConfigsCanBeBound() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(
+            HedgedRequestGatewayFilterFactory.Config.class.getConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(
+            HedgedRequestGatewayFilterFactory.Config.class.getMethod("setMinDelay", Duration.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(
+            TokenBucketRateLimiter.Config.class.getMethod("setReplenishRate", double.class)).test(hints));
+    }
+
+    @Test
+    void retryExceptionsAndLogbackListenerAreRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UpstreamServerErrorException.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(
+            DroppedLogEventCounter.class.getConstructor()).test(hints));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.gateway.filter;
+
+import com.ecommerce.gateway.filter.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_MILLIS = 20;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void lowPriorityIsShedBeforeHigherPriorities() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, 10, 1, 100, 60_000);
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+        assertFalse(limiter.tryAcquire(Priority.HIGH));
+        assertEquals(10, limiter.getInFlight());
+        assertEquals(1.0, registry.get("concurrency_shed_total").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAboveTheBaseline() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, 100, 10, 1000, WINDOW_MILLIS);
+        window(limiter, 40, 1_000_000);
+        assertEquals(100, limiter.getLimit());
+
+        window(limiter, 40, 10_000_000);
+
+        assertTrue(limiter.getLimit() < 100, "limit " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 50, "at most halved per window, got " + limiter.getLimit());
+    }
+
+    @Test
+    void limitGrowsOnlyWhileItIsBeingUsed() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, 20, 10, 1000, WINDOW_MILLIS);
+        for (int i = 0; i < 3; i++) {
+            idleWindow(limiter, 1_000_000);
+        }
+        assertEquals(20, limiter.getLimit());
+
+        for (int i = 0; i < 3; i++) {
+            window(limiter, 20, 1_000_000);
+        }
+
+        assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Runs one measurement window with {@code concurrency} requests in flight together; the last
+     * release lands after the window has elapsed and closes it.
+     */
+    private static void window(AdaptiveConcurrencyLimiter limiter, int concurrency, long rttNanos)
+            throws InterruptedException {
+        for (int i = 0; i < concurrency; i++) {
+            assertTrue(limiter.tryAcquire(Priority.HIGH));
+        }
+        for (int i = 1; i < concurrency; i++) {
+            limiter.release(rttNanos);
+        }
+        Thread.sleep(WINDOW_MILLIS + 5);
+        limiter.release(rttNanos);
+    }
+
+    /** Runs one window of sequential requests, never more than one in flight. */
+    private static void idleWindow(AdaptiveConcurrencyLimiter limiter, long rttNanos) throws InterruptedException {
+        for (int i = 0; i < 12; i++) {
+            assertTrue(limiter.tryAcquire(Priority.HIGH));
+            limiter.release(rttNanos);
+        }
+        window(limiter, 1, rttNanos);
+    }
+}
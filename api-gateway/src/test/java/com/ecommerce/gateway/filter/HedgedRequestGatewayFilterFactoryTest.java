@@ -0,0 +1,176 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.RemoveHopByHopHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.XForwardedHeadersFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the filter in a real gateway filter chain (NettyWriteResponseFilter, RouteToRequestUrlFilter and
+ * NettyRoutingFilter) against a local HTTP server, so routing, header filtering and body streaming
+ * are the production ones.
+ */
+class HedgedRequestGatewayFilterFactoryTest {
+
+    private static final byte[] LARGE_BODY = new byte[1024 * 1024];
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch primaryCancelled = new CountDownLatch(1);
+    private final AtomicReference<String> forwardedFor = new AtomicReference<>();
+    private DisposableServer server;
+    private FilteringWebHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                .get("/large", (request, response) -> {
+                    forwardedFor.set(request.requestHeaders().get("X-Forwarded-For"));
+                    return response.header("X-Served-By", "primary").sendByteArray(Mono.just(LARGE_BODY));
+                })
+                .get("/slow", (request, response) -> {
+                    if (request.requestHeaders().contains(HedgedRequestGatewayFilterFactory.HEDGE_HEADER)) {
+                        return response.header("X-Served-By", "hedge").sendByteArray(Mono.just(LARGE_BODY));
+                    }
+                    return Mono.<Void>never().doOnCancel(primaryCancelled::countDown);
+                })
+                .get("/small", (request, response) -> response.sendString(Mono.just("ok")))
+                .get("/sluggish", (request, response) -> {
+                    if (request.requestHeaders().contains(HedgedRequestGatewayFilterFactory.HEDGE_HEADER)) {
+                        return response.sendString(Mono.just("hedge"));
+                    }
+                    return response.sendString(Mono.just("primary").delayElement(Duration.ofMillis(150)));
+                }))
+            .bindNow();
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable())
+            .thenReturn(List.of(new XForwardedHeadersFilter(), new RemoveHopByHopHeadersFilter()));
+        handler = new FilteringWebHandler(List.of(
+            new NettyWriteResponseFilter(List.of()),
+            new RouteToRequestUrlFilter(),
+            new NettyRoutingFilter(HttpClient.create(), headersFilters, new HttpClientProperties())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void largeResponseIsStreamedThroughNormalRouting() {
+        MockServerWebExchange exchange = get("/large", Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("primary", exchange.getResponse().getHeaders().getFirst("X-Served-By"));
+        assertEquals(LARGE_BODY.length, bodyLength(exchange.getResponse()));
+        assertEquals("203.0.113.7", forwardedFor.get());
+        assertEquals(1.0, registry.get("gateway_hedge_requests_total").tag("outcome", "not_hedged").counter().count());
+    }
+
+    @Test
+    void hedgeAnswersForASlowPrimaryWhichIsCancelled() throws Exception {
+        MockServerWebExchange exchange = get("/slow", Duration.ofMillis(50));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("hedge", exchange.getResponse().getHeaders().getFirst("X-Served-By"));
+        assertEquals(LARGE_BODY.length, bodyLength(exchange.getResponse()));
+        assertEquals(1.0, registry.get("gateway_hedge_requests_total").tag("outcome", "hedge_won").counter().count());
+        assertTrue(primaryCancelled.await(5, TimeUnit.SECONDS), "slow primary was not cancelled");
+    }
+
+    @Test
+    void burstAfterAQuietPeriodIsHedgedOnlyUpToTheBurstCap() {
+        GatewayFilter filter = filter(Duration.ofMillis(30), 0.1, 3);
+        for (int i = 0; i < 1000; i++) {
+            get(filter, "/small");
+        }
+
+        int burst = 20;
+        for (int i = 0; i < burst; i++) {
+            get(filter, "/sluggish");
+        }
+
+        // The 3 banked in the quiet period, then one more from the 0.1 each later slow request earns
+        double hedged = registry.find("gateway_hedge_requests_total").tag("outcome", "hedge_won").counters().stream()
+            .mapToDouble(Counter::count).sum()
+            + registry.find("gateway_hedge_requests_total").tag("outcome", "primary_won").counters().stream()
+            .mapToDouble(Counter::count).sum();
+        assertEquals(4.0, hedged, "hedged " + hedged + " of " + burst + " slow requests after 1000 quiet ones");
+    }
+
+    private MockServerWebExchange get(String path, Duration hedgeDelay) {
+        return get(filter(hedgeDelay, 1, 10), path);
+    }
+
+    private GatewayFilter filter(Duration hedgeDelay, double maxHedgeRatio, int maxHedgeBurst) {
+        HedgedRequestGatewayFilterFactory factory = new HedgedRequestGatewayFilterFactory(registry);
+        return factory.apply(new HedgedRequestGatewayFilterFactory.Config()
+            .setMinDelay(hedgeDelay)
+            .setMaxDelay(hedgeDelay)
+            .setMaxHedgeRatio(maxHedgeRatio)
+            .setMaxHedgeBurst(maxHedgeBurst));
+    }
+
+    private MockServerWebExchange get(GatewayFilter filter, String path) {
+        Route route = Route.async()
+            .id("items")
+            .uri("http://localhost:" + server.port())
+            .predicate(exchange -> true)
+            .filter(new OrderedGatewayFilter(filter, 1))
+            .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://gateway" + path)
+            .remoteAddress(new InetSocketAddress("203.0.113.7", 40000)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+
+        handler.handle(exchange).block(Duration.ofSeconds(10));
+        return exchange;
+    }
+
+    private static int bodyLength(MockServerHttpResponse response) {
+        return DataBufferUtils.join(response.getBody())
+            .map(buffer -> {
+                int length = buffer.readableByteCount();
+                DataBufferUtils.release(buffer);
+                return length;
+            })
+            .block(Duration.ofSeconds(10));
+    }
+}
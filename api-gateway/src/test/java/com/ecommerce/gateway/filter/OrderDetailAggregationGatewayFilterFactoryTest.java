@@ -0,0 +1,205 @@
+package com.ecommerce.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the filter against a local HTTP server standing in for order, payment, user and product
+ * service; the WebClient sends every {@code http://<service>} call there, keeping the path.
+ */
+class OrderDetailAggregationGatewayFilterFactoryTest {
+
+    private static final Duration STALLED = Duration.ofSeconds(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> productBatches = new CopyOnWriteArrayList<>();
+    private volatile int orderStatus = 200;
+    private volatile Duration orderDelay = Duration.ZERO;
+    private volatile String orderBody = order(1, 2);
+    private volatile int paymentStatus = 200;
+    private volatile Duration userDelay = Duration.ZERO;
+    private volatile int productStatus = 200;
+    private DisposableServer server;
+    private OrderDetailAggregationGatewayFilterFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                .get("/orders/{id}", (request, response) -> answer(response, orderStatus, orderBody, orderDelay))
+                .get("/payments/order/{id}", (request, response) ->
+                    answer(response, paymentStatus, "[{\"id\":9,\"status\":\"COMPLETED\"}]", Duration.ZERO))
+                .get("/users/{id}", (request, response) ->
+                    answer(response, 200, "{\"id\":" + request.param("id") + ",\"username\":\"ada\"}", userDelay))
+                .get("/products/batch", (request, response) -> {
+                    String ids = UriComponentsBuilder.fromUriString(request.uri()).build()
+                        .getQueryParams().getFirst("ids");
+                    productBatches.add(ids);
+                    String products = Arrays.stream(ids.split(","))
+                        .map(id -> "{\"id\":" + id + ",\"name\":\"product-" + id + "\"}")
+                        .collect(Collectors.joining(",", "[", "]"));
+                    return answer(response, productStatus, products, Duration.ZERO);
+                }))
+            .bindNow();
+
+        WebClient.Builder toStub = WebClient.builder().filter((request, next) -> next.exchange(
+            ClientRequest.from(request)
+                .url(UriComponentsBuilder.fromUri(request.url()).host("localhost").port(server.port()).build(true).toUri())
+                .build()));
+        factory = new OrderDetailAggregationGatewayFilterFactory(toStub, objectMapper, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void allLegsAnsweringGiveACompletePage() throws Exception {
+        JsonNode body = aggregate("42", config());
+
+        assertEquals(42, body.path("order").path("id").asInt());
+        assertEquals("ada", body.path("user").path("username").asText());
+        assertEquals(9, body.path("payments").path(0).path("id").asInt());
+        assertEquals("product-2", body.path("order").path("orderItems").path(1).path("product").path("name").asText());
+        assertFalse(body.path("partial").asBoolean());
+        assertEquals(0, body.path("unavailable").size());
+    }
+
+    @Test
+    void orderClientErrorIsPassedThrough() {
+        orderStatus = 404;
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> aggregate("42", config()));
+
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatusCode());
+    }
+
+    @Test
+    void slowOrderIsAGatewayTimeout() {
+        orderDelay = STALLED;
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+            () -> aggregate("42", config().setOrderTimeout(Duration.ofMillis(200))));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+    }
+
+    @Test
+    void nonNumericOrderIdIsABadRequest() {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> aggregate("42abc", config()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+    @Test
+    void slowUserAndFailedPaymentsAreReportedUnavailable() throws Exception {
+        userDelay = STALLED;
+        paymentStatus = 500;
+
+        JsonNode body = aggregate("42", config().setLegTimeout(Duration.ofMillis(200)));
+
+        assertTrue(body.path("partial").asBoolean());
+        assertEquals(List.of("user", "payments"), texts(body.path("unavailable")));
+        assertTrue(body.path("user").isNull());
+        assertTrue(body.path("payments").isNull());
+        assertEquals("product-1", body.path("order").path("orderItems").path(0).path("product").path("name").asText());
+    }
+
+    @Test
+    void failedProductsLeaveItemsWithoutProducts() throws Exception {
+        productStatus = 503;
+
+        JsonNode body = aggregate("42", config());
+
+        assertTrue(body.path("partial").asBoolean());
+        assertEquals(List.of("products"), texts(body.path("unavailable")));
+        assertTrue(body.path("order").path("orderItems").path(0).path("product").isNull());
+        assertEquals("ada", body.path("user").path("username").asText());
+    }
+
+    @Test
+    void productsAreDeduplicatedAndFetchedInBatches() throws Exception {
+        orderBody = order(1, 2, 1, 3, 4, 2, 5);
+
+        JsonNode body = aggregate("42", config().setProductBatchSize(2));
+
+        assertEquals(Set.of("1,2", "3,4", "5"), Set.copyOf(productBatches),
+            "batches requested: " + productBatches);
+        assertEquals(3, productBatches.size(), "batches requested: " + productBatches);
+        for (JsonNode item : body.path("order").path("orderItems")) {
+            assertEquals(item.path("productId").asInt(), item.path("product").path("id").asInt());
+        }
+        assertFalse(body.path("partial").asBoolean());
+    }
+
+    private JsonNode aggregate(String orderId, OrderDetailAggregationGatewayFilterFactory.Config config)
+            throws Exception {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("http://gateway/api/bff/orders/" + orderId));
+        exchange.getAttributes().put(ServerWebExchangeUtils.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("orderId", orderId));
+
+        factory.apply(config).filter(exchange, unused -> Mono.empty()).block(Duration.ofSeconds(10));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        return objectMapper.readTree(exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5)));
+    }
+
+    private static OrderDetailAggregationGatewayFilterFactory.Config config() {
+        return new OrderDetailAggregationGatewayFilterFactory.Config()
+            .setOrderTimeout(Duration.ofSeconds(2))
+            .setLegTimeout(Duration.ofSeconds(2));
+    }
+
+    private static String order(int... productIds) {
+        String items = Arrays.stream(productIds)
+            .mapToObj(id -> "{\"productId\":" + id + ",\"quantity\":1}")
+            .collect(Collectors.joining(",", "[", "]"));
+        return "{\"id\":42,\"userId\":7,\"status\":\"PAID\",\"orderItems\":" + items + "}";
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    private static Mono<Void> answer(HttpServerResponse response, int status, String body, Duration delay) {
+        return Mono.delay(delay)
+            .then(response.status(status)
+                .header("Content-Type", "application/json")
+                .sendString(Mono.just(status == 200 ? body : "{}"))
+                .then());
+    }
+}
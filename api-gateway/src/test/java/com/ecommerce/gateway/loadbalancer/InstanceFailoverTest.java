@@ -0,0 +1,148 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Local multi-instance run: three stub order-service instances on loopback, requests routed through
+ * {@link RegistryInstanceCache}, {@link PeakEwmaLoadBalancer} and {@link ConnectionFailureLifecycle}.
+ * One instance is killed while still registered (as it stays in Eureka until its lease expires), then
+ * restarted on the same port. Checks how many requests failed before it was evicted and how long it
+ * took to get traffic again after the restart.
+ */
+class InstanceFailoverTest {
+
+    private static final String SERVICE = "order-service";
+    private static final Duration PROBE_INTERVAL = Duration.ofMillis(100);
+
+    private final List<DisposableServer> servers = new ArrayList<>();
+    private final WebClient client = WebClient.create();
+    private InstanceQuarantine quarantine;
+
+    @AfterEach
+    void stop() {
+        quarantine.stop();
+        servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Test
+    void deadInstanceIsEvictedOnFirstConnectionFailureAndReadmittedAfterRestart() throws Exception {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            servers.add(start(0));
+            instances.add(new DefaultServiceInstance("order-" + i, SERVICE, "127.0.0.1", servers.get(i).port(), false));
+        }
+        LoadBalancerStats stats = new LoadBalancerStats(new SimpleMeterRegistry(), System::nanoTime,
+            Duration.ofSeconds(1), Duration.ofSeconds(1));
+        quarantine = new InstanceQuarantine(stats, new SimpleMeterRegistry(), PROBE_INTERVAL,
+            Duration.ofMillis(500), "/actuator/health");
+        quarantine.start();
+        RegistryInstanceCache cache = new RegistryInstanceCache(registry(instances), quarantine, stats);
+        Random choices = new Random(7);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, SERVICE, stats, () -> choices);
+        ConnectionFailureLifecycle lifecycle = new ConnectionFailureLifecycle(quarantine);
+        ServiceInstance victim = instances.get(0);
+
+        for (int i = 0; i < 200; i++) {
+            send(balancer, cache, stats, lifecycle);
+        }
+
+        servers.get(0).disposeNow();
+        long killedAt = System.nanoTime();
+        int failed = 0;
+        long lastFailure = killedAt;
+        for (int i = 0; i < 300; i++) {
+            if (send(balancer, cache, stats, lifecycle) == null) {
+                failed++;
+                lastFailure = System.nanoTime();
+            }
+        }
+
+        servers.set(0, start(victim.getPort()));
+        long restartedAt = System.nanoTime();
+        long deadline = restartedAt + Duration.ofSeconds(10).toNanos();
+        long recoveredAt = 0;
+        while (recoveredAt == 0 && System.nanoTime() < deadline) {
+            if (victim.equals(send(balancer, cache, stats, lifecycle))) {
+                recoveredAt = System.nanoTime();
+            }
+            Thread.sleep(2);
+        }
+
+        long failoverMs = (lastFailure - killedAt) / 1_000_000;
+        long recoveryMs = recoveredAt == 0 ? -1 : (recoveredAt - restartedAt) / 1_000_000;
+        assertTrue(failed <= 1, "expected the dead instance to be evicted on its first failure, " + failed
+            + " failed, the last " + failoverMs + " ms after the kill");
+        assertTrue(recoveredAt != 0 && recoveryMs < 2_000, "expected the restarted instance back within 2s, took "
+            + recoveryMs + " ms (probe interval " + PROBE_INTERVAL.toMillis() + " ms)");
+    }
+
+    /** Returns the instance that served the request, or null if it failed. */
+    private ServiceInstance send(PeakEwmaLoadBalancer balancer, RegistryInstanceCache cache, LoadBalancerStats stats,
+                                 ConnectionFailureLifecycle lifecycle) {
+        ServiceInstance instance = balancer.choose(cache.get(SERVICE)).getServer();
+        stats.onStart(instance);
+        long start = System.nanoTime();
+        try {
+            client.get().uri(instance.getUri().resolve("/work")).retrieve().toBodilessEntity()
+                .block(Duration.ofSeconds(1));
+            stats.onComplete(instance, System.nanoTime() - start, false);
+            return instance;
+        } catch (RuntimeException e) {
+            stats.onComplete(instance, System.nanoTime() - start, true);
+            lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, e, new DefaultRequest<>(),
+                new DefaultResponse(instance)));
+            return null;
+        }
+    }
+
+    private static DisposableServer start(int port) {
+        return HttpServer.create()
+            .host("127.0.0.1")
+            .port(port)
+            .route(routes -> routes
+                .get("/work", (request, response) -> response.sendString(Mono.just("ok")))
+                .get("/actuator/health", (request, response) -> response
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just("{\"status\":\"UP\"}"))))
+            .bindNow();
+    }
+
+    /** Keeps every instance registered, as Eureka does until a dead instance's lease expires. */
+    private static DiscoveryClient registry(List<ServiceInstance> instances) {
+        return new DiscoveryClient() {
+            @Override
+            public String description() {
+                return "static";
+            }
+
+            @Override
+            public List<ServiceInstance> getInstances(String serviceId) {
+                return instances;
+            }
+
+            @Override
+            public List<String> getServices() {
+                return List.of(SERVICE);
+            }
+        };
+    }
+}
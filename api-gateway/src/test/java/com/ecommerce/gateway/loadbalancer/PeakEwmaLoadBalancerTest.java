@@ -0,0 +1,116 @@
+package com.ecommerce.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Discrete-event harness: four stub instances answer in ~10 ms, one of them stalls for 300 ms every
+ * two seconds (a GC pause). The same seeded request stream is replayed against round-robin and
+ * against {@link PeakEwmaLoadBalancer} on a simulated clock, and the p99 latencies are compared.
+ */
+class PeakEwmaLoadBalancerTest {
+
+    private static final long MS = 1_000_000L;
+    private static final int REQUESTS = 60_000;
+    private static final long INTERARRIVAL = MS / 2;
+    private static final long PAUSE_PERIOD = 2_000 * MS;
+    private static final long PAUSE_LENGTH = 300 * MS;
+
+    private final List<ServiceInstance> instances = List.of(
+        new DefaultServiceInstance("order-1", "order-service", "10.0.0.1", 8083, false),
+        new DefaultServiceInstance("order-2", "order-service", "10.0.0.2", 8083, false),
+        new DefaultServiceInstance("order-3", "order-service", "10.0.0.3", 8083, false),
+        new DefaultServiceInstance("order-4", "order-service", "10.0.0.4", 8083, false));
+
+    @Test
+    void peakEwmaCutsTailLatencyWhenAnInstancePauses() {
+        long roundRobinP99 = p99(run(false));
+        long peakEwmaP99 = p99(run(true));
+
+        assertTrue(peakEwmaP99 * 2 < roundRobinP99,
+            "expected peak-EWMA p99 (" + peakEwmaP99 / MS + " ms) to be under half of round-robin ("
+                + roundRobinP99 / MS + " ms)");
+    }
+
+    @Test
+    void instancesThatLeaveTheRegistryAreForgotten() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoadBalancerStats stats = new LoadBalancerStats(registry, System::nanoTime,
+            Duration.ofSeconds(1), Duration.ofSeconds(1));
+        instances.forEach(stats::onStart);
+        ServiceInstance other = new DefaultServiceInstance("user-1", "user-service", "10.0.1.1", 8081, false);
+        stats.onStart(other);
+
+        stats.retainRegistered("order-service", instances.subList(1, instances.size()));
+
+        assertTrue(registry.find("gateway_lb_instance_outstanding").tag("instance", "10.0.0.1:8083").gauges().isEmpty());
+        assertEquals(3, registry.find("gateway_lb_instance_outstanding").tag("service", "order-service").gauges().size());
+        assertEquals(1, registry.find("gateway_lb_instance_score").tag("service", "user-service").gauges().size());
+        assertEquals(12, registry.getMeters().size());
+        assertEquals(0, stats.cost(instances.get(0)), "a returning instance starts from scratch");
+    }
+
+    private long[] run(boolean peakEwma) {
+        long[] clock = {0};
+        LoadBalancerStats stats = new LoadBalancerStats(new SimpleMeterRegistry(), () -> clock[0],
+            Duration.ofSeconds(1), Duration.ofSeconds(1));
+        Random choices = new Random(7);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, "order-service", stats, () -> choices);
+        Random serviceTimes = new Random(42);
+        PriorityQueue<long[]> inFlight = new PriorityQueue<>((x, y) -> Long.compare(x[0], y[0]));
+        long[] latencies = new long[REQUESTS];
+
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * INTERARRIVAL;
+            while (!inFlight.isEmpty() && inFlight.peek()[0] <= now) {
+                long[] done = inFlight.poll();
+                clock[0] = done[0];
+                stats.onComplete(instances.get((int) done[1]), done[2], false);
+            }
+            clock[0] = now;
+
+            int chosen;
+            if (peakEwma) {
+                chosen = instances.indexOf(balancer.choose(instances).getServer());
+            } else {
+                chosen = i % instances.size();
+            }
+            stats.onStart(instances.get(chosen));
+            long latency = serviceTime(serviceTimes) + pauseDelay(chosen, now);
+            latencies[i] = latency;
+            inFlight.add(new long[] {now + latency, chosen, latency});
+        }
+        return latencies;
+    }
+
+    private static long serviceTime(Random random) {
+        // ~10 ms with a mild right tail
+        return (long) (8 * MS + Math.abs(random.nextGaussian()) * 3 * MS);
+    }
+
+    // Instance 0 stalls for PAUSE_LENGTH at the start of every PAUSE_PERIOD
+    private static long pauseDelay(int instance, long now) {
+        if (instance != 0) {
+            return 0;
+        }
+        long intoPeriod = now % PAUSE_PERIOD;
+        return intoPeriod < PAUSE_LENGTH ? PAUSE_LENGTH - intoPeriod : 0;
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+}
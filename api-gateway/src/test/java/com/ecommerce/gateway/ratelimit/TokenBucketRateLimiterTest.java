@@ -0,0 +1,122 @@
+package com.ecommerce.gateway.ratelimit;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private static final String SECRET = "MySecretKeyForJWTTokenGeneration12345678901234567890";
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("198.51.100.4", 50000);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // One token per second, bursts of three
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(
+        new LocalTokenBucketStore(registry, 1000), registry, null, 1, 3);
+
+    @Test
+    void burstIsAdmittedThenTheClientIsToldWhenToRetry() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(isAllowed("order-service", "user:alice").isAllowed());
+        }
+
+        RateLimiter.Response denied = isAllowed("order-service", "user:alice");
+
+        assertFalse(denied.isAllowed());
+        assertEquals("1", denied.getHeaders().get("Retry-After"));
+        assertEquals("0", denied.getHeaders().get("X-RateLimit-Remaining"));
+        assertEquals(3.0, registry.get("gateway_rate_limit_requests_total")
+            .tags("route", "order-service", "outcome", "allowed").counter().count());
+        assertEquals(1.0, registry.get("gateway_rate_limit_requests_total")
+            .tags("route", "order-service", "outcome", "limited").counter().count());
+    }
+
+    @Test
+    void bucketsAreKeptPerRouteAndClient() {
+        for (int i = 0; i < 3; i++) {
+            isAllowed("order-service", "user:alice");
+        }
+
+        assertFalse(isAllowed("order-service", "user:alice").isAllowed());
+        assertTrue(isAllowed("order-service", "user:bob").isAllowed());
+        assertTrue(isAllowed("product-service", "user:alice").isAllowed());
+    }
+
+    @Test
+    void verifiedTokenIsKeyedByItsSubject() {
+        String token = Jwts.builder().subject("alice").signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+
+        String key = resolve(MockServerHttpRequest.get("/api/orders")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .remoteAddress(CLIENT));
+
+        assertEquals("user:alice", key);
+    }
+
+    @Test
+    void forgedTokensShareTheCallersAddressBucket() {
+        String forgedKey = Jwts.builder().subject("alice").signWith(Keys.hmacShaKeyFor(new byte[32])).compact();
+
+        for (String token : new String[]{"random-1", "random-2", forgedKey}) {
+            String key = resolve(MockServerHttpRequest.get("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .remoteAddress(CLIENT));
+            assertEquals("ip:198.51.100.4", key, token);
+            isAllowed("order-service", key);
+        }
+
+        assertFalse(isAllowed("order-service", resolve(MockServerHttpRequest.get("/api/orders")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer random-3")
+            .remoteAddress(CLIENT))).isAllowed());
+    }
+
+    @Test
+    void forwardedForFromAnUntrustedPeerIsIgnored() {
+        for (int i = 0; i < 3; i++) {
+            String key = resolve(MockServerHttpRequest.get("/api/orders")
+                .header("X-Forwarded-For", "203.0.113." + i)
+                .remoteAddress(CLIENT));
+            assertEquals("ip:198.51.100.4", key);
+            isAllowed("order-service", key);
+        }
+
+        assertFalse(isAllowed("order-service", resolve(MockServerHttpRequest.get("/api/orders")
+            .header("X-Forwarded-For", "203.0.113.99")
+            .remoteAddress(CLIENT))).isAllowed());
+    }
+
+    @Test
+    void trustedProxyForwardsTheRightMostUntrustedHop() {
+        ClientKeyResolver behindProxies = new ClientKeyResolver(SECRET, List.of("10.0.0.1", " 10.0.0.2"));
+
+        String key = behindProxies.resolve(MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+            .header("X-Forwarded-For", "192.0.2.50, 203.0.113.7, 10.0.0.2")
+            .remoteAddress(new InetSocketAddress("10.0.0.1", 40000)))).block();
+        String direct = behindProxies.resolve(MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+            .header("X-Forwarded-For", "192.0.2.50")
+            .remoteAddress(CLIENT))).block();
+
+        assertEquals("ip:203.0.113.7", key);
+        assertEquals("ip:198.51.100.4", direct);
+    }
+
+    private RateLimiter.Response isAllowed(String routeId, String clientKey) {
+        return limiter.isAllowed(routeId, clientKey).block();
+    }
+
+    private static String resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+        return new ClientKeyResolver(SECRET, List.of()).resolve(MockServerWebExchange.from(request)).block();
+    }
+}
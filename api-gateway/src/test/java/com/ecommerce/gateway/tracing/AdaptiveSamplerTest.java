@@ -0,0 +1,99 @@
+package com.ecommerce.gateway.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.reactive.observation.ServerHttpObservationDocumentation;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts server observations the way the WebFlux handler adapter does, through the real OTel SDK and
+ * Micrometer bridge, so the sampler sees whatever span name the handlers give it at start.
+ */
+class AdaptiveSamplerTest {
+
+    private final AdaptiveSamplingProperties properties = new AdaptiveSamplingProperties();
+    private final RouteObservationConvention convention = new RouteObservationConvention();
+    private final SdkTracerProvider tracerProvider;
+    private final ObservationRegistry observations = ObservationRegistry.create();
+
+    AdaptiveSamplerTest() {
+        properties.setDefaultRate(1);
+        tracerProvider = SdkTracerProvider.builder()
+            .setSampler(new AdaptiveSampler(properties, 1.0, new SimpleMeterRegistry()))
+            .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("test");
+        OtelTracer tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> { });
+        OtelPropagator propagator = new OtelPropagator(
+            ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+        observations.observationConfig()
+            .observationHandler(new RouteNamingTracingObservationHandler(tracer, propagator, convention));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.shutdown();
+    }
+
+    @Test
+    void eachRouteHasItsOwnBudget() {
+        assertTrue(sampled("/api/products/1"));
+        assertFalse(sampled("/api/products/2"));
+        assertTrue(sampled("/api/orders/7"));
+        assertTrue(sampled("/api/users/3"));
+        assertFalse(sampled("/api/orders/8"));
+    }
+
+    @Test
+    void routeOverridesAreKeyedOnTheNormalizedPath() {
+        properties.getRoutes().put("http get /api/products/{id}", 3.0);
+
+        assertTrue(sampled("/api/products/1"));
+        assertTrue(sampled("/api/products/2"));
+        assertTrue(sampled("/api/products/0f8fad5b-d9cb-469f-a165-70867728950e"));
+        assertFalse(sampled("/api/products/4"));
+    }
+
+    @Test
+    void incomingDecisionIsFollowed() {
+        String unsampledParent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00";
+
+        assertFalse(sampled(MockServerHttpRequest.get("/api/cart").header("traceparent", unsampledParent).build()));
+        assertTrue(sampled("/api/cart"));
+    }
+
+    private boolean sampled(String path) {
+        return sampled(MockServerHttpRequest.get(path).build());
+    }
+
+    private boolean sampled(MockServerHttpRequest request) {
+        ServerRequestObservationContext context =
+            new ServerRequestObservationContext(request, new MockServerHttpResponse(), new HashMap<>());
+        Observation observation = ServerHttpObservationDocumentation.HTTP_REACTIVE_SERVER_REQUESTS
+            .observation(convention, new DefaultServerRequestObservationConvention(), () -> context, observations)
+            .start();
+        try {
+            TracingObservationHandler.TracingContext tracing = context.getRequired(TracingObservationHandler.TracingContext.class);
+            return tracing.getSpan().context().sampled();
+        } finally {
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderItem;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.product.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entities shaped like production data, shared by the suites.
+ */
+final class BenchmarkFixtures {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Wireless Headphones " + id);
+        product.setDescription("Over-ear noise cancelling headphones with 30 hour battery life");
+        product.setPrice(new BigDecimal("2999.99"));
+        product.setStock(75);
+        product.setCategory("Electronics");
+        product.setImageUrl("https://example.com/images/" + id + ".png");
+        product.setSku("SKU-" + id);
+        product.setCreatedAt(CREATED);
+        product.setUpdatedAt(CREATED);
+        return product;
+    }
+
+    static Order order(long id, int items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUserId(42L);
+        order.setShippingAddress("221B Baker Street, London");
+        order.setBillingAddress("221B Baker Street, London");
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setPaymentStatus(Order.PaymentStatus.PAID);
+        order.setCreatedAt(CREATED);
+        order.setUpdatedAt(CREATED);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            OrderItem item = orderItem(i + 1, new BigDecimal("149.95"), i % 5 + 1);
+            item.setOrder(order);
+            item.calculateSubtotal();
+            order.getOrderItems().add(item);
+            total = total.add(item.getSubtotal());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    static OrderItem orderItem(long productId, BigDecimal price, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setId(productId);
+        item.setProductId(productId);
+        item.setProductName("Product " + productId);
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    static Payment payment(long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrderId(id);
+        payment.setUserId(42L);
+        payment.setAmount(new BigDecimal("5999.98"));
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setTransactionId("TXN0000000000123456789");
+        payment.setPaymentGatewayResponse("Payment processed successfully");
+        payment.setCreatedAt(CREATED);
+        payment.setUpdatedAt(CREATED);
+        return payment;
+    }
+}
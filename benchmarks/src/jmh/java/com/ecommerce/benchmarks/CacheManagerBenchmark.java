@@ -0,0 +1,78 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.product.dto.ProductDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code @Cacheable} get/put through the cache manager the services run with: Spring Boot's
+ * auto-configured {@link RedisCacheManager} (default cache configuration, JDK-serialized DTOs).
+ * Needs a Redis at {@code REDIS_HOST}:{@code REDIS_PORT} (default localhost:6379); without one this
+ * suite fails and the others still report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheManagerBenchmark {
+
+    private LettuceConnectionFactory connectionFactory;
+    private Cache cache;
+    private ProductDTO product;
+
+    @Setup
+    public void setUp() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig())
+            .build();
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache("benchmark-products");
+        product = ProductDTO.fromEntity(BenchmarkFixtures.product(1));
+        cache.put(1L, product);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.clear();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Object getHit() {
+        Cache.ValueWrapper value = cache.get(1L);
+        return value != null ? value.get() : null;
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return cache.get(-1L);
+    }
+
+    @Benchmark
+    public void put() {
+        cache.put(2L, product);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.dto.OrderDTO;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mapping on the read paths: a single product, an order with {@code items} line items,
+ * and a product list of {@code items * 10} entries as returned by {@code GET /products}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Single {
+        Product product;
+
+        @Setup
+        public void setUp() {
+            product = BenchmarkFixtures.product(1);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sized {
+        @Param({"1", "10", "50"})
+        public int items;
+
+        Order order;
+        List<Product> products;
+
+        @Setup
+        public void setUp() {
+            order = BenchmarkFixtures.order(1, items);
+            products = new ArrayList<>();
+            for (int i = 0; i < items * 10; i++) {
+                products.add(BenchmarkFixtures.product(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public OrderDTO orderFromEntity(Sized state) {
+        return OrderDTO.fromEntity(state.order);
+    }
+
+    @Benchmark
+    public ProductDTO productFromEntity(Single state) {
+        return ProductDTO.fromEntity(state.product);
+    }
+
+    @Benchmark
+    public List<ProductDTO> productListFromEntities(Sized state) {
+        return state.products.stream()
+            .map(ProductDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.product.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event payloads as they go over Kafka: the services publish entities through spring-kafka's
+ * {@link JsonSerializer} ({@code kafkaTemplate.send(topic, eventType, entity)}), and listeners read
+ * the JSON string back with Jackson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaPayloadSerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Codec {
+        JsonSerializer<Object> serializer;
+        ObjectMapper objectMapper;
+        Product product;
+        Payment payment;
+
+        @Setup
+        public void setUp() {
+            serializer = new JsonSerializer<>();
+            objectMapper = JacksonUtils.enhancedObjectMapper();
+            product = BenchmarkFixtures.product(1);
+            payment = BenchmarkFixtures.payment(1);
+        }
+
+        @TearDown
+        public void tearDown() {
+            serializer.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Orders {
+        @Param({"1", "10"})
+        public int items;
+
+        Order order;
+        byte[] orderJson;
+
+        @Setup
+        public void setUp(Codec codec) {
+            order = BenchmarkFixtures.order(1, items);
+            orderJson = codec.serializer.serialize("order-events", order);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrderCreated(Codec codec, Orders orders) {
+        return codec.serializer.serialize("order-events", orders.order);
+    }
+
+    @Benchmark
+    public byte[] serializeProductUpdated(Codec codec) {
+        return codec.serializer.serialize("product-events", codec.product);
+    }
+
+    @Benchmark
+    public byte[] serializePaymentProcessed(Codec codec) {
+        return codec.serializer.serialize("payment-events", codec.payment);
+    }
+
+    @Benchmark
+    public OrderEvent deserializeOrderEvent(Codec codec, Orders orders) throws IOException {
+        return codec.objectMapper.readValue(orders.orderJson, OrderEvent.class);
+    }
+}
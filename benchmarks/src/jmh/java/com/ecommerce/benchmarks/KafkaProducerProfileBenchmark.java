@@ -0,0 +1,87 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.config.InstrumentedKafkaTemplate;
+import com.ecommerce.order.config.KafkaProducerProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order-sized events published through {@link InstrumentedKafkaTemplate} under each
+ * {@link KafkaProducerProfile}, in events per second; each invocation sends a batch and waits for
+ * every acknowledgement. Needs a broker at {@code KAFKA_BOOTSTRAP_SERVERS} (default localhost:9092);
+ * without one this suite fails and the others still report.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaProducerProfileBenchmark {
+
+    private static final int BATCH = 1_000;
+    private static final String TOPIC = "producer-benchmark";
+
+    @Param({"HIGH_THROUGHPUT", "DURABLE"})
+    public KafkaProducerProfile profile;
+
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private InstrumentedKafkaTemplate<String, Object> template;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+            System.getenv().getOrDefault("KAFKA_BOOTSTRAP_SERVERS", "localhost:9092"));
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.putAll(profile.settings());
+        producerFactory = new DefaultKafkaProducerFactory<>(configProps);
+        template = new InstrumentedKafkaTemplate<>(producerFactory, new SimpleMeterRegistry(), 10_000,
+            Duration.ofSeconds(30));
+        payload = Map.of(
+            "id", 1L, "userId", 42L, "totalAmount", new BigDecimal("199.99"),
+            "status", "PENDING", "paymentStatus", "PENDING",
+            "shippingAddress", "1 Benchmark Street", "billingAddress", "1 Benchmark Street");
+    }
+
+    @TearDown
+    public void tearDown() {
+        producerFactory.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publish() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = template.send(TOPIC, "order.created", payload);
+        }
+        // join() throws if any send failed
+        CompletableFuture.allOf(futures).join();
+    }
+}
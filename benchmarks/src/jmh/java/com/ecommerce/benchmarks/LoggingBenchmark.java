@@ -0,0 +1,146 @@
+package com.ecommerce.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.Duration;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost an authenticated user-service request adds to the request thread: the JWT filter's
+ * debug line and the two SQL statements of a user lookup.
+ * <ul>
+ *   <li>{@code before}: {@code com.ecommerce: DEBUG}, concatenated messages, synchronous console
+ *   pattern output, and {@code show-sql: true} printing each statement to stdout.</li>
+ *   <li>{@code after}: the shipped config, INFO with parameterized messages and SQL through the
+ *   {@code org.hibernate.SQL} logger, so nothing is emitted.</li>
+ *   <li>{@code after_debug}: DEBUG switched on at runtime for both loggers, through the async JSON
+ *   pipeline. The benchmark blocks on a full ring buffer instead of dropping like the services do,
+ *   so this is the sustained cost with the appender thread as the bottleneck.</li>
+ * </ul>
+ * Output goes to {@code /dev/null} so write syscalls are included. Run with {@code -prof gc} for
+ * allocation per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String[] STATEMENTS = {
+        "select u1_0.id,u1_0.created_at,u1_0.email,u1_0.first_name,u1_0.last_name,u1_0.password,"
+            + "u1_0.phone,u1_0.role,u1_0.updated_at,u1_0.username from users u1_0 where u1_0.username=?",
+        "select u1_0.id,u1_0.created_at,u1_0.email,u1_0.first_name,u1_0.last_name,u1_0.password,"
+            + "u1_0.phone,u1_0.role,u1_0.updated_at,u1_0.username from users u1_0 where u1_0.id=?"
+    };
+
+    @Param({"before", "after", "after_debug"})
+    public String scenario;
+
+    // Fields rather than constants, so javac cannot fold the "before" concatenation
+    private String username = "user42";
+    private String requestUri = "/users/42";
+    private LoggerContext context;
+    private Logger filterLogger;
+    private Logger sqlLogger;
+    private PrintStream stdout;
+    private boolean before;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        before = "before".equals(scenario);
+        Appender<ILoggingEvent> appender;
+        if (before) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 1 --- [%t] %-40.40logger{39} : %m%n");
+            appender = outputAppender(encoder);
+            // Hibernate's show-sql is a println on an autoflushing System.out
+            stdout = new PrintStream(new BufferedOutputStream(new FileOutputStream("/dev/null"), 128), true);
+        } else {
+            LogstashEncoder encoder = new LogstashEncoder();
+            encoder.setCustomFields("{\"service\":\"user-service\"}");
+            LoggingEventAsyncDisruptorAppender async = new LoggingEventAsyncDisruptorAppender();
+            async.setContext(context);
+            async.setRingBufferSize(8192);
+            async.setAppendTimeout(Duration.buildByMilliseconds(-1));
+            async.addAppender(outputAppender(encoder));
+            async.start();
+            appender = async;
+        }
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        Level level = before || "after_debug".equals(scenario) ? Level.DEBUG : Level.INFO;
+        context.getLogger("com.ecommerce").setLevel(level);
+        context.getLogger("org.hibernate.SQL").setLevel(level);
+        filterLogger = context.getLogger("com.ecommerce.user.filter.JwtAuthenticationFilter");
+        sqlLogger = context.getLogger("org.hibernate.SQL");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        if (stdout != null) {
+            stdout.close();
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        if (before) {
+            filterLogger.debug("JWT token validated successfully for user: " + username + " on " + requestUri);
+            for (String statement : STATEMENTS) {
+                stdout.println("Hibernate: " + statement);
+            }
+        } else {
+            filterLogger.debug("JWT token validated successfully for user: {} on {}", username, requestUri);
+            for (String statement : STATEMENTS) {
+                sqlLogger.debug(statement);
+            }
+        }
+    }
+
+    private Appender<ILoggingEvent> outputAppender(Encoder<ILoggingEvent> encoder) throws IOException {
+        encoder.setContext(context);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        OutputStream devNull = new FileOutputStream("/dev/null");
+        appender.setOutputStream(devNull);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderItem#calculateSubtotal()} as run by the JPA lifecycle callbacks on every persist and
+ * update, for a typical price and for one large enough to leave the compact BigDecimal representation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderItemSubtotalBenchmark {
+
+    @Param({"149.95", "98765432109876543.21"})
+    public String price;
+
+    @Param({"3"})
+    public int quantity;
+
+    private OrderItem item;
+
+    @Setup
+    public void setUp() {
+        item = BenchmarkFixtures.orderItem(1, new BigDecimal(price), quantity);
+    }
+
+    @Benchmark
+    public BigDecimal calculateSubtotal() {
+        item.calculateSubtotal();
+        return item.getSubtotal();
+    }
+}
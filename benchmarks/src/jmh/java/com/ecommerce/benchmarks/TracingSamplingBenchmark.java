@@ -0,0 +1,139 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.tracing.AdaptiveSampler;
+import com.ecommerce.order.tracing.AdaptiveSamplingProperties;
+import com.ecommerce.order.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracing cost of one request (a server span with three children) at
+ * {@code management.tracing.sampling.probability: 1.0} versus the order-service adaptive sampler at
+ * its default rate. Spans are exported inline through the OTLP protobuf marshaler, so serialization
+ * cost lands in the measured time instead of on a batch thread; only the network write is left out.
+ * {@code errorRatio} is the share of requests whose root span fails and is kept by the tail processor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class TracingSamplingBenchmark {
+
+    private static final String[] CHILDREN = {"order-service.get", "db select orders", "cache get orders"};
+
+    @Param({"always_on", "adaptive"})
+    public String sampling;
+
+    @Param({"0", "0.01"})
+    public double errorRatio;
+
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @Setup
+    public void setUp() {
+        SpanExporter exporter = new MarshalingSpanExporter();
+        SdkTracerProviderBuilder builder = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter));
+        if ("adaptive".equals(sampling)) {
+            AdaptiveSamplingProperties properties = new AdaptiveSamplingProperties();
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            builder.setSampler(new AdaptiveSampler(properties, 1.0, registry))
+                .addSpanProcessor(new TailSamplingSpanProcessor(properties, exporter, registry));
+        } else {
+            builder.setSampler(Sampler.alwaysOn());
+        }
+        tracerProvider = builder.build();
+        tracer = tracerProvider.get("benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void request() {
+        Span root = tracer.spanBuilder("http get /orders/{id}")
+            .setSpanKind(SpanKind.SERVER)
+            .setAttribute("http.url", "/orders/42")
+            .startSpan();
+        Scope scope = root.makeCurrent();
+        try {
+            for (String child : CHILDREN) {
+                tracer.spanBuilder(child).startSpan().end();
+            }
+            if (errorRatio > 0 && ThreadLocalRandom.current().nextDouble() < errorRatio) {
+                root.setStatus(StatusCode.ERROR);
+            }
+        } finally {
+            scope.close();
+            root.end();
+        }
+    }
+
+    /** Serializes spans exactly as the OTLP exporters do before sending, then discards the bytes. */
+    private static final class MarshalingSpanExporter implements SpanExporter {
+        private static final OutputStream DISCARD = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            try {
+                TraceRequestMarshaler.create(spans).writeBinaryTo(DISCARD);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.config.controller;
+
+import com.ecommerce.config.environment.ConfigChangeNotifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Long-poll for config changes. Send the ETag of the environment you hold in {@code If-None-Match};
+ * the call returns 200 with the new ETag once it changes, or 304 after {@code config.watch.timeout}.
+ */
+@RestController
+public class ConfigWatchController {
+
+    private final ConfigChangeNotifier notifier;
+
+    public ConfigWatchController(ConfigChangeNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @GetMapping("/watch/{application}/{profile}")
+    public DeferredResult<ResponseEntity<Void>> watch(@PathVariable String application,
+                                                      @PathVariable String profile,
+                                                      @RequestParam(required = false) String label,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String etag) {
+        return notifier.watch(application, profile, label, etag == null ? "" : etag);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.config.environment;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+import org.springframework.core.Ordered;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the resolved {@link Environment} per application, profile, label and origin flag. The native
+ * repository boots a throwaway Spring context for every lookup, which adds up when the whole fleet
+ * re-fetches after a change. Cleared by {@link ConfigChangeNotifier} when a config file changes.
+ * Any client can ask for arbitrary names, so at most {@code maxEntries} environments are kept and the
+ * least recently used one is dropped first.
+ */
+public class CachingEnvironmentRepository implements EnvironmentRepository, SearchPathLocator, Ordered {
+
+    private final NativeEnvironmentRepository delegate;
+    private final Map<String, Environment> environments;
+    // Bumped by invalidate(), so a lookup that started before a change does not cache what it read
+    private long generation;
+
+    public CachingEnvironmentRepository(NativeEnvironmentRepository delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.environments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Environment> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        String key = application + "|" + profile + "|" + label + "|" + includeOrigin;
+        long startedIn;
+        synchronized (environments) {
+            Environment cached = environments.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            startedIn = generation;
+        }
+        // Resolved outside the lock: a slow lookup must not hold up cache hits for other applications
+        Environment environment = delegate.findOne(application, profile, label, includeOrigin);
+        synchronized (environments) {
+            if (generation != startedIn) {
+                return environment;
+            }
+            Environment raced = environments.putIfAbsent(key, environment);
+            return raced != null ? raced : environment;
+        }
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return delegate.getLocations(application, profile, label);
+    }
+
+    @Override
+    public int getOrder() {
+        return delegate.getOrder();
+    }
+
+    public String[] getSearchLocations() {
+        return delegate.getSearchLocations();
+    }
+
+    public void invalidate() {
+        synchronized (environments) {
+            environments.clear();
+            generation++;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.config.environment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes config changes to instances long-polling {@code /watch}. Every {@code scan-interval} the
+ * native search locations are fingerprinted; when a file changes the environment cache is cleared and
+ * each waiting watch whose application now resolves to a different ETag is answered at once. Watches
+ * that see no change time out with a 304 and are re-issued by the client.
+ */
+@Component
+public class ConfigChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigChangeNotifier.class);
+    private static final String[] PATTERNS = {"**/*.yml", "**/*.yaml", "**/*.properties"};
+
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private final ObjectProvider<EnvironmentRepository> repositories;
+    private final EnvironmentController environmentController;
+    private final Duration scanInterval;
+    private final Duration timeout;
+    private final ScheduledExecutorService scheduler;
+    private volatile String fingerprint;
+
+    public ConfigChangeNotifier(ObjectProvider<EnvironmentRepository> repositories,
+                                EnvironmentController environmentController,
+                                @Value("${config.watch.scan-interval:2s}") Duration scanInterval,
+                                @Value("${config.watch.timeout:30s}") Duration timeout) {
+        this.repositories = repositories;
+        this.environmentController = environmentController;
+        this.scanInterval = scanInterval;
+        this.timeout = timeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "config-change-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        fingerprint = fingerprint();
+        scheduler.scheduleWithFixedDelay(this::scan, scanInterval.toMillis(), scanInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Answers as soon as {@code application}/{@code profile} resolves to something other than
+     * {@code etag}, which is immediately if the caller is already behind or sent no ETag.
+     */
+    public DeferredResult<ResponseEntity<Void>> watch(String application, String profile, String label, String etag) {
+        DeferredResult<ResponseEntity<Void>> result = new DeferredResult<>(timeout.toMillis(),
+            () -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+        Watch watch = new Watch(application, profile, label, etag, result);
+        watches.add(watch);
+        result.onCompletion(() -> watches.remove(watch));
+        String current = currentEtag(watch);
+        if (!current.equals(etag)) {
+            result.setResult(changed(current));
+        }
+        return result;
+    }
+
+    private void scan() {
+        try {
+            String current = fingerprint();
+            if (current.equals(fingerprint)) {
+                return;
+            }
+            fingerprint = current;
+            repositories.orderedStream()
+                .filter(CachingEnvironmentRepository.class::isInstance)
+                .forEach(repository -> ((CachingEnvironmentRepository) repository).invalidate());
+            log.info("Config files changed, checking {} watching instances", watches.size());
+            Map<String, String> etags = new HashMap<>();
+            for (Watch watch : watches) {
+                String etag = etags.computeIfAbsent(watch.key(), key -> currentEtag(watch));
+                if (!etag.equals(watch.etag())) {
+                    watch.result().setResult(changed(etag));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Config change scan failed", e);
+        }
+    }
+
+    private String currentEtag(Watch watch) {
+        return EnvironmentEtagAdvice.etag(
+            environmentController.getEnvironment(watch.application(), watch.profile(), watch.label(), false));
+    }
+
+    private static ResponseEntity<Void> changed(String etag) {
+        return ResponseEntity.ok().eTag(etag).build();
+    }
+
+    private String fingerprint() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String location : searchLocations()) {
+                String base = location.endsWith("/") ? location : location + "/";
+                for (String pattern : PATTERNS) {
+                    Resource[] resources = resolver.getResources(base + pattern);
+                    Arrays.sort(resources, Comparator.comparing(Resource::getDescription));
+                    for (Resource resource : resources) {
+                        digest.update(resource.getDescription().getBytes(StandardCharsets.UTF_8));
+                        try (InputStream in = resource.getInputStream()) {
+                            digest.update(in.readAllBytes());
+                        }
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint config files", e);
+        }
+    }
+
+    private List<String> searchLocations() {
+        return repositories.orderedStream()
+            .filter(CachingEnvironmentRepository.class::isInstance)
+            .flatMap(repository -> Arrays.stream(((CachingEnvironmentRepository) repository).getSearchLocations()))
+            .toList();
+    }
+
+    private record Watch(String application, String profile, String label, String etag,
+                         DeferredResult<ResponseEntity<Void>> result) {
+
+        String key() {
+            return application + "|" + profile + "|" + label;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.config.environment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts {@link CachingEnvironmentRepository} in front of the native repository. Everything above it
+ * (the composite repository, decryption, the controller) is left as Spring Cloud Config builds it.
+ */
+@Configuration
+public class EnvironmentCacheConfig {
+
+    @Bean
+    public static BeanPostProcessor environmentCachePostProcessor(
+            @Value("${config.cache.max-entries:256}") int maxEntries) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof NativeEnvironmentRepository repository) {
+                    return new CachingEnvironmentRepository(repository, maxEntries);
+                }
+                return bean;
+            }
+        };
+    }
+}
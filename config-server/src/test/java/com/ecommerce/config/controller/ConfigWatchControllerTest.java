@@ -0,0 +1,52 @@
+package com.ecommerce.config.controller;
+
+import com.ecommerce.config.environment.ConfigChangeNotifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConfigWatchControllerTest {
+
+    private final ConfigChangeNotifier notifier = mock(ConfigChangeNotifier.class);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new ConfigWatchController(notifier)).build();
+
+    @Test
+    void changedEtagIsReturnedOnceTheNotifierAnswers() throws Exception {
+        DeferredResult<ResponseEntity<Void>> result = new DeferredResult<>();
+        when(notifier.watch("product-service", "default", "main", "\"v1\"")).thenReturn(result);
+
+        MvcResult pending = mvc.perform(get("/watch/product-service/default?label=main")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.setResult(ResponseEntity.ok().eTag("\"v2\"").build());
+
+        mvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"v2\""));
+    }
+
+    @Test
+    void missingEtagIsPassedAsEmpty() throws Exception {
+        DeferredResult<ResponseEntity<Void>> result = new DeferredResult<>();
+        result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"v1\"").build());
+        when(notifier.watch("order-service", "docker", null, "")).thenReturn(result);
+
+        MvcResult answered = mvc.perform(get("/watch/order-service/docker")).andReturn();
+
+        mvc.perform(asyncDispatch(answered)).andExpect(status().isNotModified());
+        verify(notifier).watch("order-service", "docker", null, "");
+    }
+}
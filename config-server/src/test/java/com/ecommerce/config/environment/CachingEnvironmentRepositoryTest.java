@@ -0,0 +1,61 @@
+package com.ecommerce.config.environment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CachingEnvironmentRepositoryTest {
+
+    private final NativeEnvironmentRepository delegate = mock(NativeEnvironmentRepository.class);
+    private final CachingEnvironmentRepository repository = new CachingEnvironmentRepository(delegate, 8);
+
+    @Test
+    void eachLookupKeyIsResolvedOnce() {
+        when(delegate.findOne(anyString(), anyString(), any(), anyBoolean()))
+            .thenAnswer(invocation -> new Environment(invocation.getArgument(0), invocation.<String>getArgument(1)));
+
+        Environment first = repository.findOne("product-service", "default", null);
+        assertSame(first, repository.findOne("product-service", "default", null));
+        assertNotSame(first, repository.findOne("product-service", "default", null, true));
+        assertNotSame(first, repository.findOne("product-service", "docker", null));
+        assertNotSame(first, repository.findOne("product-service", "default", "main"));
+        assertNotSame(first, repository.findOne("order-service", "default", null));
+
+        verify(delegate, times(5)).findOne(anyString(), anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    void leastRecentlyUsedEnvironmentIsDroppedAtCapacity() {
+        when(delegate.findOne(anyString(), anyString(), any(), anyBoolean()))
+            .thenAnswer(invocation -> new Environment(invocation.getArgument(0), invocation.<String>getArgument(1)));
+
+        Environment product = repository.findOne("product-service", "default", null);
+        for (int i = 0; i < 100; i++) {
+            repository.findOne("made-up-" + i, "default", null);
+            assertSame(product, repository.findOne("product-service", "default", null));
+        }
+        repository.findOne("made-up-0", "default", null);
+
+        // product-service stayed in use; made-up-0 was evicted long ago and is resolved again
+        verify(delegate, times(1)).findOne("product-service", "default", null, false);
+        verify(delegate, times(2)).findOne("made-up-0", "default", null, false);
+    }
+
+    @Test
+    void invalidateResolvesAgain() {
+        when(delegate.findOne("product-service", "default", null, false))
+            .thenReturn(new Environment("product-service", "default"), new Environment("product-service", "default"));
+
+        Environment before = repository.findOne("product-service", "default", null);
+        repository.invalidate();
+        Environment after = repository.findOne("product-service", "default", null);
+
+        assertNotSame(before, after);
+        assertSame(after, repository.findOne("product-service", "default", null));
+        verify(delegate, times(2)).findOne("product-service", "default", null, false);
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.config.environment;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentProperties;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the notifier over the real native repository, reading config files from a temporary
+ * directory that the tests edit.
+ */
+class ConfigChangeNotifierTest {
+
+    @TempDir
+    Path configDir;
+
+    private EnvironmentController controller;
+    private ConfigChangeNotifier notifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        write("product-service.yml", "feature:\n  flag: false\n");
+        write("order-service.yml", "retries: 3\n");
+        NativeEnvironmentRepository nativeRepository = new NativeEnvironmentRepository(
+            new StandardEnvironment(), new NativeEnvironmentProperties(), ObservationRegistry.NOOP);
+        nativeRepository.setSearchLocations(configDir.toUri().toString());
+        CachingEnvironmentRepository repository = new CachingEnvironmentRepository(nativeRepository, 16);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<EnvironmentRepository> repositories = mock(ObjectProvider.class);
+        when(repositories.orderedStream()).thenAnswer(invocation -> Stream.of(repository));
+        controller = new EnvironmentController(repository);
+        notifier = new ConfigChangeNotifier(repositories, controller, Duration.ofMillis(50), Duration.ofSeconds(30));
+        notifier.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notifier.stop();
+    }
+
+    @Test
+    void callerWithoutTheCurrentEtagIsAnsweredAtOnce() {
+        String current = etag("product-service");
+
+        assertAnswered(notifier.watch("product-service", "default", null, ""), current);
+        assertAnswered(notifier.watch("product-service", "default", null, "\"stale\""), current);
+        assertFalse(notifier.watch("product-service", "default", null, current).hasResult());
+    }
+
+    @Test
+    void fileChangeAnswersOnlyTheAffectedWatches() throws Exception {
+        String product = etag("product-service");
+        String order = etag("order-service");
+        DeferredResult<ResponseEntity<Void>> productWatch = notifier.watch("product-service", "default", null, product);
+        DeferredResult<ResponseEntity<Void>> orderWatch = notifier.watch("order-service", "default", null, order);
+
+        write("product-service.yml", "feature:\n  flag: true\n");
+        waitForResult(productWatch);
+
+        String changed = etag("product-service");
+        assertNotEquals(product, changed);
+        assertAnswered(productWatch, changed);
+        assertFalse(orderWatch.hasResult());
+        assertEquals(order, etag("order-service"));
+    }
+
+    private String etag(String application) {
+        return EnvironmentEtagAdvice.etag(controller.getEnvironment(application, "default", null, false));
+    }
+
+    private void write(String file, String content) throws Exception {
+        Files.writeString(configDir.resolve(file), content);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertAnswered(DeferredResult<ResponseEntity<Void>> result, String etag) {
+        assertTrue(result.hasResult());
+        ResponseEntity<Void> response = (ResponseEntity<Void>) result.getResult();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+    }
+
+    private static void waitForResult(DeferredResult<?> result) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.inventory.config;
+
+import com.ecommerce.inventory.metrics.QueryStatisticsRecorder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource so every statement is timed by {@link QueryStatisticsRecorder}.
+ * Replaces {@code spring.jpa.show-sql}: only slow statements are logged, as fingerprints. Routing data
+ * sources are left alone; statements are recorded once, on the DataSource that fronts them.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryStatisticsRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(recorder.getObject())
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.inventory.config;
+
+import com.ecommerce.inventory.metrics.OperationMetrics;
+import com.ecommerce.inventory.metrics.TimedCacheResolver;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Applies {@link OperationMetrics} to every public method declared on a {@code @Service} class. The
+ * advisor runs outermost, ahead of caching and transactions, so cache hits and commit time are part
+ * of the measured operation. Also routes the caching annotations through {@link TimedCacheResolver}
+ * so cache time shows up in the per-operation dependency breakdown.
+ */
+@Configuration
+public class OperationMetricsConfig implements CachingConfigurer {
+
+    private final TimedCacheResolver cacheResolver;
+
+    public OperationMetricsConfig(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheResolver = new TimedCacheResolver(cacheManager);
+    }
+
+    // Deliberately not a bean: a bean named cacheResolver makes Boot back off its CacheManager
+    @Override
+    public CacheResolver cacheResolver() {
+        return cacheResolver;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor operationMetricsAdvisor(ObjectProvider<OperationMetrics> operationMetrics) {
+        StaticMethodMatcherPointcut serviceMethods = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                    && AnnotatedElementUtils.hasAnnotation(method.getDeclaringClass(), Service.class);
+            }
+        };
+        // Resolved lazily so the MeterRegistry is not created while post-processors are still registering
+        SingletonSupplier<OperationMetrics> metrics = SingletonSupplier.of(operationMetrics::getObject);
+        MethodInterceptor interceptor = invocation -> metrics.obtain().invoke(invocation);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(serviceMethods, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
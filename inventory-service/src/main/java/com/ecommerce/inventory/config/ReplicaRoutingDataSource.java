@@ -0,0 +1,168 @@
+package com.ecommerce.inventory.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * Replicas are probed in the background; one whose replication lag exceeds the configured maximum,
+ * or that cannot be reached, is skipped until a later probe finds it healthy again. When no replica is
+ * healthy, read-only transactions fall back to the primary. Must be fronted by a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the routing decision
+ * happens after the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<ReplicaTarget> replicas;
+    private final ReadReplicaProperties properties;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+    private final ScheduledExecutorService prober;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadReplicaProperties properties, MeterRegistry registry) {
+        this.primary = primary;
+        this.properties = properties;
+        this.replicas = replicas.entrySet().stream()
+            .map(e -> new ReplicaTarget(e.getKey(), e.getValue()))
+            .toList();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.fallbacks = Counter.builder("db_replica_fallback_total")
+            .description("Read-only transactions routed to the primary because no replica was healthy")
+            .register(registry);
+        for (ReplicaTarget replica : this.replicas) {
+            Gauge.builder("db_replica_lag_seconds", replica, r -> r.lagSeconds)
+                .description("Replication lag reported by the last probe")
+                .tag("replica", replica.name)
+                .register(registry);
+            Gauge.builder("db_replica_healthy", replica, r -> r.healthy ? 1 : 0)
+                .description("Whether the replica currently receives read-only traffic")
+                .tag("replica", replica.name)
+                .register(registry);
+        }
+
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!this.replicas.isEmpty()) {
+            long intervalMs = properties.getProbeInterval().toMillis();
+            prober.scheduleWithFixedDelay(this::probeReplicas, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaTarget replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    void probeReplicas() {
+        long maxLag = properties.getMaxReplicationLag().toSeconds();
+        for (ReplicaTarget replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                if (!rs.next()) {
+                    // Not configured as a replica (e.g. a standalone dev database): nothing to lag behind.
+                    replica.update(true, 0);
+                    continue;
+                }
+                Object lag = rs.getObject(properties.getLagColumn());
+                if (lag == null) {
+                    replica.update(false, -1);
+                } else {
+                    long lagSeconds = ((Number) lag).longValue();
+                    replica.update(lagSeconds <= maxLag, lagSeconds);
+                }
+            } catch (Exception e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} probe failed, routing reads to primary: {}", replica.name, e.getMessage());
+                }
+                replica.update(false, -1);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        prober.shutdownNow();
+        for (ReplicaTarget replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+        closeQuietly(primary);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.debug("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class ReplicaTarget {
+        private final String name;
+        private final DataSource dataSource;
+        // Start unhealthy so reads stay on the primary until the first probe succeeds.
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+
+        ReplicaTarget(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void update(boolean healthy, long lagSeconds) {
+            if (healthy != this.healthy) {
+                log.info("Replica {} is now {} (lag {}s)", name, healthy ? "healthy" : "unhealthy", lagSeconds);
+            }
+            this.healthy = healthy;
+            this.lagSeconds = lagSeconds;
+        }
+    }
+}
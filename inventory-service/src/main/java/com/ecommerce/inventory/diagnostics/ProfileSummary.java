@@ -0,0 +1,229 @@
+package com.ecommerce.inventory.diagnostics;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Condenses a JFR dump into the three views needed after a latency spike: where CPU samples land,
+ * which code allocates most, and which locks threads wait on. CPU and allocations are also reported by
+ * the innermost {@code com.ecommerce} frame, since the top frame is usually JDK or library code. A
+ * {@code frame} filter such as {@code InventoryService.reserveQuantity} narrows every view to events whose
+ * stack passes through a matching method.
+ */
+final class ProfileSummary {
+
+    private static final String APPLICATION_PACKAGE = "com.ecommerce.";
+
+    private final Instant since;
+    private final String frame;
+    private final Map<String, Tally> hotMethods = new HashMap<>();
+    private final Map<String, Tally> hotApplicationMethods = new HashMap<>();
+    private final Map<String, Tally> allocationSites = new HashMap<>();
+    private final Map<String, Tally> applicationAllocationSites = new HashMap<>();
+    private final Map<String, Tally> contendedLocks = new HashMap<>();
+    private long executionSamples;
+    private long matchedSamples;
+    private long allocatedBytes;
+    private long blockedNanos;
+
+    private ProfileSummary(Instant since, @Nullable String frame) {
+        this.since = since;
+        this.frame = frame;
+    }
+
+    static Map<String, Object> summarize(Path file, Instant since, @Nullable String frame, int limit) throws IOException {
+        ProfileSummary summary = new ProfileSummary(since, frame);
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                summary.accept(recording.readEvent());
+            }
+        }
+        return summary.toMap(limit);
+    }
+
+    private void accept(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (event.getStartTime().isBefore(since) || stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample" -> {
+                executionSamples++;
+                if (matches(frames)) {
+                    matchedSamples++;
+                    tally(hotMethods, method(frames.get(0)), 1);
+                    Set<String> counted = new HashSet<>();
+                    for (RecordedFrame recordedFrame : frames) {
+                        String method = method(recordedFrame);
+                        if (method.startsWith(APPLICATION_PACKAGE) && counted.add(method)) {
+                            tally(hotApplicationMethods, method, 1);
+                        }
+                    }
+                }
+            }
+            case "jdk.ObjectAllocationSample" -> {
+                if (matches(frames)) {
+                    long weight = event.getLong("weight");
+                    String type = event.getClass("objectClass").getName();
+                    allocatedBytes += weight;
+                    tally(allocationSites, type + " @ " + method(frames.get(0)), weight);
+                    String applicationFrame = applicationFrame(frames);
+                    if (applicationFrame != null) {
+                        tally(applicationAllocationSites, type + " @ " + applicationFrame, weight);
+                    }
+                }
+            }
+            case "jdk.JavaMonitorEnter" -> lock(event.getClass("monitorClass"), frames, event.getDuration());
+            case "jdk.ThreadPark" -> {
+                // Idle pool threads park on a condition or with no blocker; only waits for a lock are contention
+                RecordedClass parkedClass = event.getClass("parkedClass");
+                if (parkedClass != null && !parkedClass.getName().endsWith("$ConditionObject")) {
+                    lock(parkedClass, frames, event.getDuration());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void lock(@Nullable RecordedClass lockClass, List<RecordedFrame> frames, Duration duration) {
+        if (!matches(frames)) {
+            return;
+        }
+        String site = applicationFrame(frames);
+        if (site == null) {
+            site = callerFrame(frames);
+        }
+        String lock = lockClass != null ? lockClass.getName() : "unknown";
+        blockedNanos += duration.toNanos();
+        tally(contendedLocks, lock + " @ " + site, duration.toNanos());
+    }
+
+    private boolean matches(List<RecordedFrame> frames) {
+        if (frame == null) {
+            return true;
+        }
+        for (RecordedFrame recordedFrame : frames) {
+            if (method(recordedFrame).contains(frame)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static String applicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame recordedFrame : frames) {
+            String method = method(recordedFrame);
+            if (method.startsWith(APPLICATION_PACKAGE)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /** The first frame outside the JDK, so a park is attributed to the pool or driver that waited. */
+    private static String callerFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame recordedFrame : frames) {
+            String method = method(recordedFrame);
+            if (!method.startsWith("java.") && !method.startsWith("jdk.") && !method.startsWith("sun.")) {
+                return method;
+            }
+        }
+        return method(frames.get(0));
+    }
+
+    private static String method(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        // Lambda classes carry a per-JVM id and address; fold them into one name per declaring class
+        int lambda = type.indexOf("$$Lambda");
+        if (lambda >= 0) {
+            type = type.substring(0, lambda + "$$Lambda".length());
+        }
+        return type + "." + frame.getMethod().getName();
+    }
+
+    private static void tally(Map<String, Tally> tallies, String key, long weight) {
+        tallies.computeIfAbsent(key, k -> new Tally()).add(weight);
+    }
+
+    private Map<String, Object> toMap(int limit) {
+        Map<String, Object> cpu = new LinkedHashMap<>();
+        cpu.put("samples", executionSamples);
+        cpu.put("matchedSamples", matchedSamples);
+        cpu.put("hotMethods", top(hotMethods, limit, matchedSamples, "method", "samples"));
+        cpu.put("hotApplicationMethods", top(hotApplicationMethods, limit, matchedSamples, "method", "samples"));
+
+        Map<String, Object> allocations = new LinkedHashMap<>();
+        allocations.put("sampledBytes", allocatedBytes);
+        allocations.put("topSites", top(allocationSites, limit, allocatedBytes, "site", "bytes"));
+        allocations.put("applicationSites", top(applicationAllocationSites, limit, allocatedBytes, "site", "bytes"));
+
+        Map<String, Object> locks = new LinkedHashMap<>();
+        locks.put("blockedMs", blockedNanos / 1_000_000);
+        locks.put("contended", contendedLocks.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Tally> e) -> e.getValue().weight).reversed())
+            .limit(limit)
+            .map(e -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("site", e.getKey());
+                entry.put("events", e.getValue().count);
+                entry.put("totalMs", e.getValue().weight / 1_000_000);
+                entry.put("maxMs", e.getValue().max / 1_000_000);
+                return entry;
+            })
+            .toList());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("since", since.toString());
+        body.put("frame", frame);
+        body.put("cpu", cpu);
+        body.put("allocations", allocations);
+        body.put("locks", locks);
+        return body;
+    }
+
+    private static List<Map<String, Object>> top(Map<String, Tally> tallies, int limit, long total,
+                                                 String keyName, String weightName) {
+        return tallies.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, Tally> e) -> e.getValue().weight).reversed())
+            .limit(limit)
+            .map(e -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put(keyName, e.getKey());
+                entry.put(weightName, e.getValue().weight);
+                entry.put("percent", total > 0 ? Math.round(e.getValue().weight * 1000.0 / total) / 10.0 : 0.0);
+                return entry;
+            })
+            .toList();
+    }
+
+    private static final class Tally {
+        private long count;
+        private long weight;
+        private long max;
+
+        void add(long value) {
+            count++;
+            weight += value;
+            max = Math.max(max, value);
+        }
+    }
+}
@@ -31,6 +31,12 @@ public class Inventory {
     
     private LocalDateTime lastUpdated;
     
+    // Published with every inventory event so consumers can order snapshots of one product; changes are
+    // saved with saveAndFlush so the entity sent to Kafka already carries the incremented version
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @PrePersist
     @PreUpdate
     protected void onUpdate() {
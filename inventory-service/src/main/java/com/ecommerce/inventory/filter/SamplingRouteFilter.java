@@ -0,0 +1,78 @@
+package com.ecommerce.inventory.filter;
+
+import com.ecommerce.inventory.tracing.AdaptiveSampler;
+import com.ecommerce.inventory.tracing.AdaptiveSamplingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives {@link AdaptiveSampler} the route of the current request before the server span starts (the
+ * observation filter runs right after this one, before handler mapping has resolved the pattern).
+ * The route is the method plus the path with numeric and UUID segments replaced by {@code {id}},
+ * e.g. {@code GET /inventory/product/{id}}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SamplingRouteFilter extends OncePerRequestFilter {
+
+    private final AdaptiveSamplingProperties properties;
+
+    public SamplingRouteFilter(AdaptiveSamplingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        AdaptiveSampler.setCurrentRoute(route(request.getMethod(), request.getRequestURI()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            AdaptiveSampler.clearCurrentRoute();
+        }
+    }
+
+    static String route(String method, String path) {
+        StringBuilder route = new StringBuilder(method.length() + path.length() + 8).append(method).append(' ');
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start + 1);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdentifier(path, start + 1, end)) {
+                route.append("/{id}");
+            } else {
+                route.append(path, start, end);
+            }
+            start = end;
+        }
+        return route.toString();
+    }
+
+    private static boolean isIdentifier(String path, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        boolean digitsOnly = true;
+        boolean uuid = to - from == 36;
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            digitsOnly &= c >= '0' && c <= '9';
+            uuid &= c == '-' || Character.digit(c, 16) >= 0;
+        }
+        return digitsOnly || uuid;
+    }
+}
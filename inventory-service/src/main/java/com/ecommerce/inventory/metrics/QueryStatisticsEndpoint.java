@@ -0,0 +1,37 @@
+package com.ecommerce.inventory.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final QueryStatisticsRecorder recorder;
+
+    public QueryStatisticsEndpoint(QueryStatisticsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> queries(@Nullable Integer limit) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("slowThresholdMs", recorder.getSlowThresholdMs());
+        body.put("topByTotalTime", recorder.topByTotalTime(limit != null ? limit : DEFAULT_LIMIT));
+        body.put("recentSlowQueries", recorder.recentSlowQueries());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
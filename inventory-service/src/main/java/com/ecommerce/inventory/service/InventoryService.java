@@ -5,12 +5,16 @@ import com.ecommerce.inventory.entity.Inventory;
 import com.ecommerce.inventory.metrics.InventoryMetricsRecorder;
 import com.ecommerce.inventory.repository.InventoryRepository;
 import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,6 +22,8 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
     
     private final InventoryRepository inventoryRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
@@ -31,12 +37,14 @@ public class InventoryService {
     }
     
     @Cacheable(value = "inventory", key = "#productId")
+    @Transactional(readOnly = true)
     public InventoryDTO getInventoryByProductId(Long productId) {
         Inventory inventory = inventoryRepository.findByProductId(productId)
-            .orElseThrow(() -> new RuntimeException("Inventory not found for product: " + productId));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found for product: " + productId));
         return InventoryDTO.fromEntity(inventory);
     }
     
+    @Transactional(readOnly = true)
     public List<InventoryDTO> getAllInventory() {
         return inventoryRepository.findAll().stream()
             .map(InventoryDTO::fromEntity)
@@ -47,7 +55,7 @@ public class InventoryService {
     @Observed(name = "inventory.create", contextualName = "inventory-create")
     public InventoryDTO createInventory(Long productId, Integer initialQuantity) {
         if (inventoryRepository.findByProductId(productId).isPresent()) {
-            throw new RuntimeException("Inventory already exists for product: " + productId);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Inventory already exists for product: " + productId);
         }
         
         Inventory inventory = new Inventory();
@@ -55,7 +63,7 @@ public class InventoryService {
         inventory.setQuantity(initialQuantity);
         inventory.setReservedQuantity(0);
         
-        Inventory savedInventory = inventoryRepository.save(inventory);
+        Inventory savedInventory = inventoryRepository.saveAndFlush(inventory);
         metricsRecorder.recordInventoryCreated();
         
         // Publish inventory created event
@@ -68,10 +76,10 @@ public class InventoryService {
     @Observed(name = "inventory.quantity", contextualName = "inventory-update")
     public InventoryDTO updateQuantity(Long productId, Integer quantityChange) {
         Inventory inventory = inventoryRepository.findByProductId(productId)
-            .orElseThrow(() -> new RuntimeException("Inventory not found for product: " + productId));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found for product: " + productId));
         
         inventory.setQuantity(inventory.getQuantity() + quantityChange);
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        Inventory updatedInventory = inventoryRepository.saveAndFlush(inventory);
         metricsRecorder.recordQuantityAdjustment(quantityChange);
         
         // Publish inventory updated event
@@ -84,14 +92,14 @@ public class InventoryService {
     @Observed(name = "inventory.reserve", contextualName = "inventory-reserve")
     public InventoryDTO reserveQuantity(Long productId, Integer quantity) {
         Inventory inventory = inventoryRepository.findByProductId(productId)
-            .orElseThrow(() -> new RuntimeException("Inventory not found for product: " + productId));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found for product: " + productId));
         
         if (!inventory.isAvailable(quantity)) {
-            throw new RuntimeException("Insufficient inventory for product: " + productId);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient inventory for product: " + productId);
         }
         
         inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        Inventory updatedInventory = inventoryRepository.saveAndFlush(inventory);
         metricsRecorder.recordReservation(quantity);
         
         // Publish inventory reserved event
@@ -104,10 +112,13 @@ public class InventoryService {
     @Observed(name = "inventory.release", contextualName = "inventory-release")
     public InventoryDTO releaseReservation(Long productId, Integer quantity) {
         Inventory inventory = inventoryRepository.findByProductId(productId)
-            .orElseThrow(() -> new RuntimeException("Inventory not found for product: " + productId));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found for product: " + productId));
         
         inventory.setReservedQuantity(Math.max(0, inventory.getReservedQuantity() - quantity));
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        Inventory updatedInventory = inventoryRepository.saveAndFlush(inventory);
+        
+        // Publish inventory released event
+        kafkaTemplate.send("inventory-events", "inventory.released", updatedInventory);
         
         return InventoryDTO.fromEntity(updatedInventory);
     }
@@ -116,11 +127,11 @@ public class InventoryService {
     @Observed(name = "inventory.confirm", contextualName = "inventory-confirm")
     public InventoryDTO confirmReservation(Long productId, Integer quantity) {
         Inventory inventory = inventoryRepository.findByProductId(productId)
-            .orElseThrow(() -> new RuntimeException("Inventory not found for product: " + productId));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventory not found for product: " + productId));
         
         inventory.setQuantity(inventory.getQuantity() - quantity);
         inventory.setReservedQuantity(Math.max(0, inventory.getReservedQuantity() - quantity));
-        Inventory updatedInventory = inventoryRepository.save(inventory);
+        Inventory updatedInventory = inventoryRepository.saveAndFlush(inventory);
         metricsRecorder.recordReservationConfirmation(quantity);
         
         // Publish inventory confirmed event
@@ -132,7 +143,7 @@ public class InventoryService {
     @KafkaListener(topics = "order-events", groupId = "inventory-service-group")
     public void handleOrderEvent(String event) {
         // Handle order events
-        System.out.println("Received order event: " + event);
+        log.debug("Received order event: {}", event);
     }
 }
 
@@ -0,0 +1,30 @@
+package com.ecommerce.inventory.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rebound on {@code /actuator/refresh}, and read on every sampling decision, so rates and thresholds
+ * can be tuned from config-server without a restart. Only {@code management.tracing.sampling.probability}
+ * (used while adaptive sampling is disabled) needs a restart.
+ */
+@Data
+@ConfigurationProperties(prefix = "tracing.adaptive-sampling")
+public class AdaptiveSamplingProperties {
+
+    private boolean enabled = true;
+    /** Root traces sampled per second for each route without an override. */
+    private double defaultRate = 5;
+    /** Per-route rates keyed by {@code "METHOD /path/{id}"} or, for non-HTTP roots, the span name. */
+    private Map<String, Double> routes = new LinkedHashMap<>();
+    private int maxRoutes = 200;
+    /** Unsampled traces whose local root takes at least this long are exported anyway. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+    private int maxBufferedTraces = 5000;
+    private int maxSpansPerTrace = 200;
+    private Duration bufferTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.order.OrderServiceApplication;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.product.ProductServiceApplication;
+import com.ecommerce.user.UserServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The five services, each in its own application context on a random port, sharing one embedded
+ * KRaft broker. Every service loads {@code config/<name>.yml} (its config-server file, copied onto the
+ * classpath by the build) with the {@code prod} profile; only infrastructure is overridden: an H2
+ * database in MySQL mode per service, the embedded broker, simple in-memory caches, local
+ * idempotency and stock level stores, and no config server, Eureka, Redis health or OTLP export.
+ */
+final class EmbeddedStack implements AutoCloseable {
+
+    static final String USER = "user-service";
+    static final String PRODUCT = "product-service";
+    static final String ORDER = "order-service";
+    static final String INVENTORY = "inventory-service";
+    static final String PAYMENT = "payment-service";
+
+    private static final String[] TOPICS = {
+        "order-events", "inventory-events", "payment-events", "product-events", "user-events"};
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final Map<String, String> baseUrls = new LinkedHashMap<>();
+
+    private EmbeddedStack(EmbeddedKafkaKraftBroker kafka) {
+        this.kafka = kafka;
+    }
+
+    static EmbeddedStack start() {
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, TOPICS);
+        kafka.afterPropertiesSet();
+        EmbeddedStack stack = new EmbeddedStack(kafka);
+        try {
+            stack.boot(USER, "userdb", UserServiceApplication.class);
+            stack.boot(PRODUCT, "productdb", ProductServiceApplication.class);
+            stack.boot(INVENTORY, "inventorydb", InventoryServiceApplication.class);
+            stack.boot(PAYMENT, "paymentdb", PaymentServiceApplication.class);
+            stack.boot(ORDER, "orderdb", OrderServiceApplication.class);
+        } catch (RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    String baseUrl(String service) {
+        return baseUrls.get(service);
+    }
+
+    Map<String, String> baseUrls() {
+        return Collections.unmodifiableMap(baseUrls);
+    }
+
+    private void boot(String name, String database, Class<?> application) {
+        String[] args = {
+            "--spring.config.name=" + name,
+            "--spring.config.location=classpath:/config/",
+            "--spring.profiles.active=prod",
+            "--spring.main.banner-mode=off",
+            "--server.port=0",
+            "--spring.cloud.config.enabled=false",
+            "--spring.cloud.discovery.enabled=false",
+            "--eureka.client.enabled=false",
+            "--spring.datasource.url=jdbc:h2:mem:" + database
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+            "--spring.cache.type=simple",
+            "--idempotency.store=local",
+            "--product.stock.store=local",
+            "--management.health.redis.enabled=false",
+            "--management.otlp.metrics.export.enabled=false",
+            "--management.tracing.enabled=false",
+            "--external.config-server.health-url=http://localhost:1/actuator/health",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.context.support.PostProcessorRegistrationDelegate=ERROR",
+            "--logging.level.org.springframework.boot.autoconfigure.security=ERROR",
+            "--logging.level.com.ecommerce=WARN"
+        };
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+            .logStartupInfo(false)
+            .run(args);
+        contexts.add(context);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrls.put(name, "http://localhost:" + port);
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        kafka.destroy();
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures order-placement throughput without docker-compose: boots the services in-process
+ * ({@link EmbeddedStack}), seeds products and users, then runs the traffic mix at each target rate in
+ * turn until a stage saturates. Prints a per-endpoint latency table per stage and writes the full
+ * results, including latency histograms, as JSON.
+ * <p>
+ * The driver shares the JVM and CPU with the services, so absolute numbers are lower than on the real
+ * deployment; the value is in comparing runs of the same machine across commits. With
+ * {@code --targets} nothing is booted and the same stages run against a deployment, e.g. the JVM and
+ * native-image builds of product-service in turn.
+ */
+public final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try (EmbeddedStack stack = options.targets.isEmpty() ? EmbeddedStack.start() : null) {
+            Map<String, String> baseUrls = stack != null ? stack.baseUrls() : options.targets;
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(executor)
+                .build();
+            Workload workload = new Workload(client, baseUrls, options.mix);
+            workload.seed(options.products, options.users);
+            OpenLoopDriver driver = new OpenLoopDriver(client, workload, options.maxInFlight);
+
+            System.out.printf("Warming up at %.0f rps for %ds%n", options.rates.get(0), options.warmup.getSeconds());
+            driver.run(options.rates.get(0), options.warmup);
+
+            List<StageResult> stages = new ArrayList<>();
+            Double saturationRate = null;
+            for (double rate : options.rates) {
+                StageResult stage = driver.run(rate, options.stageDuration);
+                stages.add(stage);
+                print(stage, options.sloP99Millis);
+                if (stage.saturated(options.sloP99Millis)) {
+                    saturationRate = rate;
+                    break;
+                }
+            }
+            Double maxSustainedRate = stages.stream()
+                .filter(stage -> !stage.saturated(options.sloP99Millis))
+                .map(StageResult::targetRate)
+                .reduce((first, second) -> second)
+                .orElse(null);
+            System.out.printf("%nMax sustained rate: %s, saturated at: %s%n",
+                maxSustainedRate != null ? String.format("%.0f rps", maxSustainedRate) : "none",
+                saturationRate != null ? String.format("%.0f rps", saturationRate) : "not reached");
+            write(options, baseUrls, stages, maxSustainedRate, saturationRate);
+        } finally {
+            executor.shutdownNow();
+        }
+        // Kafka and Tomcat leave non-daemon threads behind after close
+        System.exit(0);
+    }
+
+    private static void print(StageResult stage, double sloP99Millis) {
+        System.out.printf("%nStage %.0f rps: ok %.1f rps, errors %.2f%%, p99 %.1f ms%s%n",
+            stage.targetRate(), stage.okRate(), stage.errorRatio() * 100, stage.p99Millis(),
+            stage.saturated(sloP99Millis) ? "  SATURATED" : "");
+        System.out.printf("  %-20s %8s %8s %8s %9s %9s %9s %9s%n",
+            "endpoint", "count", "failed", "dropped", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        stage.endpoints().forEach((name, endpoint) -> System.out.printf(
+            "  %-20s %8d %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+            name, endpoint.latency.getTotalCount(), endpoint.failed() - endpoint.dropped.sum(),
+            endpoint.dropped.sum(), endpoint.percentileMillis(50), endpoint.percentileMillis(90),
+            endpoint.percentileMillis(99), endpoint.latency.getMaxValue() / 1000.0));
+    }
+
+    private static void write(LoadTestOptions options, Map<String, String> baseUrls, List<StageResult> stages,
+                              Double maxSustainedRate, Double saturationRate) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("stageSeconds", options.stageDuration.getSeconds());
+        report.put("sloP99Ms", options.sloP99Millis);
+        report.put("mix", options.mix);
+        report.put("services", baseUrls);
+        report.put("maxSustainedRps", maxSustainedRate);
+        report.put("saturationRps", saturationRate);
+        List<Map<String, Object>> stageMaps = new ArrayList<>();
+        stages.forEach(stage -> stageMaps.add(stage.toMap(options.sloP99Millis)));
+        report.put("stages", stageMaps);
+
+        Files.createDirectories(options.output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.output.toFile(), report);
+        System.out.println("Results written to " + options.output.toAbsolutePath());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Command line options, all {@code --name=value}:
+ * <pre>
+ * --rps=25,50,100,200,400      target request rates, one stage each, run in order
+ * --stage-seconds=30           measured duration of every stage
+ * --warmup-seconds=15          unrecorded run at the first rate before the stages
+ * --slo-p99-ms=500             a stage whose overall p99 exceeds this is saturated
+ * --max-in-flight=2000         requests beyond this are dropped and counted, not queued
+ * --mix=browse-list:30,browse-detail:35,login:10,create-order:15,pay:10
+ * --products=200 --users=50    seed data
+ * --output=build/reports/load-test/results.json
+ * --targets=product-service=http://localhost:8082,...
+ *                              drive services that are already running instead of booting them; only
+ *                              the services the mix and seeding call need to be listed
+ * </pre>
+ */
+final class LoadTestOptions {
+
+    final List<Double> rates;
+    final Duration stageDuration;
+    final Duration warmup;
+    final double sloP99Millis;
+    final int maxInFlight;
+    final Map<String, Integer> mix;
+    final int products;
+    final int users;
+    final Path output;
+    final Map<String, String> targets;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.rates = Arrays.stream(values.getOrDefault("rps", "25,50,100,200,400").split(","))
+            .map(String::trim)
+            .map(Double::parseDouble)
+            .collect(Collectors.toList());
+        this.stageDuration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("stage-seconds", "30")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-seconds", "15")));
+        this.sloP99Millis = Double.parseDouble(values.getOrDefault("slo-p99-ms", "500"));
+        this.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "2000"));
+        this.mix = parseMix(values.getOrDefault("mix",
+            "browse-list:30,browse-detail:35,login:10,create-order:15,pay:10"));
+        this.products = Integer.parseInt(values.getOrDefault("products", "200"));
+        this.users = Integer.parseInt(values.getOrDefault("users", "50"));
+        this.output = Path.of(values.getOrDefault("output", "build/reports/load-test/results.json"));
+        this.targets = parseTargets(values.getOrDefault("targets", ""));
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    private static Map<String, String> parseTargets(String targets) {
+        Map<String, String> baseUrls = new LinkedHashMap<>();
+        for (String entry : targets.split(",")) {
+            if (!entry.isBlank()) {
+                int eq = entry.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Expected service=url in --targets but got " + entry);
+                }
+                baseUrls.put(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+            }
+        }
+        return baseUrls;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed arrival rate regardless of how fast responses come back (open model), so a
+ * slow system cannot slow the load down and hide its own latency. Latency is measured from each
+ * request's scheduled send time, not its actual one, which keeps queueing in the driver visible
+ * (no coordinated omission). Requests that would exceed {@code maxInFlight} are dropped and counted.
+ */
+final class OpenLoopDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(15);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoopDriver(HttpClient client, Workload workload, int maxInFlight) {
+        this.client = client;
+        this.workload = workload;
+        this.maxInFlight = maxInFlight;
+    }
+
+    StageResult run(double ratePerSecond, Duration duration) {
+        StageResult result = new StageResult(ratePerSecond, duration);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long n = 0; ; n++) {
+            long scheduled = start + n * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Workload.Request request = workload.next();
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                result.dropped(request.endpoint);
+                continue;
+            }
+            client.sendAsync(request.request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - scheduled;
+                    inFlight.decrementAndGet();
+                    if (error != null) {
+                        result.record(request.endpoint, latency, -1);
+                        return;
+                    }
+                    result.record(request.endpoint, latency, response.statusCode());
+                    request.onResponse.accept(response);
+                });
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        result.finish(System.nanoTime() - start);
+        return result;
+    }
+}
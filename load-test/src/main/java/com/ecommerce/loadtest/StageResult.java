@@ -0,0 +1,159 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of one stage: per-endpoint latency histograms (microseconds, 3 significant digits) and
+ * status counts. A stage is saturated when successful throughput falls below 95% of the target rate,
+ * more than 1% of requests fail (including 503s from load shedding and driver-side drops), or the
+ * overall p99 exceeds the SLO.
+ */
+final class StageResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double MIN_THROUGHPUT_RATIO = 0.95;
+    private static final double MAX_ERROR_RATIO = 0.01;
+
+    private final double targetRate;
+    private final Duration duration;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private long elapsedNanos;
+
+    StageResult(double targetRate, Duration duration) {
+        this.targetRate = targetRate;
+        this.duration = duration;
+    }
+
+    void record(String endpoint, long latencyNanos, int status) {
+        Endpoint stats = endpoint(endpoint);
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status >= 200 && status < 300) {
+            stats.ok.increment();
+        } else {
+            stats.errors.computeIfAbsent(status < 0 ? "transport" : String.valueOf(status), key -> new LongAdder())
+                .increment();
+        }
+    }
+
+    void dropped(String endpoint) {
+        endpoint(endpoint).dropped.increment();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    double targetRate() {
+        return targetRate;
+    }
+
+    double okRate() {
+        long ok = endpoints.values().stream().mapToLong(endpoint -> endpoint.ok.sum()).sum();
+        return ok / (elapsedNanos / 1e9);
+    }
+
+    double errorRatio() {
+        long failed = 0;
+        long total = 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            long endpointFailed = endpoint.failed();
+            failed += endpointFailed;
+            total += endpoint.ok.sum() + endpointFailed;
+        }
+        return total == 0 ? 0 : (double) failed / total;
+    }
+
+    double p99Millis() {
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        endpoints.values().forEach(endpoint -> all.add(endpoint.latency));
+        return all.getValueAtPercentile(99) / 1000.0;
+    }
+
+    boolean saturated(double sloP99Millis) {
+        return okRate() < targetRate * MIN_THROUGHPUT_RATIO
+            || errorRatio() > MAX_ERROR_RATIO
+            || p99Millis() > sloP99Millis;
+    }
+
+    Map<String, Object> toMap(double sloP99Millis) {
+        Map<String, Object> stage = new LinkedHashMap<>();
+        stage.put("targetRps", targetRate);
+        stage.put("durationSeconds", duration.getSeconds());
+        stage.put("okRps", round(okRate()));
+        stage.put("errorRatio", round(errorRatio()));
+        stage.put("p99Ms", round(p99Millis()));
+        stage.put("saturated", saturated(sloP99Millis));
+        Map<String, Object> byEndpoint = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> byEndpoint.put(name, endpoint.toMap()));
+        stage.put("endpoints", byEndpoint);
+        return stage;
+    }
+
+    Map<String, Endpoint> endpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    static final class Endpoint {
+        final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        long failed() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum() + dropped.sum();
+        }
+
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", latency.getTotalCount());
+            stats.put("ok", ok.sum());
+            stats.put("dropped", dropped.sum());
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((status, count) -> errorCounts.put(status, count.sum()));
+            stats.put("errors", errorCounts);
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double percentile : new double[] {50, 90, 99, 99.9}) {
+                percentiles.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                    : String.valueOf(percentile)), round(percentileMillis(percentile)));
+            }
+            percentiles.put("max", round(latency.getMaxValue() / 1000.0));
+            stats.put("latencyMs", percentiles);
+            // Log-scale buckets from 1ms, each twice the previous: {"leMs": upper bound, "count": n}
+            List<Map<String, Object>> buckets = new ArrayList<>();
+            if (latency.getTotalCount() > 0) {
+                for (HistogramIterationValue value : latency.logarithmicBucketValues(1000, 2.0)) {
+                    Map<String, Object> bucket = new LinkedHashMap<>();
+                    bucket.put("leMs", value.getValueIteratedTo() / 1000.0);
+                    bucket.put("count", value.getCountAddedInThisIterationStep());
+                    buckets.add(bucket);
+                }
+            }
+            stats.put("histogram", buckets);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * The shopper traffic mix: browsing the catalogue, logging in, placing orders and paying for them.
+ * Payments are made for orders this run created; until there are any, a pay slot places an order
+ * instead. Seed products and users are created through the services' own APIs, with usernames, emails
+ * and SKUs suffixed by a per-run id so a second run against the same databases does not collide with
+ * the first.
+ */
+final class Workload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String PASSWORD = "LoadTest123!";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> baseUrls;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<String> operations = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final ConcurrentLinkedQueue<JsonNode> unpaidOrders = new ConcurrentLinkedQueue<>();
+
+    Workload(HttpClient client, Map<String, String> baseUrls, Map<String, Integer> mix) {
+        this.client = client;
+        this.baseUrls = baseUrls;
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+    }
+
+    void seed(int products, int users) throws IOException, InterruptedException {
+        for (int i = 0; i < products; i++) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                "name", "Load test product " + i,
+                "description", "Seeded by the load-test harness",
+                "price", 10 + i % 90,
+                "stock", 1_000_000,
+                "category", "Category " + i % 10,
+                "sku", "LT-" + runId + "-" + i,
+                "status", "ACTIVE"));
+            productIds.add(seedRequest(post(EmbeddedStack.PRODUCT, "/products", body)).get("id").asLong());
+        }
+        for (int i = 0; i < users; i++) {
+            String username = "loadtest-" + runId + "-" + i;
+            String body = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "firstName", "Load",
+                "lastName", "Test " + i,
+                "role", "CUSTOMER"));
+            userIds.add(seedRequest(post(EmbeddedStack.USER, "/users/register", body)).get("id").asLong());
+            usernames.add(username);
+        }
+    }
+
+    /**
+     * Picks the next operation from the mix. The returned request is sent by the driver, which hands
+     * the response back through {@link Request#onResponse}.
+     */
+    Request next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operations.get(random.nextInt(operations.size()))) {
+            case "browse-list":
+                return new Request("GET /products", get(EmbeddedStack.PRODUCT, "/products"), response -> { });
+            case "browse-detail":
+                return new Request("GET /products/{id}", get(EmbeddedStack.PRODUCT,
+                    "/products/" + productIds.get(random.nextInt(productIds.size()))), response -> { });
+            case "login":
+                return new Request("POST /users/login", post(EmbeddedStack.USER, "/users/login",
+                    json(Map.of("username", usernames.get(random.nextInt(usernames.size())), "password", PASSWORD))),
+                    response -> { });
+            case "pay":
+                JsonNode order = unpaidOrders.poll();
+                if (order != null) {
+                    return pay(order);
+                }
+                return createOrder(random);
+            case "create-order":
+                return createOrder(random);
+            default:
+                throw new IllegalArgumentException("Unknown operation in mix");
+        }
+    }
+
+    private Request createOrder(ThreadLocalRandom random) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            items.add(Map.of(
+                "productId", productIds.get(random.nextInt(productIds.size())),
+                "quantity", 1 + random.nextInt(3)));
+        }
+        String body = json(Map.of(
+            "userId", userIds.get(random.nextInt(userIds.size())),
+            "items", items,
+            "shippingAddress", "1 Load Test Street",
+            "billingAddress", "1 Load Test Street"));
+        HttpRequest request = withIdempotencyKey(EmbeddedStack.ORDER, "/orders", body);
+        return new Request("POST /orders", request, response -> {
+            if (response.statusCode() == 201) {
+                JsonNode created = parse(response.body());
+                // Bound the backlog so an order-heavy mix cannot grow it without limit
+                if (created != null && unpaidOrders.size() < 10_000) {
+                    unpaidOrders.add(created);
+                }
+            }
+        });
+    }
+
+    private Request pay(JsonNode order) {
+        String body = json(Map.of(
+            "orderId", order.get("id").asLong(),
+            "userId", order.get("userId").asLong(),
+            "amount", order.get("totalAmount").decimalValue(),
+            "paymentMethod", "CREDIT_CARD"));
+        return new Request("POST /payments", withIdempotencyKey(EmbeddedStack.PAYMENT, "/payments", body),
+            response -> { });
+    }
+
+    private HttpRequest get(String service, String path) {
+        return HttpRequest.newBuilder(uri(service, path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+    }
+
+    private HttpRequest post(String service, String path, String body) {
+        return HttpRequest.newBuilder(uri(service, path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpRequest withIdempotencyKey(String service, String path, String body) {
+        return HttpRequest.newBuilder(uri(service, path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .header("Idempotency-Key", UUID.randomUUID().toString())
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private URI uri(String service, String path) {
+        String baseUrl = baseUrls.get(service);
+        if (baseUrl == null) {
+            throw new IllegalArgumentException("No --targets entry for " + service);
+        }
+        return URI.create(baseUrl + path);
+    }
+
+    private JsonNode seedRequest(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding " + request.uri() + " failed with " + response.statusCode()
+                + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode parse(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static final class Request {
+        final String endpoint;
+        final HttpRequest request;
+        final Consumer<HttpResponse<String>> onResponse;
+
+        Request(String endpoint, HttpRequest request, Consumer<HttpResponse<String>> onResponse) {
+            this.endpoint = endpoint;
+            this.request = request;
+            this.onResponse = onResponse;
+        }
+    }
+}
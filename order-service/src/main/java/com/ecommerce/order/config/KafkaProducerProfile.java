@@ -0,0 +1,49 @@
+package com.ecommerce.order.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named producer tunings selected with {@code kafka.producer.profile}.
+ * <ul>
+ *   <li>{@code high-throughput}: leader-only acks, larger batches and a longer linger; a broker failover
+ *   can lose the last few unreplicated events.</li>
+ *   <li>{@code durable}: acks from all in-sync replicas with idempotence, so retries never duplicate or
+ *   reorder events within a partition.</li>
+ * </ul>
+ */
+public enum KafkaProducerProfile {
+
+    HIGH_THROUGHPUT(Map.of(
+        ProducerConfig.ACKS_CONFIG, "1",
+        ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+        ProducerConfig.LINGER_MS_CONFIG, 20,
+        ProducerConfig.BATCH_SIZE_CONFIG, 131072,
+        ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+        ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5)),
+
+    DURABLE(Map.of(
+        ProducerConfig.ACKS_CONFIG, "all",
+        ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+        ProducerConfig.LINGER_MS_CONFIG, 5,
+        ProducerConfig.BATCH_SIZE_CONFIG, 32768,
+        ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+        ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+        ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000));
+
+    private final Map<String, Object> settings;
+
+    KafkaProducerProfile(Map<String, Object> settings) {
+        this.settings = settings;
+    }
+
+    public Map<String, Object> settings() {
+        return settings;
+    }
+
+    public static KafkaProducerProfile fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
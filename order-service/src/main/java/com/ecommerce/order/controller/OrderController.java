@@ -3,6 +3,7 @@ package com.ecommerce.order.controller;
 import com.ecommerce.order.dto.CreateOrderRequest;
 import com.ecommerce.order.dto.OrderDTO;
 import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.idempotency.IdempotencyService;
 import com.ecommerce.order.service.OrderService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,9 +16,11 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
     
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
     }
     
     @GetMapping("/{id}")
@@ -26,8 +29,11 @@ public class OrderController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
+    public ResponseEntity<List<OrderDTO>> getOrdersByUserId(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByUserId(userId, page, size));
     }
     
     @GetMapping
@@ -36,9 +42,14 @@ public class OrderController {
     }
     
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderDTO> createOrder(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CreateOrderRequest request) {
+        IdempotencyService.Outcome<OrderDTO> outcome = idempotencyService.execute(
+            idempotencyKey, request, OrderDTO.class, () -> orderService.createOrder(request));
         return ResponseEntity.status(HttpStatus.CREATED)
-            .body(orderService.createOrder(request));
+            .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+            .body(outcome.getBody());
     }
     
     @PatchMapping("/{id}/status")
@@ -0,0 +1,26 @@
+package com.ecommerce.order.controller;
+
+import com.ecommerce.order.service.OrderHistoryProjector;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "orderhistory")
+public class OrderHistoryEndpoint {
+
+    private final OrderHistoryProjector projector;
+
+    public OrderHistoryEndpoint(OrderHistoryProjector projector) {
+        this.projector = projector;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        long replayed = projector.rebuild();
+        return Map.of("status", "REBUILT", "events", replayed, "timestamp", OffsetDateTime.now().toString());
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.order.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/profile?minutes=5&frame=OrderService.createOrder} summarizes the rolling
+ * recording as JSON; {@code GET /actuator/profile/jfr?minutes=5} downloads it for JDK Mission Control.
+ */
+@Component
+@WebEndpoint(id = "profile")
+public class ProfilingEndpoint {
+
+    private static final int DEFAULT_MINUTES = 5;
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final ContinuousProfiler profiler;
+
+    public ProfilingEndpoint(ContinuousProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Map<String, Object>> summary(@Nullable Integer minutes, @Nullable Integer limit,
+                                                            @Nullable String frame) {
+        if (!profiler.isRunning()) {
+            return new WebEndpointResponse<>(Map.of("error", "Continuous profiling is not running"),
+                WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        Duration window = window(minutes);
+        try {
+            Path file = profiler.dump(window);
+            try {
+                return new WebEndpointResponse<>(ProfileSummary.summarize(file, Instant.now().minus(window), frame,
+                    limit != null ? limit : DEFAULT_LIMIT));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            return new WebEndpointResponse<>(Map.of("error", String.valueOf(e.getMessage())),
+                WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Selector String format, @Nullable Integer minutes) throws IOException {
+        if (!"jfr".equals(format)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (!profiler.isRunning()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(profiler.dump(window(minutes))));
+    }
+
+    private Duration window(@Nullable Integer minutes) {
+        Duration window = Duration.ofMinutes(minutes != null && minutes > 0 ? minutes : DEFAULT_MINUTES);
+        return window.compareTo(profiler.getMaxAge()) > 0 ? profiler.getMaxAge() : window;
+    }
+
+    /** Deletes the dump once the response has been streamed. */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Forces streaming through getInputStream rather than a zero-copy transfer that skips close()
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.order.dto;
 
 import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderHistoryEntry;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -42,5 +43,18 @@ public class OrderDTO implements Serializable {
         dto.setCreatedAt(order.getCreatedAt());
         return dto;
     }
+    
+    public static OrderDTO fromHistory(OrderHistoryEntry entry, List<OrderItemDTO> items) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(entry.getOrderId());
+        dto.setUserId(entry.getUserId());
+        dto.setOrderItems(items);
+        dto.setTotalAmount(entry.getTotalAmount());
+        dto.setShippingAddress(entry.getShippingAddress());
+        dto.setBillingAddress(entry.getBillingAddress());
+        dto.setStatus(entry.getStatus());
+        dto.setPaymentStatus(entry.getPaymentStatus());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
 }
-
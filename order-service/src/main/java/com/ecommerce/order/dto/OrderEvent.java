@@ -0,0 +1,31 @@
+package com.ecommerce.order.dto;
+
+import com.ecommerce.order.entity.Order;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order payload as published on order-events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderEvent {
+    private Long id;
+    private Long userId;
+    private List<OrderItemDTO> orderItems;
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private String billingAddress;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@code payment.reconciled} event from payment-service: the status of the latest payment of an order.
+ * {@code status} is payment-service's PaymentStatus name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCorrectionEvent {
+    private Long paymentId;
+    private Long orderId;
+    private String transactionId;
+    private String status;
+    private LocalDateTime paymentUpdatedAt;
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized order-history row, one per order, maintained from order-events.
+ * Items are kept inline as JSON so a history page is a single index range scan.
+ */
+@Entity
+@Table(name = "order_history", indexes = {
+    @Index(name = "idx_order_history_user_created", columnList = "userId, createdAt DESC, orderId DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryEntry {
+    @Id
+    private Long orderId;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private String billingAddress;
+    
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    private Order.PaymentStatus paymentStatus;
+    
+    private Integer itemCount;
+    
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String itemsJson;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    /** Order version this row reflects; older events are ignored. */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.order.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sheds load with 503 once in-flight requests reach the adaptive limit, instead of letting Tomcat
+ * queue them until callers time out. Requests matching {@code concurrency.limit.high-priority} may
+ * use the whole limit, {@code low-priority} ones only part of it; rules are {@code "METHOD /pattern"}
+ * or {@code "/pattern"}. Actuator endpoints are never limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "concurrency.limit.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final List<PriorityRule> highPriority;
+    private final List<PriorityRule> lowPriority;
+
+    public AdaptiveConcurrencyFilter(MeterRegistry registry,
+            @Value("${concurrency.limit.initial-limit:50}") int initialLimit,
+            @Value("${concurrency.limit.min-limit:10}") int minLimit,
+            @Value("${concurrency.limit.max-limit:200}") int maxLimit,
+            @Value("${concurrency.limit.window-ms:200}") long windowMs,
+            @Value("${concurrency.limit.high-priority:}") String highPriority,
+            @Value("${concurrency.limit.low-priority:GET /**}") String lowPriority) {
+        this.limiter = new AdaptiveConcurrencyLimiter(registry, initialLimit, minLimit, maxLimit, windowMs);
+        this.highPriority = PriorityRule.parse(highPriority);
+        this.lowPriority = PriorityRule.parse(lowPriority);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire(priorityOf(request))) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sampled = false;
+        try {
+            filterChain.doFilter(request, response);
+            sampled = response.getStatus() < 500;
+        } finally {
+            limiter.release(sampled ? System.nanoTime() - start : -1);
+        }
+    }
+
+    AdaptiveConcurrencyLimiter.Priority priorityOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        if (PriorityRule.anyMatch(highPriority, method, path)) {
+            return AdaptiveConcurrencyLimiter.Priority.HIGH;
+        }
+        if (PriorityRule.anyMatch(lowPriority, method, path)) {
+            return AdaptiveConcurrencyLimiter.Priority.LOW;
+        }
+        return AdaptiveConcurrencyLimiter.Priority.NORMAL;
+    }
+
+    static final class PriorityRule {
+        private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+        private final String method;
+        private final String pattern;
+
+        private PriorityRule(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+        }
+
+        static List<PriorityRule> parse(String rules) {
+            return Arrays.stream(rules.split(","))
+                .map(String::trim)
+                .filter(rule -> !rule.isEmpty())
+                .map(rule -> {
+                    int space = rule.indexOf(' ');
+                    return space < 0
+                        ? new PriorityRule(null, rule)
+                        : new PriorityRule(rule.substring(0, space).toUpperCase(), rule.substring(space + 1).trim());
+                })
+                .collect(Collectors.toList());
+        }
+
+        static boolean anyMatch(List<PriorityRule> rules, String method, String path) {
+            for (PriorityRule rule : rules) {
+                if ((rule.method == null || rule.method.equals(method)) && MATCHER.match(rule.pattern, path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.ecommerce.order.filter;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses response bodies with the best encoding the caller accepts: brotli when the native
+ * brotli4j library loads on this platform, otherwise gzip. Used instead of Tomcat's
+ * {@code server.compression} so the bytes saved and the CPU time spent can be recorded
+ * ({@code http_compression_*}).
+ * <p>
+ * The decision is made when the body is first written, from the status, content type and declared
+ * length set by then. Other media types, responses that are already encoded, and bodies declared
+ * shorter than {@code compression.min-response-size} are written straight through. Compressible
+ * bodies are compressed as they are written; only one of unknown length is held back, for at most
+ * {@code min-response-size} bytes, so that a small one still goes out uncompressed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "compression.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final MeterRegistry registry;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final int gzipLevel;
+    private final Encoder.Parameters brotliParameters;
+    private final boolean brotliAvailable;
+
+    public ResponseCompressionFilter(MeterRegistry registry,
+            @Value("${compression.min-response-size:2048}") int minResponseSize,
+            @Value("${compression.mime-types:application/json,application/problem+json,text/plain}") String mimeTypes,
+            @Value("${compression.gzip-level:6}") int gzipLevel,
+            @Value("${compression.brotli.enabled:true}") boolean brotliEnabled,
+            @Value("${compression.brotli.quality:4}") int brotliQuality) {
+        this.registry = registry;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = MediaType.parseMediaTypes(mimeTypes);
+        this.gzipLevel = gzipLevel;
+        this.brotliParameters = new Encoder.Parameters().setQuality(brotliQuality);
+        this.brotliAvailable = brotliEnabled && Brotli4jLoader.isAvailable();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CompressingResponse wrapper = new CompressingResponse(response, encoding);
+        filterChain.doFilter(request, wrapper);
+        wrapper.finish();
+    }
+
+    /**
+     * Picks brotli or gzip from an {@code Accept-Encoding} header, or null for identity. {@code *}
+     * stands for any coding the header does not name, so it never overrides an explicit
+     * {@code q=0}.
+     */
+    String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Double brotli = null;
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case "br" -> brotli = quality;
+                case "gzip" -> gzip = quality;
+                case "*" -> any = quality;
+                default -> { }
+            }
+        }
+        double brotliQuality = brotli != null ? brotli : any != null ? any : 0;
+        double gzipQuality = gzip != null ? gzip : any != null ? any : 0;
+        if (brotliAvailable && brotliQuality > 0 && brotliQuality >= gzipQuality) {
+            return "br";
+        }
+        return gzipQuality > 0 ? "gzip" : null;
+    }
+
+    private boolean compressible(HttpServletResponse response) {
+        if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                || response.getStatus() == HttpServletResponse.SC_NO_CONTENT
+                || response.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+            return false;
+        }
+        String contentType = response.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(type -> type.includes(mediaType));
+    }
+
+    private void record(String encoding, long originalBytes, long compressedBytes, long cpuNanos) {
+        registry.counter("http_compression_responses_total", "encoding", encoding).increment();
+        registry.counter("http_compression_original_bytes_total", "encoding", encoding).increment(originalBytes);
+        registry.counter("http_compression_compressed_bytes_total", "encoding", encoding).increment(compressedBytes);
+        registry.counter("http_compression_cpu_seconds_total", "encoding", encoding).increment(cpuNanos / 1e9);
+    }
+
+    private enum State { UNDECIDED, PASS_THROUGH, HOLDING, COMPRESSING }
+
+    /**
+     * Holds back the declared Content-Length until it is known whether the body will be compressed,
+     * and routes body writes through {@link CompressingStream}.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final String encoding;
+        private final CompressingStream stream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        CompressingResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+            this.stream = new CompressingStream(this);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (stream.state == State.PASS_THROUGH) {
+                super.setContentLengthLong(len);
+            } else {
+                contentLength = len;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream.state == State.PASS_THROUGH || stream.state == State.COMPRESSING) {
+                stream.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            stream.discardHeldBytes();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            stream.discardHeldBytes();
+            contentLength = -1;
+            super.reset();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            stream.finish();
+        }
+    }
+
+    private final class CompressingStream extends ServletOutputStream {
+        private final CompressingResponse response;
+        private State state = State.UNDECIDED;
+        private ByteArrayOutputStream held;
+        private CountingStream compressed;
+        private OutputStream encoder;
+        private long originalBytes;
+        private long cpuNanos;
+
+        CompressingStream(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (state == State.UNDECIDED) {
+                decide();
+            }
+            switch (state) {
+                case PASS_THROUGH -> raw().write(b, off, len);
+                case HOLDING -> {
+                    held.write(b, off, len);
+                    if (held.size() >= minResponseSize) {
+                        startCompressing();
+                    }
+                }
+                case COMPRESSING -> compress(b, off, len);
+                default -> throw new IllegalStateException(state.name());
+            }
+        }
+
+        // While bytes are held back a flush is ignored: flushing them would decide against compressing
+        @Override
+        public void flush() throws IOException {
+            if (state == State.PASS_THROUGH) {
+                raw().flush();
+            } else if (state == State.COMPRESSING) {
+                encoder.flush();
+                raw().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Non-blocking writes are not compressed");
+        }
+
+        private void decide() throws IOException {
+            long declared = response.contentLength;
+            if (!compressible(response) || declared >= 0 && declared < minResponseSize) {
+                passThrough();
+            } else if (declared >= 0) {
+                held = new ByteArrayOutputStream(0);
+                startCompressing();
+            } else {
+                state = State.HOLDING;
+                held = new ByteArrayOutputStream(minResponseSize);
+            }
+        }
+
+        private void passThrough() {
+            state = State.PASS_THROUGH;
+            if (response.contentLength >= 0) {
+                ((HttpServletResponse) response.getResponse()).setContentLengthLong(response.contentLength);
+            }
+        }
+
+        private void startCompressing() throws IOException {
+            state = State.COMPRESSING;
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, response.encoding);
+            compressed = new CountingStream(raw());
+            encoder = "br".equals(response.encoding)
+                ? new BrotliOutputStream(compressed, brotliParameters)
+                : new GZIPOutputStream(compressed) {
+                    {
+                        def.setLevel(gzipLevel);
+                    }
+                };
+            byte[] pending = held.toByteArray();
+            held = null;
+            compress(pending, 0, pending.length);
+        }
+
+        private void compress(byte[] b, int off, int len) throws IOException {
+            long cpuStart = THREADS.getCurrentThreadCpuTime();
+            encoder.write(b, off, len);
+            cpuNanos += THREADS.getCurrentThreadCpuTime() - cpuStart;
+            originalBytes += len;
+        }
+
+        void discardHeldBytes() {
+            if (held != null) {
+                held.reset();
+            }
+        }
+
+        void finish() throws IOException {
+            switch (state) {
+                case UNDECIDED -> passThrough();
+                case HOLDING -> {
+                    passThrough();
+                    response.getResponse().setContentLength(held.size());
+                    held.writeTo(raw());
+                }
+                case COMPRESSING -> {
+                    long cpuStart = THREADS.getCurrentThreadCpuTime();
+                    encoder.close();
+                    cpuNanos += THREADS.getCurrentThreadCpuTime() - cpuStart;
+                    record(response.encoding, originalBytes, compressed.count, cpuNanos);
+                }
+                default -> { }
+            }
+        }
+
+        private OutputStream raw() throws IOException {
+            return response.getResponse().getOutputStream();
+        }
+    }
+
+    // Counts the compressed bytes; closing the encoder must not close the servlet stream
+    private static final class CountingStream extends FilterOutputStream {
+        private long count;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.order.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Executes a create operation at most once per {@code Idempotency-Key}.
+ * <p>
+ * The first request claims the key with a short-lived in-flight marker, runs the operation and stores
+ * the response body for {@code idempotency.response-ttl}. Retries with the same key and body get the
+ * stored response; concurrent duplicates poll until the first execution finishes (409 if it does not
+ * within {@code idempotency.wait-timeout}). Reusing a key with a different body is rejected with 422.
+ * A failed execution releases the key so the client can retry.
+ * <p>
+ * The marker carries a token unique to the claiming request and is renewed every third of
+ * {@code idempotency.lock-ttl} while the operation runs, so a slow operation keeps its key. Completing
+ * and releasing only succeed while the key still holds that marker, so a request never overwrites or
+ * deletes a key another request has since claimed. Once the operation has succeeded its response is
+ * returned even if it cannot be stored.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String KEY_PREFIX = "idempotency:order-service:";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long INITIAL_POLL_MS = 20;
+    private static final long MAX_POLL_MS = 250;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration lockTtl;
+    private final Duration responseTtl;
+    private final Duration waitTimeout;
+    private final ScheduledExecutorService renewals;
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper objectMapper,
+            @Value("${idempotency.lock-ttl:30s}") Duration lockTtl,
+            @Value("${idempotency.response-ttl:24h}") Duration responseTtl,
+            @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.lockTtl = lockTtl;
+        this.responseTtl = responseTtl;
+        this.waitTimeout = waitTimeout;
+        this.renewals = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        renewals.shutdownNow();
+    }
+
+    /**
+     * Runs {@code operation} unless {@code idempotencyKey} was already used for the same request. A
+     * missing key runs the operation unconditionally.
+     */
+    public <T> Outcome<T> execute(String idempotencyKey, Object request, Class<T> responseType, Supplier<T> operation) {
+        if (idempotencyKey == null) {
+            return new Outcome<>(operation.get(), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String key = KEY_PREFIX + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pollMs = INITIAL_POLL_MS;
+
+        while (true) {
+            String claim = write(new StoredResponse(false, fingerprint, null, UUID.randomUUID().toString()));
+            if (store.putIfAbsent(key, claim, lockTtl)) {
+                return new Outcome<>(runAndStore(key, claim, fingerprint, operation), false);
+            }
+            String existing = store.get(key);
+            if (existing != null) {
+                StoredResponse stored = read(existing);
+                if (!fingerprint.equals(stored.getFingerprint())) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+                }
+                if (stored.isCompleted()) {
+                    return new Outcome<>(readBody(stored.getBody(), responseType), true);
+                }
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still being processed");
+            }
+            sleep(pollMs);
+            pollMs = Math.min(pollMs * 2, MAX_POLL_MS);
+        }
+    }
+
+    private <T> T runAndStore(String key, String claim, String fingerprint, Supplier<T> operation) {
+        long renewMs = Math.max(1, lockTtl.toMillis() / 3);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ScheduledFuture<?> renewal = renewals.scheduleAtFixedRate(() -> renew(key, claim, running), renewMs, renewMs,
+            TimeUnit.MILLISECONDS);
+        T response;
+        try {
+            response = operation.get();
+        } catch (RuntimeException e) {
+            running.set(false);
+            renewal.cancel(false);
+            try {
+                store.compareAndDelete(key, claim);
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+        running.set(false);
+        renewal.cancel(false);
+        try {
+            if (!store.compareAndSet(key, claim, write(new StoredResponse(true, fingerprint, write(response), null)),
+                    responseTtl)) {
+                log.warn("Idempotency key {} was no longer held when its response was stored; retries will not replay it",
+                    key);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not store the response for idempotency key {}; retries will not replay it", key, e);
+        }
+        return response;
+    }
+
+    private void renew(String key, String claim, AtomicBoolean running) {
+        try {
+            // A renewal racing the completion finds the stored response instead of the claim
+            if (!store.compareAndSet(key, claim, claim, lockTtl) && running.get()) {
+                log.warn("Lost the in-flight claim on idempotency key {} before the operation finished", key);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not renew idempotency key {}: {}", key, e.toString());
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to fingerprint request", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize idempotent response", e);
+        }
+    }
+
+    private StoredResponse read(String value) {
+        return readBody(value, StoredResponse.class);
+    }
+
+    private <T> T readBody(String value, Class<T> type) {
+        try {
+            return objectMapper.readValue(value, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read stored idempotent response", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for duplicate request");
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class StoredResponse {
+        private boolean completed;
+        private String fingerprint;
+        private String body;
+        // Identifies the request holding an in-flight claim
+        private String owner;
+    }
+
+    public static final class Outcome<T> {
+        private final T body;
+        private final boolean replayed;
+
+        Outcome(T body, boolean replayed) {
+            this.body = body;
+            this.replayed = replayed;
+        }
+
+        public T getBody() {
+            return body;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
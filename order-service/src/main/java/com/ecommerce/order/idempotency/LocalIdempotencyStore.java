@@ -0,0 +1,83 @@
+package com.ecommerce.order.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for {@link RedisIdempotencyStore} ({@code idempotency.store: local}), for local
+ * runs without Redis. Only deduplicates retries that land on the same instance.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "local")
+public class LocalIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public LocalIdempotencyStore(@Value("${idempotency.local.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+        }
+        Entry fresh = new Entry(value, expiry(ttl));
+        Entry winner = entries.compute(key, (k, existing) -> existing == null || existing.isExpired() ? fresh : existing);
+        return winner == fresh;
+    }
+
+    @Override
+    public String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public boolean compareAndSet(String key, String expected, String value, Duration ttl) {
+        Entry fresh = new Entry(value, expiry(ttl));
+        Entry result = entries.computeIfPresent(key,
+            (k, existing) -> !existing.isExpired() && existing.value.equals(expected) ? fresh : existing);
+        return result == fresh;
+    }
+
+    @Override
+    public void compareAndDelete(String key, String expected) {
+        entries.computeIfPresent(key, (k, existing) -> existing.value.equals(expected) ? null : existing);
+    }
+
+    private void purgeExpired() {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired());
+    }
+
+    private static long expiry(Duration ttl) {
+        return System.currentTimeMillis() + ttl.toMillis();
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.order.idempotency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "redis", matchIfMissing = true)
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final RedisScript<Long> COMPARE_AND_SET = RedisScript.of(
+        "if redis.call('GET', KEYS[1]) ~= ARGV[1] then\n"
+        + "  return 0\n"
+        + "end\n"
+        + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])\n"
+        + "return 1\n",
+        Long.class);
+
+    private static final RedisScript<Long> COMPARE_AND_DELETE = RedisScript.of(
+        "if redis.call('GET', KEYS[1]) ~= ARGV[1] then\n"
+        + "  return 0\n"
+        + "end\n"
+        + "return redis.call('DEL', KEYS[1])\n",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, ttl));
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public boolean compareAndSet(String key, String expected, String value, Duration ttl) {
+        Long replaced = redisTemplate.execute(COMPARE_AND_SET, List.of(key), expected, value,
+            Long.toString(ttl.toMillis()));
+        return replaced != null && replaced == 1L;
+    }
+
+    @Override
+    public void compareAndDelete(String key, String expected) {
+        redisTemplate.execute(COMPARE_AND_DELETE, List.of(key), expected);
+    }
+}
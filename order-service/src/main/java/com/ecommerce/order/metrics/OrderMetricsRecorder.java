@@ -1,25 +1,40 @@
 package com.ecommerce.order.metrics;
 
+import com.ecommerce.order.entity.Order;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Component
 public class OrderMetricsRecorder {
 
     private final Counter ordersCreated;
-    private final Counter statusUpdates;
-    private final Counter paymentUpdates;
+    private final Map<Order.OrderStatus, Counter> statusUpdates = new EnumMap<>(Order.OrderStatus.class);
+    private final Map<Order.PaymentStatus, Counter> paymentUpdates = new EnumMap<>(Order.PaymentStatus.class);
+    private final Counter paymentCorrections;
 
     public OrderMetricsRecorder(MeterRegistry registry) {
         this.ordersCreated = Counter.builder("orders_created_total")
             .description("Total orders created")
             .register(registry);
-        this.statusUpdates = Counter.builder("order_status_updates_total")
-            .description("Order status update operations")
-            .register(registry);
-        this.paymentUpdates = Counter.builder("order_payment_updates_total")
-            .description("Order payment status update operations")
+        // One counter per status, registered up front so recording is a plain map lookup
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            statusUpdates.put(status, Counter.builder("order_status_updates_total")
+                .description("Order status update operations")
+                .tag("status", status.name())
+                .register(registry));
+        }
+        for (Order.PaymentStatus status : Order.PaymentStatus.values()) {
+            paymentUpdates.put(status, Counter.builder("order_payment_updates_total")
+                .description("Order payment status update operations")
+                .tag("status", status.name())
+                .register(registry));
+        }
+        this.paymentCorrections = Counter.builder("order_payment_corrections_total")
+            .description("Order payment statuses corrected by payment reconciliation")
             .register(registry);
     }
 
@@ -27,13 +42,15 @@ public class OrderMetricsRecorder {
         ordersCreated.increment();
     }
 
-    public void recordStatusChange(String status) {
-        statusUpdates.increment();
+    public void recordStatusChange(Order.OrderStatus status) {
+        statusUpdates.get(status).increment();
     }
 
-    public void recordPaymentStatusChange(String status) {
-        paymentUpdates.increment();
+    public void recordPaymentStatusChange(Order.PaymentStatus status) {
+        paymentUpdates.get(status).increment();
     }
-}
-
 
+    public void recordPaymentCorrection() {
+        paymentCorrections.increment();
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.order.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves caches for {@code @Cacheable}/{@code @CacheEvict} like the default resolver, but wraps each
+ * one so the time spent in cache reads and writes is added to the current operation's
+ * {@link OperationTimings}. Only the annotation path is wrapped; the CacheManager bean itself is left
+ * alone so cache metrics and the actuator caches endpoint still see the real caches.
+ */
+public class TimedCacheResolver implements CacheResolver {
+
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final Map<String, TimedCache> caches = new ConcurrentHashMap<>();
+
+    public TimedCacheResolver(ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<String> names = context.getOperation().getCacheNames();
+        List<Cache> resolved = new ArrayList<>(names.size());
+        for (String name : names) {
+            resolved.add(timed(name, context));
+        }
+        return resolved;
+    }
+
+    private Cache timed(String name, CacheOperationInvocationContext<?> context) {
+        TimedCache timed = caches.get(name);
+        if (timed != null) {
+            return timed;
+        }
+        Cache cache = cacheManager.getObject().getCache(name);
+        if (cache == null) {
+            throw new IllegalArgumentException("Cannot find cache named '" + name + "' for " + context.getOperation());
+        }
+        return caches.computeIfAbsent(name, key -> new TimedCache(cache));
+    }
+
+    private static final class TimedCache implements Cache {
+        private final Cache delegate;
+
+        TimedCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            long start = System.nanoTime();
+            try {
+                return delegate.get(key);
+            } finally {
+                record(start);
+            }
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            long start = System.nanoTime();
+            try {
+                return delegate.get(key, type);
+            } finally {
+                record(start);
+            }
+        }
+
+        // The loader runs the cached method itself, so timing this call would count its database
+        // work as cache time
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return delegate.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return delegate.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            long start = System.nanoTime();
+            try {
+                delegate.put(key, value);
+            } finally {
+                record(start);
+            }
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            long start = System.nanoTime();
+            try {
+                return delegate.putIfAbsent(key, value);
+            } finally {
+                record(start);
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            long start = System.nanoTime();
+            try {
+                delegate.evict(key);
+            } finally {
+                record(start);
+            }
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            long start = System.nanoTime();
+            try {
+                return delegate.evictIfPresent(key);
+            } finally {
+                record(start);
+            }
+        }
+
+        @Override
+        public void clear() {
+            long start = System.nanoTime();
+            try {
+                delegate.clear();
+            } finally {
+                record(start);
+            }
+        }
+
+        @Override
+        public boolean invalidate() {
+            long start = System.nanoTime();
+            try {
+                return delegate.invalidate();
+            } finally {
+                record(start);
+            }
+        }
+
+        private static void record(long start) {
+            OperationTimings.add(OperationTimings.Dependency.CACHE, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.entity.OrderHistoryEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderHistoryRepository extends JpaRepository<OrderHistoryEntry, Long> {
+    List<OrderHistoryEntry> findByUserIdOrderByCreatedAtDescOrderIdDesc(Long userId, Pageable pageable);
+}
@@ -0,0 +1,195 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.dto.OrderItemDTO;
+import com.ecommerce.order.entity.OrderHistoryEntry;
+import com.ecommerce.order.repository.OrderHistoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-user order history read model from order-events.
+ * <p>
+ * order-events are keyed by event type, so events for one order may arrive out of order across
+ * partitions; each row keeps the {@code updatedAt} of the order version it reflects and older events
+ * are dropped. {@link #rebuild()} pauses the listener, clears the table and replays every partition of
+ * the topic, not just the ones assigned to this instance, before resuming.
+ */
+@Service
+public class OrderHistoryProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderHistoryProjector.class);
+
+    static final String LISTENER_ID = "order-history";
+    private static final String TOPIC = "order-events";
+    private static final String REBUILD_GROUP = "order-service-history-rebuild";
+    private static final Duration PAUSE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private static final Set<String> ORDER_EVENTS = Set.of(
+        "order.created", "order.status.updated", "order.payment.updated");
+
+    private final OrderHistoryRepository historyRepository;
+    private final ObjectMapper objectMapper;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderHistoryProjector(OrderHistoryRepository historyRepository, ObjectMapper objectMapper,
+                                 KafkaListenerEndpointRegistry listenerRegistry,
+                                 ConsumerFactory<String, String> consumerFactory,
+                                 PlatformTransactionManager transactionManager) {
+        this.historyRepository = historyRepository;
+        this.objectMapper = objectMapper;
+        this.listenerRegistry = listenerRegistry;
+        this.consumerFactory = consumerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = TOPIC, groupId = "order-service-history-group",
+        properties = "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer")
+    @Transactional
+    public void handleOrderEvent(ConsumerRecord<String, String> record) {
+        project(record.key(), record.value(), record.offset());
+    }
+
+    private void project(String key, String value, long offset) {
+        if (!ORDER_EVENTS.contains(key)) {
+            return;
+        }
+        OrderEvent event;
+        try {
+            event = objectMapper.readValue(value, OrderEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable order event {} at offset {}: {}", key, offset, e.getMessage());
+            return;
+        }
+        if (event.getId() == null || event.getUserId() == null) {
+            return;
+        }
+        apply(event);
+    }
+
+    void apply(OrderEvent event) {
+        OrderHistoryEntry entry = historyRepository.findById(event.getId()).orElse(null);
+        if (entry != null && entry.getUpdatedAt() != null && event.getUpdatedAt() != null
+                && event.getUpdatedAt().isBefore(entry.getUpdatedAt())) {
+            return;
+        }
+        if (entry == null) {
+            entry = new OrderHistoryEntry();
+            entry.setOrderId(event.getId());
+        }
+        List<OrderItemDTO> items = event.getOrderItems() != null ? event.getOrderItems() : Collections.emptyList();
+        entry.setUserId(event.getUserId());
+        entry.setTotalAmount(event.getTotalAmount());
+        entry.setShippingAddress(event.getShippingAddress());
+        entry.setBillingAddress(event.getBillingAddress());
+        entry.setStatus(event.getStatus());
+        entry.setPaymentStatus(event.getPaymentStatus());
+        entry.setItemCount(items.size());
+        entry.setItemsJson(writeItems(items));
+        entry.setCreatedAt(event.getCreatedAt());
+        entry.setUpdatedAt(event.getUpdatedAt());
+        historyRepository.save(entry);
+    }
+
+    /**
+     * Drops the read model and rebuilds it from the full event history. This instance's listener is
+     * paused first so it cannot write into the table mid-rebuild; listeners on other instances keep
+     * applying new events, which the version check reconciles with the replay.
+     *
+     * @return the number of events replayed
+     */
+    public synchronized long rebuild() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        boolean pause = container != null && container.isRunning();
+        if (pause) {
+            pause(container);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> historyRepository.deleteAllInBatch());
+            long replayed = replay();
+            log.info("Order history read model rebuilt from {} order-events", replayed);
+            return replayed;
+        } finally {
+            if (pause) {
+                container.resume();
+            }
+        }
+    }
+
+    private void pause(MessageListenerContainer container) {
+        container.pause();
+        long deadline = System.nanoTime() + PAUSE_TIMEOUT.toNanos();
+        while (!container.isContainerPaused()) {
+            if (System.nanoTime() > deadline) {
+                container.resume();
+                throw new IllegalStateException("Order history listener did not pause within " + PAUSE_TIMEOUT);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                container.resume();
+                throw new IllegalStateException("Interrupted while pausing the order history listener", e);
+            }
+        }
+    }
+
+    /**
+     * Reads every partition from the beginning up to the end offsets as of now, with a consumer of its
+     * own that commits nothing, so the listener's group offsets are left alone.
+     */
+    private long replay() {
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(REBUILD_GROUP, null, null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(TOPIC).stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .collect(Collectors.toList());
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            long replayed = 0;
+            while (partitions.stream().anyMatch(tp -> consumer.position(tp) < endOffsets.get(tp))) {
+                ConsumerRecords<String, String> records = consumer.poll(POLL_TIMEOUT);
+                transactionTemplate.executeWithoutResult(status ->
+                    records.forEach(record -> project(record.key(), record.value(), record.offset())));
+                replayed += records.count();
+            }
+            return replayed;
+        }
+    }
+
+    private String writeItems(List<OrderItemDTO> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize order items", e);
+        }
+    }
+}
@@ -4,10 +4,18 @@ import com.ecommerce.order.dto.*;
 import com.ecommerce.order.entity.Order;
 import com.ecommerce.order.entity.OrderItem;
 import com.ecommerce.order.metrics.OrderMetricsRecorder;
+import com.ecommerce.order.entity.OrderHistoryEntry;
+import com.ecommerce.order.repository.OrderHistoryRepository;
 import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -16,37 +24,56 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
     
     private final OrderRepository orderRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final OrderMetricsRecorder metricsRecorder;
+    private final OrderHistoryRepository historyRepository;
+    private final ObjectMapper objectMapper;
+    
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final TypeReference<List<OrderItemDTO>> ITEM_LIST = new TypeReference<>() {};
     
     public OrderService(OrderRepository orderRepository, KafkaTemplate<String, Object> kafkaTemplate,
-                        OrderMetricsRecorder metricsRecorder) {
+                        OrderMetricsRecorder metricsRecorder, OrderHistoryRepository historyRepository,
+                        ObjectMapper objectMapper) {
         this.orderRepository = orderRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.metricsRecorder = metricsRecorder;
+        this.historyRepository = historyRepository;
+        this.objectMapper = objectMapper;
     }
     
     @Cacheable(value = "orders", key = "#id")
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found with id: " + id));
         return OrderDTO.fromEntity(order);
     }
     
-    public List<OrderDTO> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
-            .map(OrderDTO::fromEntity)
+    /**
+     * Newest-first page of a user's orders, served from the order_history read model rather than
+     * the orders/order_items write tables. Reflects order-events with a short propagation delay.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersByUserId(Long userId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE));
+        return historyRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(userId, pageRequest).stream()
+            .map(entry -> OrderDTO.fromHistory(entry, readItems(entry)))
             .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getAllOrders() {
         return orderRepository.findAll().stream()
             .map(OrderDTO::fromEntity)
@@ -96,8 +123,9 @@ public class OrderService {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found with id: " + id));
         order.setStatus(status);
-        Order updatedOrder = orderRepository.save(order);
-        metricsRecorder.recordStatusChange(status.name());
+        // Flush so updatedAt is current in the event; the history projection orders events by it.
+        Order updatedOrder = orderRepository.saveAndFlush(order);
+        metricsRecorder.recordStatusChange(status);
         
         // Publish order status updated event
         kafkaTemplate.send("order-events", "order.status.updated", updatedOrder);
@@ -116,8 +144,8 @@ public class OrderService {
             order.setStatus(Order.OrderStatus.CONFIRMED);
         }
         
-        Order updatedOrder = orderRepository.save(order);
-        metricsRecorder.recordPaymentStatusChange(paymentStatus.name());
+        Order updatedOrder = orderRepository.saveAndFlush(order);
+        metricsRecorder.recordPaymentStatusChange(paymentStatus);
         
         // Publish payment status updated event
         kafkaTemplate.send("order-events", "order.payment.updated", updatedOrder);
@@ -125,10 +153,21 @@ public class OrderService {
         return OrderDTO.fromEntity(updatedOrder);
     }
     
+    private List<OrderItemDTO> readItems(OrderHistoryEntry entry) {
+        if (entry.getItemsJson() == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(entry.getItemsJson(), ITEM_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt order history items for order " + entry.getOrderId(), e);
+        }
+    }
+    
     @KafkaListener(topics = "payment-events", groupId = "order-service-group")
     public void handlePaymentEvent(String event) {
         // Handle payment events from payment service
-        System.out.println("Received payment event: " + event);
+        log.debug("Received payment event: {}", event);
     }
 }
 
@@ -0,0 +1,83 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.PaymentCorrectionEvent;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.metrics.OrderMetricsRecorder;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies payment-service reconciliation results: an order whose paymentStatus disagrees with its
+ * latest payment is corrected through {@link OrderService#updatePaymentStatus}, which also publishes
+ * the usual order.payment.updated event. Matching orders are left untouched, so replays are harmless.
+ */
+@Service
+public class PaymentCorrectionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentCorrectionListener.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final OrderMetricsRecorder metricsRecorder;
+    private final ObjectMapper objectMapper;
+
+    public PaymentCorrectionListener(OrderRepository orderRepository, OrderService orderService,
+                                     OrderMetricsRecorder metricsRecorder, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.metricsRecorder = metricsRecorder;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topics = "payment-events", groupId = "order-service-reconciliation-group",
+        properties = "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer")
+    public void handlePaymentEvent(ConsumerRecord<String, String> record) {
+        if (!"payment.reconciled".equals(record.key())) {
+            return;
+        }
+        PaymentCorrectionEvent event;
+        try {
+            event = objectMapper.readValue(record.value(), PaymentCorrectionEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable payment correction at offset {}: {}", record.offset(), e.getMessage());
+            return;
+        }
+        Order.PaymentStatus expected = toOrderPaymentStatus(event.getStatus());
+        if (event.getOrderId() == null || expected == null) {
+            return;
+        }
+        orderRepository.findById(event.getOrderId()).ifPresent(order -> {
+            if (order.getPaymentStatus() != expected) {
+                log.info("Correcting payment status of order {} from {} to {} (payment {})",
+                    order.getId(), order.getPaymentStatus(), expected, event.getPaymentId());
+                orderService.updatePaymentStatus(order.getId(), expected);
+                metricsRecorder.recordPaymentCorrection();
+            }
+        });
+    }
+
+    static Order.PaymentStatus toOrderPaymentStatus(String paymentStatus) {
+        if (paymentStatus == null) {
+            return null;
+        }
+        switch (paymentStatus) {
+            case "COMPLETED":
+                return Order.PaymentStatus.PAID;
+            case "FAILED":
+                return Order.PaymentStatus.FAILED;
+            case "REFUNDED":
+                return Order.PaymentStatus.REFUNDED;
+            case "PENDING":
+            case "PROCESSING":
+                return Order.PaymentStatus.PENDING;
+            default:
+                return null;
+        }
+    }
+}
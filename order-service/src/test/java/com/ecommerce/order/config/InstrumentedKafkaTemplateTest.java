@@ -0,0 +1,84 @@
+package com.ecommerce.order.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedKafkaTemplateTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockProducer<String, String> producer =
+        new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+
+    @Test
+    void acknowledgedSendIsTimedAndReleasesItsPermit() {
+        InstrumentedKafkaTemplate<String, String> template = template(10, Duration.ofMillis(10));
+
+        CompletableFuture<SendResult<String, String>> future = template.send("order-events", "order.created", "{}");
+
+        assertEquals(1.0, registry.get("kafka_publish_in_flight").gauge().value());
+        producer.completeNext();
+        assertTrue(future.isDone());
+        assertEquals(0.0, registry.get("kafka_publish_in_flight").gauge().value());
+        assertEquals(1, registry.get("kafka_publish_latency")
+            .tags("topic", "order-events", "result", "success").timer().count());
+    }
+
+    @Test
+    void failedAcknowledgementIsCountedAsAnError() {
+        InstrumentedKafkaTemplate<String, String> template = template(10, Duration.ofMillis(10));
+
+        CompletableFuture<SendResult<String, String>> future = template.send("order-events", "order.created", "{}");
+        producer.errorNext(new RuntimeException("not enough replicas"));
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(1.0, registry.get("kafka_publish_errors_total").tag("topic", "order-events").counter().count());
+        assertEquals(1, registry.get("kafka_publish_latency")
+            .tags("topic", "order-events", "result", "failure").timer().count());
+        assertEquals(0.0, registry.get("kafka_publish_in_flight").gauge().value());
+    }
+
+    @Test
+    void sendBeyondTheInFlightLimitFailsFastUntilAnAckArrives() {
+        InstrumentedKafkaTemplate<String, String> template = template(1, Duration.ofMillis(20));
+        template.send("order-events", "order.created", "{}");
+
+        assertThrows(KafkaException.class, () -> template.send("order-events", "order.created", "{}"));
+        assertEquals(1.0, registry.get("kafka_publish_rejected_total").counter().count());
+
+        producer.completeNext();
+        template.send("order-events", "order.created", "{}");
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    void profilesAreSelectedByName() {
+        assertEquals(KafkaProducerProfile.HIGH_THROUGHPUT, KafkaProducerProfile.fromName(" high-throughput "));
+        Map<String, Object> durable = KafkaProducerProfile.fromName("durable").settings();
+        assertEquals("all", durable.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, durable.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals("1", KafkaProducerProfile.HIGH_THROUGHPUT.settings().get(ProducerConfig.ACKS_CONFIG));
+    }
+
+    private InstrumentedKafkaTemplate<String, String> template(int maxInFlight, Duration inFlightWait) {
+        DefaultKafkaProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(Map.of()) {
+            @Override
+            protected Producer<String, String> createRawProducer(Map<String, Object> rawConfigs) {
+                return producer;
+            }
+        };
+        return new InstrumentedKafkaTemplate<>(producerFactory, registry, maxInFlight, inFlightWait);
+    }
+}
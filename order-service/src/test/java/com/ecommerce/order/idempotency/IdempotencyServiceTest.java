@@ -0,0 +1,200 @@
+package com.ecommerce.order.idempotency;
+
+import com.ecommerce.order.dto.CreateOrderRequest;
+import com.ecommerce.order.dto.OrderDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final IdempotencyService service = new IdempotencyService(new LocalIdempotencyStore(1000), objectMapper,
+        Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofSeconds(5));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retryWithTheSameKeyReplaysTheStoredResponse() {
+        IdempotencyService.Outcome<OrderDTO> first = service.execute("key-1", request("1 Main St"), OrderDTO.class,
+            this::createOrder);
+        IdempotencyService.Outcome<OrderDTO> retry = service.execute("key-1", request("1 Main St"), OrderDTO.class,
+            this::createOrder);
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        service.execute("key-2", request("1 Main St"), OrderDTO.class, this::createOrder);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> service.execute("key-2", request("2 Side St"), OrderDTO.class, this::createOrder));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void failedExecutionReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () -> service.execute("key-3", request("1 Main St"), OrderDTO.class,
+            () -> {
+                throw new IllegalStateException("database down");
+            }));
+
+        IdempotencyService.Outcome<OrderDTO> retry = service.execute("key-3", request("1 Main St"), OrderDTO.class,
+            this::createOrder);
+
+        assertFalse(retry.isReplayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyService.Outcome<OrderDTO>> first = CompletableFuture.supplyAsync(() ->
+            service.execute("key-4", request("1 Main St"), OrderDTO.class, () -> {
+                started.countDown();
+                await(release);
+                return createOrder();
+            }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<IdempotencyService.Outcome<OrderDTO>> duplicate = CompletableFuture.supplyAsync(() ->
+            service.execute("key-4", request("1 Main St"), OrderDTO.class, this::createOrder));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+        assertTrue(duplicate.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void duplicateGivesUpWithConflictWhileTheFirstIsStillRunning() throws Exception {
+        IdempotencyService impatient = new IdempotencyService(new LocalIdempotencyStore(1000), objectMapper,
+            Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> impatient.execute("key-5", request("1 Main St"), OrderDTO.class, () -> {
+            started.countDown();
+            await(release);
+            return createOrder();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> impatient.execute("key-5", request("1 Main St"), OrderDTO.class, this::createOrder));
+            assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void operationOutlivingTheLockTtlKeepsItsClaim() throws Exception {
+        IdempotencyService shortLock = new IdempotencyService(new LocalIdempotencyStore(1000), objectMapper,
+            Duration.ofMillis(150), Duration.ofHours(1), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyService.Outcome<OrderDTO>> slow = CompletableFuture.supplyAsync(() ->
+            shortLock.execute("key-7", request("1 Main St"), OrderDTO.class, () -> {
+                started.countDown();
+                await(release);
+                return createOrder();
+            }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(500);
+
+        CompletableFuture<IdempotencyService.Outcome<OrderDTO>> retry = CompletableFuture.supplyAsync(() ->
+            shortLock.execute("key-7", request("1 Main St"), OrderDTO.class, this::createOrder));
+        Thread.sleep(100);
+        assertFalse(retry.isDone());
+        release.countDown();
+
+        assertFalse(slow.get(5, TimeUnit.SECONDS).isReplayed());
+        assertTrue(retry.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1, executions.get());
+        shortLock.stop();
+    }
+
+    @Test
+    void responseIsReturnedWhenItCannotBeStored() {
+        LocalIdempotencyStore failingStore = new LocalIdempotencyStore(1000) {
+            @Override
+            public boolean compareAndSet(String key, String expected, String value, Duration ttl) {
+                if (value.contains("\"completed\":true")) {
+                    throw new IllegalStateException("redis down");
+                }
+                return super.compareAndSet(key, expected, value, ttl);
+            }
+        };
+        IdempotencyService unreliable = new IdempotencyService(failingStore, objectMapper,
+            Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofSeconds(5));
+
+        IdempotencyService.Outcome<OrderDTO> outcome = unreliable.execute("key-8", request("1 Main St"),
+            OrderDTO.class, this::createOrder);
+
+        assertEquals(1L, outcome.getBody().getId());
+        assertFalse(outcome.isReplayed());
+    }
+
+    @Test
+    void storeOnlyReplacesOrDeletesTheExpectedClaim() {
+        LocalIdempotencyStore store = new LocalIdempotencyStore(1000);
+        store.putIfAbsent("key-9", "claim-of-b", Duration.ofSeconds(30));
+
+        store.compareAndDelete("key-9", "claim-of-a");
+        assertFalse(store.compareAndSet("key-9", "claim-of-a", "response-of-a", Duration.ofHours(1)));
+        assertEquals("claim-of-b", store.get("key-9"));
+
+        assertTrue(store.compareAndSet("key-9", "claim-of-b", "response-of-b", Duration.ofHours(1)));
+        store.compareAndDelete("key-9", "claim-of-b");
+        assertEquals("response-of-b", store.get("key-9"));
+    }
+
+    @Test
+    void requestsWithoutAKeyAlwaysRun() {
+        service.execute(null, request("1 Main St"), OrderDTO.class, this::createOrder);
+        service.execute(null, request("1 Main St"), OrderDTO.class, this::createOrder);
+
+        assertEquals(2, executions.get());
+        assertThrows(ResponseStatusException.class,
+            () -> service.execute(" ", request("1 Main St"), OrderDTO.class, this::createOrder));
+    }
+
+    private OrderDTO createOrder() {
+        OrderDTO order = new OrderDTO();
+        order.setId((long) executions.incrementAndGet());
+        return order;
+    }
+
+    private static CreateOrderRequest request(String shippingAddress) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId(42L);
+        request.setShippingAddress(shippingAddress);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderEvent;
+import com.ecommerce.order.dto.OrderItemDTO;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderHistoryEntry;
+import com.ecommerce.order.repository.OrderHistoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderHistoryProjectorTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Mock
+    private OrderHistoryRepository historyRepository;
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private ConsumerFactory<String, String> consumerFactory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private OrderHistoryProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = new OrderHistoryProjector(historyRepository, objectMapper, listenerRegistry, consumerFactory,
+            transactionManager);
+    }
+
+    @Test
+    void eventIsProjectedIntoAHistoryRow() throws Exception {
+        when(historyRepository.findById(7L)).thenReturn(Optional.empty());
+
+        projector.handleOrderEvent(record("order.created", event(7L, Order.OrderStatus.PENDING, CREATED), 0));
+
+        ArgumentCaptor<OrderHistoryEntry> saved = ArgumentCaptor.forClass(OrderHistoryEntry.class);
+        verify(historyRepository).save(saved.capture());
+        assertEquals(7L, saved.getValue().getOrderId());
+        assertEquals(42L, saved.getValue().getUserId());
+        assertEquals(Order.OrderStatus.PENDING, saved.getValue().getStatus());
+        assertEquals(1, saved.getValue().getItemCount());
+        assertTrue(saved.getValue().getItemsJson().contains("\"productId\":3"));
+    }
+
+    @Test
+    void eventOlderThanTheRowIsDropped() throws Exception {
+        OrderHistoryEntry current = new OrderHistoryEntry();
+        current.setOrderId(7L);
+        current.setStatus(Order.OrderStatus.SHIPPED);
+        current.setUpdatedAt(CREATED.plusHours(2));
+        when(historyRepository.findById(7L)).thenReturn(Optional.of(current));
+
+        projector.handleOrderEvent(record("order.status.updated",
+            event(7L, Order.OrderStatus.CONFIRMED, CREATED.plusHours(1)), 3));
+
+        verify(historyRepository, never()).save(any());
+    }
+
+    @Test
+    void unrelatedAndUnreadableEventsAreSkipped() {
+        projector.handleOrderEvent(new ConsumerRecord<>("order-events", 0, 0L, "order.deleted", "{}"));
+        projector.handleOrderEvent(new ConsumerRecord<>("order-events", 0, 1L, "order.created", "not json"));
+
+        verifyNoInteractions(historyRepository);
+    }
+
+    @Test
+    void rebuildPausesTheListenerAndReplaysEveryPartition() throws Exception {
+        when(listenerRegistry.getListenerContainer(OrderHistoryProjector.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+        when(container.isContainerPaused()).thenReturn(true);
+        when(historyRepository.findById(any())).thenReturn(Optional.empty());
+
+        TopicPartition p0 = new TopicPartition("order-events", 0);
+        TopicPartition p1 = new TopicPartition("order-events", 1);
+        MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions("order-events", List.of(
+            new PartitionInfo("order-events", 0, null, null, null),
+            new PartitionInfo("order-events", 1, null, null, null)));
+        consumer.updateBeginningOffsets(offsets(p0, 0L, p1, 0L));
+        consumer.updateEndOffsets(offsets(p0, 2L, p1, 1L));
+        String first = objectMapper.writeValueAsString(event(1L, Order.OrderStatus.PENDING, CREATED));
+        String second = objectMapper.writeValueAsString(event(2L, Order.OrderStatus.PENDING, CREATED));
+        String third = objectMapper.writeValueAsString(event(3L, Order.OrderStatus.PENDING, CREATED));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(new ConsumerRecord<>("order-events", 0, 0L, "order.created", first));
+            consumer.addRecord(new ConsumerRecord<>("order-events", 0, 1L, "order.created", second));
+            consumer.addRecord(new ConsumerRecord<>("order-events", 1, 0L, "order.created", third));
+        });
+        when(consumerFactory.createConsumer(eq("order-service-history-rebuild"), isNull(), isNull(), any()))
+            .thenReturn(consumer);
+
+        assertEquals(3, projector.rebuild());
+
+        InOrder inOrder = inOrder(container, historyRepository);
+        inOrder.verify(container).pause();
+        inOrder.verify(historyRepository).deleteAllInBatch();
+        inOrder.verify(historyRepository, times(3)).save(any());
+        inOrder.verify(container).resume();
+        assertTrue(consumer.closed());
+    }
+
+    @Test
+    void listenerIsResumedWhenTheRebuildFails() {
+        when(listenerRegistry.getListenerContainer(OrderHistoryProjector.LISTENER_ID)).thenReturn(container);
+        when(container.isRunning()).thenReturn(true);
+        when(container.isContainerPaused()).thenReturn(true);
+        doThrow(new IllegalStateException("database down")).when(historyRepository).deleteAllInBatch();
+
+        assertThrows(IllegalStateException.class, () -> projector.rebuild());
+
+        verify(container).resume();
+        verifyNoInteractions(consumerFactory);
+    }
+
+    private ConsumerRecord<String, String> record(String key, OrderEvent event, long offset) throws Exception {
+        return new ConsumerRecord<>("order-events", 0, offset, key, objectMapper.writeValueAsString(event));
+    }
+
+    private static OrderEvent event(Long id, Order.OrderStatus status, LocalDateTime updatedAt) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(3L);
+        item.setQuantity(2);
+        return new OrderEvent(id, 42L, List.of(item), BigDecimal.valueOf(200), "1 Main St", "1 Main St",
+            status, Order.PaymentStatus.PENDING, CREATED, updatedAt);
+    }
+
+    private static Map<TopicPartition, Long> offsets(TopicPartition a, long aOffset, TopicPartition b, long bOffset) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        offsets.put(a, aOffset);
+        offsets.put(b, bOffset);
+        return offsets;
+    }
+}
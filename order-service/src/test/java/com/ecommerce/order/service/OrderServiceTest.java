@@ -0,0 +1,96 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderDTO;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderHistoryEntry;
+import com.ecommerce.order.metrics.OrderMetricsRecorder;
+import com.ecommerce.order.repository.OrderHistoryRepository;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private OrderMetricsRecorder metricsRecorder;
+
+    @Mock
+    private OrderHistoryRepository historyRepository;
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, kafkaTemplate, metricsRecorder, historyRepository,
+            new ObjectMapper());
+    }
+
+    @Test
+    void historyPageIsReadFromTheProjection() {
+        OrderHistoryEntry entry = new OrderHistoryEntry();
+        entry.setOrderId(9L);
+        entry.setUserId(42L);
+        entry.setStatus(Order.OrderStatus.CONFIRMED);
+        entry.setTotalAmount(BigDecimal.valueOf(200));
+        entry.setItemsJson("[{\"productId\":3,\"quantity\":2}]");
+        entry.setCreatedAt(LocalDateTime.of(2024, 3, 1, 10, 0));
+        when(historyRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(42L, PageRequest.of(1, 20)))
+            .thenReturn(List.of(entry));
+
+        List<OrderDTO> orders = orderService.getOrdersByUserId(42L, 1, 20);
+
+        assertEquals(1, orders.size());
+        assertEquals(9L, orders.get(0).getId());
+        assertEquals(Order.OrderStatus.CONFIRMED, orders.get(0).getStatus());
+        assertEquals(3L, orders.get(0).getOrderItems().get(0).getProductId());
+        assertEquals(2, orders.get(0).getOrderItems().get(0).getQuantity());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void pageAndSizeAreClamped() {
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(historyRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(eq(42L), any())).thenReturn(List.of());
+
+        orderService.getOrdersByUserId(42L, -3, 10_000);
+        orderService.getOrdersByUserId(42L, 2, 0);
+
+        verify(historyRepository, times(2)).findByUserIdOrderByCreatedAtDescOrderIdDesc(eq(42L), pageable.capture());
+        assertEquals(PageRequest.of(0, 100), pageable.getAllValues().get(0));
+        assertEquals(PageRequest.of(2, 1), pageable.getAllValues().get(1));
+    }
+
+    @Test
+    void entryWithoutItemsHasAnEmptyItemList() {
+        OrderHistoryEntry entry = new OrderHistoryEntry();
+        entry.setOrderId(9L);
+        entry.setUserId(42L);
+        when(historyRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(eq(42L), any())).thenReturn(List.of(entry));
+
+        assertTrue(orderService.getOrdersByUserId(42L, 0, 10).get(0).getOrderItems().isEmpty());
+    }
+}
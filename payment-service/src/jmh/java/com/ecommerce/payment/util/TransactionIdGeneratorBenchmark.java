@@ -0,0 +1,69 @@
+package com.ecommerce.payment.util;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended throughput of {@link TransactionIdGenerator}. Ids issued by a node only ever increase, so
+ * each thread also counts ids that are not greater than the last one it saw as {@code regressions},
+ * which must stay at zero. That is a cheap per-thread check; uniqueness across threads is asserted by
+ * {@code TransactionIdGeneratorTest}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TransactionIdGeneratorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Generator {
+        TransactionIdGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            generator = new TransactionIdGenerator(1);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Regressions {
+        long lastId = -1;
+        public long regressions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            regressions = 0;
+        }
+    }
+
+    @Benchmark
+    public long nextId(Generator state, Regressions regressions) {
+        long id = state.generator.nextId();
+        if (id <= regressions.lastId) {
+            regressions.regressions++;
+        }
+        regressions.lastId = id;
+        return id;
+    }
+
+    @Benchmark
+    public String nextTransactionId(Generator state) {
+        return state.generator.nextTransactionId();
+    }
+}
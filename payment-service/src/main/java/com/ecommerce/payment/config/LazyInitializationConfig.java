@@ -0,0 +1,46 @@
+package com.ecommerce.payment.config;
+
+import com.ecommerce.payment.controller.DiagnosticsController;
+import com.ecommerce.payment.diagnostics.ConfigServerHealthClient;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Defers beans that no request path needs at startup until they are first used: springdoc (built on the
+ * first {@code /v3/api-docs} or Swagger UI hit) and {@code /diagnostics}. Everything else, including
+ * the whole data and messaging stack, stays eager so a broken instance still fails before it registers.
+ * With AOT the lazy flag is recorded in the generated bean definitions.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    private static final List<Class<?>> LAZY_TYPES = List.of(DiagnosticsController.class,
+        ConfigServerHealthClient.class);
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                Class<?> type = beanFactory.getType(name, false);
+                if (!definition.isAbstract() && type != null && isNonCritical(type)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isNonCritical(Class<?> type) {
+        // SmartInitializingSingletons rely on being created eagerly for their callback to run at all
+        if (SmartInitializingSingleton.class.isAssignableFrom(type)) {
+            return false;
+        }
+        return type.getName().startsWith("org.springdoc.")
+            || LAZY_TYPES.stream().anyMatch(lazy -> lazy.isAssignableFrom(type));
+    }
+}
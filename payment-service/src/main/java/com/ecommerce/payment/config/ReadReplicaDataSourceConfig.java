@@ -0,0 +1,71 @@
+package com.ecommerce.payment.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured DataSource with primary/replica routing when
+ * {@code datasource.routing.enabled} is set. Both pools take their settings from
+ * {@code spring.datasource.hikari}; replicas only override the URL and credentials.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                     ReadReplicaProperties properties,
+                                                     Environment environment,
+                                                     MeterRegistry meterRegistry) {
+        HikariConfig primaryConfig = new HikariConfig();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primaryConfig));
+        primaryConfig.setJdbcUrl(dataSourceProperties.determineUrl());
+        primaryConfig.setUsername(dataSourceProperties.determineUsername());
+        primaryConfig.setPassword(dataSourceProperties.determinePassword());
+        primaryConfig.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        String poolName = primaryConfig.getPoolName() != null ? primaryConfig.getPoolName() : "pool";
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> replicaSettings = properties.getReplicas();
+        for (int i = 0; i < replicaSettings.size(); i++) {
+            ReadReplicaProperties.Replica settings = replicaSettings.get(i);
+            HikariConfig replicaConfig = new HikariConfig();
+            primaryConfig.copyStateTo(replicaConfig);
+            replicaConfig.setPoolName(poolName + "-replica-" + i);
+            replicaConfig.setJdbcUrl(settings.getUrl());
+            if (settings.getUsername() != null) {
+                replicaConfig.setUsername(settings.getUsername());
+                replicaConfig.setPassword(settings.getPassword());
+            }
+            replicaConfig.setReadOnly(true);
+            replicaConfig.setMetricRegistry(meterRegistry);
+            replicas.put("replica-" + i, new HikariDataSource(replicaConfig));
+        }
+
+        primaryConfig.setMetricRegistry(meterRegistry);
+        return new ReplicaRoutingDataSource(new HikariDataSource(primaryConfig), replicas, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
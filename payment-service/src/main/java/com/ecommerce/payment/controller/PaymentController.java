@@ -2,6 +2,8 @@ package com.ecommerce.payment.controller;
 
 import com.ecommerce.payment.dto.CreatePaymentRequest;
 import com.ecommerce.payment.dto.PaymentDTO;
+import com.ecommerce.payment.idempotency.IdempotencyService;
+import com.ecommerce.payment.service.PaymentPipeline;
 import com.ecommerce.payment.service.PaymentService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +16,14 @@ import java.util.List;
 public class PaymentController {
     
     private final PaymentService paymentService;
+    private final PaymentPipeline paymentPipeline;
+    private final IdempotencyService idempotencyService;
     
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, PaymentPipeline paymentPipeline,
+                             IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.paymentPipeline = paymentPipeline;
+        this.idempotencyService = idempotencyService;
     }
     
     @GetMapping("/{id}")
@@ -45,9 +52,19 @@ public class PaymentController {
     }
     
     @PostMapping
-    public ResponseEntity<PaymentDTO> processPayment(@RequestBody CreatePaymentRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-            .body(paymentService.processPayment(request));
+    public ResponseEntity<PaymentDTO> processPayment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CreatePaymentRequest request) {
+        IdempotencyService.Outcome<PaymentDTO> outcome = idempotencyService.execute(
+            idempotencyKey, request, PaymentDTO.class, () -> {
+                paymentPipeline.checkCapacity(request.getPaymentMethod());
+                PaymentDTO accepted = paymentService.processPayment(request);
+                paymentPipeline.submit(accepted);
+                return accepted;
+            });
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+            .body(outcome.getBody());
     }
     
     @PostMapping("/{id}/refund")
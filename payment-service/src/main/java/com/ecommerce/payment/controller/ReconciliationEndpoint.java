@@ -0,0 +1,45 @@
+package com.ecommerce.payment.controller;
+
+import com.ecommerce.payment.entity.ReconciliationCheckpoint;
+import com.ecommerce.payment.service.PaymentReconciliationJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "reconciliation")
+public class ReconciliationEndpoint {
+
+    private final PaymentReconciliationJob job;
+
+    public ReconciliationEndpoint(PaymentReconciliationJob job) {
+        this.job = job;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        job.status().ifPresentOrElse(checkpoint -> {
+            body.put("phase", checkpoint.getPhase());
+            body.put("lastId", checkpoint.getLastId());
+            body.put("runStartedAt", checkpoint.getRunStartedAt());
+            body.put("syncSince", checkpoint.getSyncSince());
+            body.put("lastCompletedAt", checkpoint.getLastCompletedAt());
+            body.put("leaseOwner", checkpoint.getLeaseOwner());
+            body.put("leaseUntil", checkpoint.getLeaseUntil());
+        }, () -> body.put("phase", ReconciliationCheckpoint.Phase.IDLE));
+        return body;
+    }
+
+    @WriteOperation
+    public Map<String, Object> run(@Nullable Boolean fullSync) {
+        boolean started = job.trigger(Boolean.TRUE.equals(fullSync));
+        return Map.of("status", started ? "STARTED" : "ALREADY_RUNNING", "timestamp", OffsetDateTime.now().toString());
+    }
+}
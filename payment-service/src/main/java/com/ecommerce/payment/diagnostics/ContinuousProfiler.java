@@ -0,0 +1,133 @@
+package com.ecommerce.payment.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Keeps a rolling JFR recording for the life of the service, so a CPU, allocation and lock profile of
+ * the last few minutes can be pulled after a latency spike instead of reproduced. Uses the JDK's
+ * {@code default} settings (under 1% overhead) with the execution sample period and the monitor/park
+ * thresholds overridable. Stacks are cut at the JVM's JFR stack depth, which the Dockerfile raises to
+ * 256 frames so service methods stay visible under Spring, Hibernate and driver frames.
+ */
+@Component
+public class ContinuousProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(ContinuousProfiler.class);
+
+    private static final String RECORDING_NAME = "continuous-profile";
+
+    private final boolean enabled;
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Duration samplePeriod;
+    private final Duration lockThreshold;
+    private volatile Recording recording;
+
+    public ContinuousProfiler(@Value("${profiling.enabled:true}") boolean enabled,
+                              @Value("${profiling.settings:default}") String settings,
+                              @Value("${profiling.max-age:15m}") Duration maxAge,
+                              @Value("${profiling.max-size:100MB}") DataSize maxSize,
+                              @Value("${profiling.execution-sample-period:20ms}") Duration samplePeriod,
+                              @Value("${profiling.lock-threshold:10ms}") Duration lockThreshold) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.samplePeriod = samplePeriod;
+        this.lockThreshold = lockThreshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Continuous profiling disabled: JFR is not available in this JVM");
+            return;
+        }
+        try {
+            Recording rolling = new Recording(Configuration.getConfiguration(settings));
+            rolling.setName(RECORDING_NAME);
+            rolling.setToDisk(true);
+            rolling.setMaxAge(maxAge);
+            rolling.setMaxSize(maxSize.toBytes());
+            rolling.enable("jdk.ExecutionSample").withPeriod(samplePeriod);
+            rolling.enable("jdk.JavaMonitorEnter").withThreshold(lockThreshold);
+            rolling.enable("jdk.ThreadPark").withThreshold(lockThreshold);
+            // Dumps leave the process, and the environment and system properties hold credentials
+            rolling.disable("jdk.InitialEnvironmentVariable");
+            rolling.disable("jdk.InitialSystemProperty");
+            rolling.start();
+            recording = rolling;
+            log.info("Continuous profiling started (settings={}, maxAge={}, maxSize={})", settings, maxAge, maxSize);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            log.warn("Continuous profiling disabled: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Recording rolling = recording;
+        recording = null;
+        if (rolling != null) {
+            rolling.close();
+        }
+    }
+
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Writes the last {@code window} of the recording to a new temporary file, which the caller must
+     * delete. JFR cuts at chunk boundaries, so the file may start somewhat earlier than requested.
+     */
+    public Path dump(Duration window) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Continuous profiling is not running");
+        }
+        Path file = Files.createTempFile("profile-", ".jfr");
+        String[] arguments = {
+            "name=" + RECORDING_NAME,
+            "filename=" + file.toAbsolutePath(),
+            "begin=-" + Math.max(1, window.toSeconds()) + "s"
+        };
+        try {
+            // JFR.dump is the only public way to cut a running recording by time before JDK 19
+            Object message = ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "jfrDump",
+                new Object[] {arguments}, new String[] {String[].class.getName()});
+            if (Files.size(file) == 0) {
+                throw new IOException("JFR.dump wrote no data: " + message);
+            }
+            return file;
+        } catch (JMException | IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e instanceof IOException io ? io : new IOException("JFR.dump failed", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.payment.dto;
+
+import com.ecommerce.payment.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published as {@code payment.reconciled} on payment-events: the authoritative payment status of an
+ * order, for order-service to compare against its own copy.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCorrectionEvent {
+    private Long paymentId;
+    private Long orderId;
+    private String transactionId;
+    private Payment.PaymentStatus status;
+    private LocalDateTime paymentUpdatedAt;
+    private LocalDateTime reconciledAt;
+    
+    public static PaymentCorrectionEvent fromEntity(Payment payment) {
+        return new PaymentCorrectionEvent(payment.getId(), payment.getOrderId(), payment.getTransactionId(),
+            payment.getStatus(), payment.getUpdatedAt(), LocalDateTime.now());
+    }
+}
@@ -9,7 +9,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payments_transaction_id", columnNames = "transactionId")
+}, indexes = {
+    @Index(name = "idx_payments_order_id", columnList = "orderId, id"),
+    @Index(name = "idx_payments_status_id", columnList = "status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,6 +38,7 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private PaymentStatus status = PaymentStatus.PENDING;
     
+    @Column(nullable = false, length = 32)
     private String transactionId;
     private String paymentGatewayResponse;
     
@@ -43,7 +49,6 @@ public class Payment {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        transactionId = "TXN" + System.currentTimeMillis();
     }
     
     @PreUpdate
@@ -0,0 +1,44 @@
+package com.ecommerce.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a reconciliation run, persisted after every chunk so a restarted instance resumes from
+ * the last committed keyset position. The row doubles as a lease so only one instance runs the job.
+ */
+@Entity
+@Table(name = "reconciliation_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationCheckpoint {
+    @Id
+    private String jobName;
+    
+    @Enumerated(EnumType.STRING)
+    private Phase phase = Phase.IDLE;
+    
+    private Long lastId = 0L;
+    
+    private LocalDateTime runStartedAt;
+    
+    // Settled payments changed at or after this instant are re-published to order-service
+    private LocalDateTime syncSince;
+    
+    private LocalDateTime lastCompletedAt;
+    
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    
+    @Version
+    private Long version;
+    
+    public enum Phase {
+        IDLE, STALE_PAYMENTS, ORDER_SYNC
+    }
+}
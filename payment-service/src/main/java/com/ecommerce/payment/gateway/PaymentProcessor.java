@@ -0,0 +1,30 @@
+package com.ecommerce.payment.gateway;
+
+import com.ecommerce.payment.dto.PaymentDTO;
+import com.ecommerce.payment.entity.Payment;
+
+import java.util.Optional;
+
+/**
+ * A payment gateway integration. Implementations are called from the processor's own bulkhead
+ * threads and may block on network I/O; the pipeline enforces the timeout.
+ */
+public interface PaymentProcessor {
+
+    /**
+     * Name used to look up this processor's bulkhead and time limiter configuration.
+     */
+    String getName();
+
+    boolean supports(Payment.PaymentMethod paymentMethod);
+
+    PaymentResult process(PaymentDTO payment);
+
+    /**
+     * Gateway-side outcome of a payment whose result never reached us, used by reconciliation.
+     * Empty when the gateway has no record of it or does not support lookups.
+     */
+    default Optional<PaymentResult> lookup(PaymentDTO payment) {
+        return Optional.empty();
+    }
+}
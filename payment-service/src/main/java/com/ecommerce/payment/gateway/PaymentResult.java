@@ -0,0 +1,21 @@
+package com.ecommerce.payment.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentResult {
+    private boolean approved;
+    private String gatewayResponse;
+
+    public static PaymentResult approved(String gatewayResponse) {
+        return new PaymentResult(true, gatewayResponse);
+    }
+
+    public static PaymentResult declined(String gatewayResponse) {
+        return new PaymentResult(false, gatewayResponse);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.payment.gateway;
+
+import com.ecommerce.payment.dto.PaymentDTO;
+import com.ecommerce.payment.entity.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a payment gateway with configurable latency and approval rate, for load testing
+ * the pipeline without an external provider.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.gateway.simulator", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+
+    private final long latencyMeanMs;
+    private final long latencyJitterMs;
+    private final double successRate;
+
+    public SimulatedPaymentProcessor(
+            @Value("${payment.gateway.simulator.latency-mean:200ms}") Duration latencyMean,
+            @Value("${payment.gateway.simulator.latency-jitter:100ms}") Duration latencyJitter,
+            @Value("${payment.gateway.simulator.success-rate:0.9}") double successRate) {
+        this.latencyMeanMs = latencyMean.toMillis();
+        this.latencyJitterMs = latencyJitter.toMillis();
+        this.successRate = successRate;
+    }
+
+    @Override
+    public String getName() {
+        return "simulator";
+    }
+
+    @Override
+    public boolean supports(Payment.PaymentMethod paymentMethod) {
+        return true;
+    }
+
+    @Override
+    public PaymentResult process(PaymentDTO payment) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long jitter = latencyJitterMs > 0 ? random.nextLong(-latencyJitterMs, latencyJitterMs + 1) : 0;
+        long latency = Math.max(0, latencyMeanMs + jitter);
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulated gateway call interrupted", e);
+        }
+        if (random.nextDouble() < successRate) {
+            return PaymentResult.approved("Payment successful");
+        }
+        return PaymentResult.declined("Payment failed - insufficient funds");
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.payment.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Key/value store backing {@link IdempotencyService}. Implementations must make {@link #putIfAbsent},
+ * {@link #compareAndSet} and {@link #compareAndDelete} atomic across every instance that shares the store.
+ */
+public interface IdempotencyStore {
+
+    boolean putIfAbsent(String key, String value, Duration ttl);
+
+    String get(String key);
+
+    /**
+     * Replaces the value and its TTL only if the key still holds {@code expected}.
+     *
+     * @return whether the value was replaced
+     */
+    boolean compareAndSet(String key, String expected, String value, Duration ttl);
+
+    /**
+     * Deletes the key only if it still holds {@code expected}.
+     */
+    void compareAndDelete(String key, String expected);
+}
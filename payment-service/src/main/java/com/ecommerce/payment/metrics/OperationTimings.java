@@ -0,0 +1,90 @@
+package com.ecommerce.payment.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread accumulator for the time the current service operation spends waiting on its
+ * dependencies. {@link OperationMetrics} opens a frame around each service method; the JDBC listener,
+ * the timing cache resolver and the Kafka template add to it from the same thread. Nested operations
+ * share the outermost frame, so dependency time is attributed once, to the operation that started it.
+ * <p>
+ * Frames are reused per thread and never allocated on the hot path. Work handed to other threads
+ * (Kafka acknowledgements, async executors) is not attributed.
+ */
+public final class OperationTimings {
+
+    public enum Dependency {
+        DB("db"),
+        CACHE("cache"),
+        KAFKA("kafka");
+
+        private final String tag;
+
+        Dependency(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private static final Dependency[] DEPENDENCIES = Dependency.values();
+    private static final ThreadLocal<Frame> FRAME = ThreadLocal.withInitial(Frame::new);
+
+    private OperationTimings() {
+    }
+
+    public static void add(Dependency dependency, long nanos) {
+        Frame frame = FRAME.get();
+        if (frame.depth > 0) {
+            frame.nanos[dependency.ordinal()] += nanos;
+        }
+    }
+
+    static void queryStarted() {
+        Frame frame = FRAME.get();
+        if (frame.depth > 0) {
+            frame.queryStart = System.nanoTime();
+        }
+    }
+
+    static void queryFinished() {
+        Frame frame = FRAME.get();
+        if (frame.depth > 0 && frame.queryStart != 0) {
+            frame.nanos[Dependency.DB.ordinal()] += System.nanoTime() - frame.queryStart;
+            frame.queryStart = 0;
+        }
+    }
+
+    static Frame enter() {
+        Frame frame = FRAME.get();
+        if (frame.depth++ == 0) {
+            Arrays.fill(frame.nanos, 0);
+            frame.queryStart = 0;
+        }
+        return frame;
+    }
+
+    /**
+     * Closes one level of the frame; returns true when the outermost operation has finished and the
+     * accumulated times are ready to record.
+     */
+    static boolean exit(Frame frame) {
+        return --frame.depth == 0;
+    }
+
+    static Dependency[] dependencies() {
+        return DEPENDENCIES;
+    }
+
+    static final class Frame {
+        private final long[] nanos = new long[DEPENDENCIES.length];
+        private int depth;
+        private long queryStart;
+
+        long nanos(Dependency dependency) {
+            return nanos[dependency.ordinal()];
+        }
+    }
+}
@@ -2,16 +2,28 @@ package com.ecommerce.payment.metrics;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Component
 public class PaymentMetricsRecorder {
 
     private final Counter completed;
     private final Counter failed;
     private final Counter refunds;
+    private final Counter gatewayTimeouts;
+    private final Counter gatewayRejections;
+    private final MeterRegistry registry;
+    private final Timer reconciliationRuns;
+    private final Map<String, Counter> reconciliationRows = new ConcurrentHashMap<>();
+    private final Map<String, Counter> reconciliationCorrections = new ConcurrentHashMap<>();
 
     public PaymentMetricsRecorder(MeterRegistry registry) {
+        this.registry = registry;
         this.completed = Counter.builder("payments_completed_total")
             .description("Completed payments")
             .register(registry);
@@ -21,6 +33,15 @@ public class PaymentMetricsRecorder {
         this.refunds = Counter.builder("payments_refunded_total")
             .description("Refund operations")
             .register(registry);
+        this.gatewayTimeouts = Counter.builder("payment_gateway_timeouts_total")
+            .description("Gateway calls that exceeded the processor time limit")
+            .register(registry);
+        this.gatewayRejections = Counter.builder("payment_gateway_rejections_total")
+            .description("Payments turned away because the processor bulkhead was full")
+            .register(registry);
+        this.reconciliationRuns = Timer.builder("payment_reconciliation_duration")
+            .description("Wall-clock time of completed reconciliation runs")
+            .register(registry);
     }
 
     public void recordPaymentCompleted() {
@@ -34,6 +55,30 @@ public class PaymentMetricsRecorder {
     public void recordRefund() {
         refunds.increment();
     }
-}
 
+    public void recordGatewayTimeout() {
+        gatewayTimeouts.increment();
+    }
+
+    public void recordGatewayRejection() {
+        gatewayRejections.increment();
+    }
+
+    public void recordReconciliationRows(String phase, int rows) {
+        reconciliationRows.computeIfAbsent(phase, tag -> Counter.builder("payment_reconciliation_rows_total")
+            .description("Rows processed by reconciliation runs")
+            .tag("phase", tag)
+            .register(registry)).increment(rows);
+    }
 
+    public void recordReconciliationCorrection(String type) {
+        reconciliationCorrections.computeIfAbsent(type, tag -> Counter.builder("payment_reconciliation_corrections_total")
+            .description("Payments corrected by reconciliation runs")
+            .tag("type", tag)
+            .register(registry)).increment();
+    }
+
+    public void recordReconciliationRun(Duration duration) {
+        reconciliationRuns.record(duration);
+    }
+}
@@ -1,9 +1,14 @@
 package com.ecommerce.payment.repository;
 
 import com.ecommerce.payment.entity.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +18,25 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByUserId(Long userId);
     Optional<Payment> findByTransactionId(String transactionId);
     List<Payment> findByStatus(Payment.PaymentStatus status);
+    
+    /**
+     * Keyset chunk of payments in the given statuses that have not changed since {@code cutoff}.
+     */
+    @Query("select p from Payment p where p.status in :statuses and p.updatedAt < :cutoff and p.id > :afterId order by p.id")
+    List<Payment> findStaleAfterId(@Param("statuses") Collection<Payment.PaymentStatus> statuses,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   @Param("afterId") Long afterId,
+                                   Pageable chunk);
+    
+    /**
+     * Keyset chunk of each order's latest payment, restricted to settled payments changed since {@code since}.
+     */
+    @Query("select p from Payment p where p.id > :afterId and p.status in :statuses and p.updatedAt >= :since "
+        + "and not exists (select 1 from Payment later where later.orderId = p.orderId and later.id > p.id) "
+        + "order by p.id")
+    List<Payment> findLatestPerOrderAfterId(@Param("statuses") Collection<Payment.PaymentStatus> statuses,
+                                            @Param("since") LocalDateTime since,
+                                            @Param("afterId") Long afterId,
+                                            Pageable chunk);
 }
 
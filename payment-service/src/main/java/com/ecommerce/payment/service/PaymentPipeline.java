@@ -0,0 +1,123 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.dto.PaymentDTO;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.payment.gateway.PaymentProcessor;
+import com.ecommerce.payment.gateway.PaymentResult;
+import com.ecommerce.payment.metrics.PaymentMetricsRecorder;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Completes accepted payments off the request thread.
+ * <p>
+ * Each {@link PaymentProcessor} runs in its own resilience4j thread-pool bulkhead (instance name =
+ * processor name), so a slow gateway can only exhaust its own workers and queue. Calls are bounded by
+ * the matching time limiter. A timed-out call leaves the payment PROCESSING, since the gateway may
+ * still have charged it; the reconciliation job resolves those.
+ */
+@Service
+public class PaymentPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentPipeline.class);
+
+    private final List<PaymentProcessor> processors;
+    private final PaymentService paymentService;
+    private final ThreadPoolBulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final PaymentMetricsRecorder metricsRecorder;
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "payment-gateway-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PaymentPipeline(List<PaymentProcessor> processors, PaymentService paymentService,
+                           ThreadPoolBulkheadRegistry bulkheadRegistry, TimeLimiterRegistry timeLimiterRegistry,
+                           PaymentMetricsRecorder metricsRecorder) {
+        this.processors = processors;
+        this.paymentService = paymentService;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * Rejects new payments up front when the processor's bulkhead has no room left, rather than
+     * accepting work that would immediately be declined.
+     */
+    public void checkCapacity(Payment.PaymentMethod paymentMethod) {
+        ThreadPoolBulkhead.Metrics metrics = bulkheadFor(processorFor(paymentMethod)).getMetrics();
+        if (metrics.getRemainingQueueCapacity() == 0 && metrics.getAvailableThreadCount() == 0) {
+            metricsRecorder.recordGatewayRejection();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Payment gateway is at capacity, retry later");
+        }
+    }
+
+    public void submit(PaymentDTO payment) {
+        PaymentProcessor processor = processorFor(payment.getPaymentMethod());
+        ThreadPoolBulkhead bulkhead = bulkheadFor(processor);
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(processor.getName());
+        try {
+            timeLimiter.executeCompletionStage(timeoutScheduler, () -> bulkhead.executeSupplier(() -> processor.process(payment)))
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        paymentService.completePayment(payment.getId(), result);
+                    } else {
+                        handleFailure(payment, processor, ex);
+                    }
+                });
+        } catch (BulkheadFullException e) {
+            handleFailure(payment, processor, e);
+        }
+    }
+
+    private void handleFailure(PaymentDTO payment, PaymentProcessor processor, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            metricsRecorder.recordGatewayTimeout();
+            log.warn("Payment {} timed out on processor {}; left PROCESSING for reconciliation",
+                payment.getId(), processor.getName());
+            return;
+        }
+        if (cause instanceof BulkheadFullException) {
+            metricsRecorder.recordGatewayRejection();
+            paymentService.completePayment(payment.getId(), PaymentResult.declined("Payment gateway busy - please retry"));
+            return;
+        }
+        log.warn("Payment {} failed on processor {}: {}", payment.getId(), processor.getName(), cause.getMessage());
+        paymentService.completePayment(payment.getId(), PaymentResult.declined("Payment processing error"));
+    }
+
+    private PaymentProcessor processorFor(Payment.PaymentMethod paymentMethod) {
+        return processors.stream()
+            .filter(processor -> processor.supports(paymentMethod))
+            .findFirst()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "No payment processor supports " + paymentMethod));
+    }
+
+    private ThreadPoolBulkhead bulkheadFor(PaymentProcessor processor) {
+        return bulkheadRegistry.bulkhead(processor.getName());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timeoutScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,272 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.dto.PaymentCorrectionEvent;
+import com.ecommerce.payment.dto.PaymentDTO;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.payment.entity.ReconciliationCheckpoint;
+import com.ecommerce.payment.gateway.PaymentProcessor;
+import com.ecommerce.payment.gateway.PaymentResult;
+import com.ecommerce.payment.metrics.PaymentMetricsRecorder;
+import com.ecommerce.payment.repository.PaymentRepository;
+import com.ecommerce.payment.repository.ReconciliationCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reconciles payments in two keyset-paginated phases:
+ * <ol>
+ *   <li>STALE_PAYMENTS - PENDING/PROCESSING payments untouched for {@code stale-after} are settled with
+ *   the gateway's answer ({@link PaymentProcessor#lookup}) or failed as expired.</li>
+ *   <li>ORDER_SYNC - the latest settled payment of every order changed since the previous run is
+ *   published as {@code payment.reconciled}; order-service corrects orders that disagree.</li>
+ * </ol>
+ * Each chunk is processed on a bounded worker pool and the keyset position is checkpointed once the
+ * whole chunk is done, so work per run is linear in the rows scanned and a restart resumes from the
+ * last checkpoint. The checkpoint row is also a lease that keeps the job to one instance at a time.
+ */
+@Service
+public class PaymentReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationJob.class);
+
+    static final String JOB_NAME = "payment-reconciliation";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final Set<Payment.PaymentStatus> STALE_STATUSES =
+        EnumSet.of(Payment.PaymentStatus.PENDING, Payment.PaymentStatus.PROCESSING);
+    private static final Set<Payment.PaymentStatus> SETTLED_STATUSES =
+        EnumSet.of(Payment.PaymentStatus.COMPLETED, Payment.PaymentStatus.FAILED, Payment.PaymentStatus.REFUNDED);
+
+    private final PaymentRepository paymentRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final PaymentService paymentService;
+    private final List<PaymentProcessor> processors;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final PaymentMetricsRecorder metricsRecorder;
+    private final boolean enabled;
+    private final Duration staleAfter;
+    private final Duration lease;
+    private final int chunkSize;
+    private final ExecutorService workers;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "payment-reconciliation"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final String owner = UUID.randomUUID().toString();
+
+    public PaymentReconciliationJob(PaymentRepository paymentRepository,
+                                    ReconciliationCheckpointRepository checkpointRepository,
+                                    PaymentService paymentService,
+                                    List<PaymentProcessor> processors,
+                                    KafkaTemplate<String, Object> kafkaTemplate,
+                                    PaymentMetricsRecorder metricsRecorder,
+                                    @Value("${payment.reconciliation.enabled:true}") boolean enabled,
+                                    @Value("${payment.reconciliation.stale-after:15m}") Duration staleAfter,
+                                    @Value("${payment.reconciliation.lease:10m}") Duration lease,
+                                    @Value("${payment.reconciliation.chunk-size:500}") int chunkSize,
+                                    @Value("${payment.reconciliation.parallelism:8}") int parallelism) {
+        this.paymentRepository = paymentRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.paymentService = paymentService;
+        this.processors = processors;
+        this.kafkaTemplate = kafkaTemplate;
+        this.metricsRecorder = metricsRecorder;
+        this.enabled = enabled;
+        this.staleAfter = staleAfter;
+        this.lease = lease;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism,
+            r -> new Thread(r, "payment-reconciliation-worker-" + threadIndex.incrementAndGet()));
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:300000}",
+               initialDelayString = "${payment.reconciliation.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run(false);
+        }
+    }
+
+    /**
+     * Starts a run in the background unless one is already running on this instance.
+     *
+     * @param fullSync re-publish every order's settled payment instead of only those changed since
+     *                 the previous run; ignored when resuming an interrupted run
+     */
+    public boolean trigger(boolean fullSync) {
+        if (running.get()) {
+            return false;
+        }
+        runner.submit(() -> run(fullSync));
+        return true;
+    }
+
+    public Optional<ReconciliationCheckpoint> status() {
+        return checkpointRepository.findById(JOB_NAME);
+    }
+
+    void run(boolean fullSync) {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            ReconciliationCheckpoint checkpoint = acquireLease(fullSync);
+            if (checkpoint == null) {
+                return;
+            }
+            log.info("Reconciliation run started at {} resuming {} after id {}",
+                checkpoint.getRunStartedAt(), checkpoint.getPhase(), checkpoint.getLastId());
+            if (checkpoint.getPhase() == ReconciliationCheckpoint.Phase.STALE_PAYMENTS) {
+                checkpoint = reconcileStalePayments(checkpoint);
+                checkpoint.setPhase(ReconciliationCheckpoint.Phase.ORDER_SYNC);
+                checkpoint.setLastId(0L);
+                checkpoint = save(checkpoint);
+            }
+            checkpoint = syncOrders(checkpoint);
+
+            checkpoint.setPhase(ReconciliationCheckpoint.Phase.IDLE);
+            checkpoint.setLastId(0L);
+            checkpoint.setSyncSince(checkpoint.getRunStartedAt());
+            checkpoint.setLastCompletedAt(LocalDateTime.now());
+            checkpoint.setLeaseOwner(null);
+            checkpoint.setLeaseUntil(null);
+            checkpointRepository.save(checkpoint);
+            metricsRecorder.recordReconciliationRun(Duration.ofNanos(System.nanoTime() - started));
+            log.info("Reconciliation run finished in {} ms", Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Reconciliation lease was taken over by another instance; stopping this run");
+        } catch (RuntimeException e) {
+            log.error("Reconciliation run failed; it will resume from the last checkpoint", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationCheckpoint acquireLease(boolean fullSync) {
+        LocalDateTime now = LocalDateTime.now();
+        ReconciliationCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(() -> {
+            ReconciliationCheckpoint fresh = new ReconciliationCheckpoint();
+            fresh.setJobName(JOB_NAME);
+            fresh.setSyncSince(BEGINNING);
+            return fresh;
+        });
+        if (checkpoint.getLeaseOwner() != null && !owner.equals(checkpoint.getLeaseOwner())
+                && checkpoint.getLeaseUntil() != null && checkpoint.getLeaseUntil().isAfter(now)) {
+            return null;
+        }
+        if (checkpoint.getPhase() == ReconciliationCheckpoint.Phase.IDLE) {
+            checkpoint.setPhase(ReconciliationCheckpoint.Phase.STALE_PAYMENTS);
+            checkpoint.setLastId(0L);
+            checkpoint.setRunStartedAt(now);
+            if (fullSync || checkpoint.getSyncSince() == null) {
+                checkpoint.setSyncSince(BEGINNING);
+            }
+        }
+        try {
+            return save(checkpoint);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private ReconciliationCheckpoint reconcileStalePayments(ReconciliationCheckpoint checkpoint) {
+        LocalDateTime cutoff = checkpoint.getRunStartedAt().minus(staleAfter);
+        while (true) {
+            List<Payment> chunk = paymentRepository.findStaleAfterId(
+                STALE_STATUSES, cutoff, checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return checkpoint;
+            }
+            processInParallel(chunk, this::settleStalePayment);
+            metricsRecorder.recordReconciliationRows("stale_payments", chunk.size());
+            checkpoint.setLastId(chunk.get(chunk.size() - 1).getId());
+            checkpoint = save(checkpoint);
+            if (chunk.size() < chunkSize) {
+                return checkpoint;
+            }
+        }
+    }
+
+    private ReconciliationCheckpoint syncOrders(ReconciliationCheckpoint checkpoint) {
+        while (true) {
+            List<Payment> chunk = paymentRepository.findLatestPerOrderAfterId(
+                SETTLED_STATUSES, checkpoint.getSyncSince(), checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return checkpoint;
+            }
+            // Sends are asynchronous; wait for the whole chunk to be acknowledged before checkpointing
+            CompletableFuture.allOf(chunk.stream()
+                .map(payment -> kafkaTemplate.send("payment-events", "payment.reconciled",
+                    PaymentCorrectionEvent.fromEntity(payment)))
+                .toArray(CompletableFuture[]::new)).join();
+            metricsRecorder.recordReconciliationRows("order_sync", chunk.size());
+            checkpoint.setLastId(chunk.get(chunk.size() - 1).getId());
+            checkpoint = save(checkpoint);
+            if (chunk.size() < chunkSize) {
+                return checkpoint;
+            }
+        }
+    }
+
+    private void settleStalePayment(Payment payment) {
+        PaymentDTO dto = PaymentDTO.fromEntity(payment);
+        Optional<PaymentResult> gatewayResult = processors.stream()
+            .filter(processor -> processor.supports(payment.getPaymentMethod()))
+            .findFirst()
+            .flatMap(processor -> processor.lookup(dto));
+        if (gatewayResult.isPresent()) {
+            paymentService.completePayment(payment.getId(), gatewayResult.get());
+            metricsRecorder.recordReconciliationCorrection("gateway_result");
+        } else {
+            paymentService.completePayment(payment.getId(),
+                PaymentResult.declined("Expired by reconciliation: no gateway confirmation"));
+            metricsRecorder.recordReconciliationCorrection("expired");
+        }
+    }
+
+    private void processInParallel(List<Payment> chunk, Consumer<Payment> task) {
+        CompletableFuture.allOf(chunk.stream()
+            .map(payment -> CompletableFuture.runAsync(() -> {
+                try {
+                    task.accept(payment);
+                } catch (RuntimeException e) {
+                    // Left as-is; the next run picks it up again
+                    log.warn("Reconciliation of payment {} failed: {}", payment.getId(), e.getMessage());
+                }
+            }, workers))
+            .toArray(CompletableFuture[]::new)).join();
+    }
+
+    private ReconciliationCheckpoint save(ReconciliationCheckpoint checkpoint) {
+        checkpoint.setLeaseOwner(owner);
+        checkpoint.setLeaseUntil(LocalDateTime.now().plus(lease));
+        return checkpointRepository.save(checkpoint);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -3,67 +3,84 @@ package com.ecommerce.payment.service;
 import com.ecommerce.payment.dto.CreatePaymentRequest;
 import com.ecommerce.payment.dto.PaymentDTO;
 import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.payment.gateway.PaymentResult;
 import com.ecommerce.payment.metrics.PaymentMetricsRecorder;
 import com.ecommerce.payment.repository.PaymentRepository;
+import com.ecommerce.payment.util.TransactionIdGenerator;
 import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
     
     private final PaymentRepository paymentRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final Random random = new Random();
     private final PaymentMetricsRecorder metricsRecorder;
+    private final TransactionIdGenerator transactionIdGenerator;
     
     public PaymentService(PaymentRepository paymentRepository, KafkaTemplate<String, Object> kafkaTemplate,
-                          PaymentMetricsRecorder metricsRecorder) {
+                          PaymentMetricsRecorder metricsRecorder, TransactionIdGenerator transactionIdGenerator) {
         this.paymentRepository = paymentRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.metricsRecorder = metricsRecorder;
+        this.transactionIdGenerator = transactionIdGenerator;
     }
     
     @Cacheable(value = "payments", key = "#id")
+    @Transactional(readOnly = true)
     public PaymentDTO getPaymentById(Long id) {
         Payment payment = paymentRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found with id: " + id));
         return PaymentDTO.fromEntity(payment);
     }
     
+    @Transactional(readOnly = true)
     public PaymentDTO getPaymentByTransactionId(String transactionId) {
         Payment payment = paymentRepository.findByTransactionId(transactionId)
-            .orElseThrow(() -> new RuntimeException("Payment not found with transaction id: " + transactionId));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found with transaction id: " + transactionId));
         return PaymentDTO.fromEntity(payment);
     }
     
+    @Transactional(readOnly = true)
     public List<PaymentDTO> getPaymentsByOrderId(Long orderId) {
         return paymentRepository.findByOrderId(orderId).stream()
             .map(PaymentDTO::fromEntity)
             .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<PaymentDTO> getPaymentsByUserId(Long userId) {
         return paymentRepository.findByUserId(userId).stream()
             .map(PaymentDTO::fromEntity)
             .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<PaymentDTO> getAllPayments() {
         return paymentRepository.findAll().stream()
             .map(PaymentDTO::fromEntity)
             .collect(Collectors.toList());
     }
     
+    /**
+     * Accepts a payment and persists it as PROCESSING. The gateway call happens afterwards in
+     * {@link PaymentPipeline}, which finishes the payment through {@link #completePayment}.
+     */
     @CacheEvict(value = "payments", allEntries = true)
     @Observed(name = "payment.process", contextualName = "payment-process")
     public PaymentDTO processPayment(CreatePaymentRequest request) {
@@ -73,21 +90,31 @@ public class PaymentService {
         payment.setAmount(request.getAmount());
         payment.setPaymentMethod(request.getPaymentMethod());
         payment.setStatus(Payment.PaymentStatus.PROCESSING);
+        payment.setTransactionId(transactionIdGenerator.nextTransactionId());
         
         Payment savedPayment = paymentRepository.save(payment);
+        return PaymentDTO.fromEntity(savedPayment);
+    }
+    
+    @CacheEvict(value = "payments", key = "#id")
+    @Observed(name = "payment.complete", contextualName = "payment-complete")
+    public PaymentDTO completePayment(Long id, PaymentResult result) {
+        Payment payment = paymentRepository.findById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found with id: " + id));
+        if (payment.getStatus() != Payment.PaymentStatus.PROCESSING
+                && payment.getStatus() != Payment.PaymentStatus.PENDING) {
+            // Already settled, e.g. by reconciliation after a gateway timeout.
+            return PaymentDTO.fromEntity(payment);
+        }
         
-        // Simulate payment processing
-        boolean paymentSuccess = simulatePaymentProcessing();
-        
-        if (paymentSuccess) {
+        if (result.isApproved()) {
             payment.setStatus(Payment.PaymentStatus.COMPLETED);
-            payment.setPaymentGatewayResponse("Payment successful");
             metricsRecorder.recordPaymentCompleted();
         } else {
             payment.setStatus(Payment.PaymentStatus.FAILED);
-            payment.setPaymentGatewayResponse("Payment failed - insufficient funds");
             metricsRecorder.recordPaymentFailed();
         }
+        payment.setPaymentGatewayResponse(result.getGatewayResponse());
         
         Payment updatedPayment = paymentRepository.save(payment);
         
@@ -101,10 +128,10 @@ public class PaymentService {
     @Observed(name = "payment.refund", contextualName = "payment-refund")
     public PaymentDTO refundPayment(Long id) {
         Payment payment = paymentRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found with id: " + id));
         
         if (payment.getStatus() != Payment.PaymentStatus.COMPLETED) {
-            throw new RuntimeException("Only completed payments can be refunded");
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only completed payments can be refunded");
         }
         
         payment.setStatus(Payment.PaymentStatus.REFUNDED);
@@ -118,15 +145,10 @@ public class PaymentService {
         return PaymentDTO.fromEntity(updatedPayment);
     }
     
-    private boolean simulatePaymentProcessing() {
-        // Simulate payment gateway processing (90% success rate)
-        return random.nextInt(10) < 9;
-    }
-    
     @KafkaListener(topics = "order-events", groupId = "payment-service-group")
     public void handleOrderEvent(String event) {
         // Handle order events
-        System.out.println("Received order event: " + event);
+        log.debug("Received order event: {}", event);
     }
 }
 
@@ -0,0 +1,99 @@
+package com.ecommerce.payment.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, time-ordered 64-bit ID generator (Snowflake layout).
+ * <pre>
+ *  41 bits millis since 2024-01-01 | 10 bits node id | 12 bits sequence
+ * </pre>
+ * The timestamp and sequence share one {@link AtomicLong}, so every ID issued by a node is strictly
+ * greater than the previous one. When the 4096 IDs of a millisecond are exhausted, or the clock steps
+ * backwards, the generator continues from the last issued millisecond instead of blocking; IDs stay
+ * unique and monotonic and realign with the clock once demand drops.
+ * <p>
+ * Node ids must be unique per running instance: set {@code payment.transaction-id.node-id} explicitly
+ * (e.g. from the StatefulSet ordinal). Without it a node id is derived from the host name, which is
+ * only collision-resistant, not collision-free.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "TXN";
+    private static final int ID_DIGITS = 19;
+
+    private final long nodeId;
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+
+    public TransactionIdGenerator(@Value("${payment.transaction-id.node-id:-1}") long nodeId) {
+        this.nodeId = nodeId >= 0 ? nodeId : deriveNodeId();
+        if (this.nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("payment.transaction-id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Next id as a fixed-width, lexicographically sortable transaction id, e.g. {@code TXN0001234567890123456}.
+     */
+    public String nextTransactionId() {
+        return format(nextId());
+    }
+
+    static String format(long id) {
+        char[] chars = new char[PREFIX.length() + ID_DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        long remaining = id;
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + (remaining % 10));
+            remaining /= 10;
+        }
+        return new String(chars);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    private static long deriveNodeId() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isBlank()) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                host = "localhost";
+            }
+        }
+        return (host.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.dto.PaymentDTO;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.payment.gateway.PaymentProcessor;
+import com.ecommerce.payment.gateway.PaymentResult;
+import com.ecommerce.payment.metrics.PaymentMetricsRecorder;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentPipelineTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentMetricsRecorder metricsRecorder;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PaymentPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void gatewayResultCompletesThePayment() {
+        PaymentResult approved = PaymentResult.approved("Payment successful");
+        pipeline = pipeline(payment -> approved, Duration.ofSeconds(2));
+
+        pipeline.submit(payment(1L));
+
+        verify(paymentService, timeout(2000)).completePayment(1L, approved);
+    }
+
+    @Test
+    void gatewayErrorDeclinesThePayment() {
+        pipeline = pipeline(payment -> {
+            throw new IllegalStateException("connection reset");
+        }, Duration.ofSeconds(2));
+
+        pipeline.submit(payment(2L));
+
+        verify(paymentService, timeout(2000)).completePayment(2L, PaymentResult.declined("Payment processing error"));
+    }
+
+    @Test
+    void timedOutCallIsLeftForReconciliation() {
+        pipeline = pipeline(this::blockUntilReleased, Duration.ofMillis(50));
+
+        pipeline.submit(payment(3L));
+
+        verify(metricsRecorder, timeout(2000)).recordGatewayTimeout();
+        verify(paymentService, never()).completePayment(any(), any());
+    }
+
+    @Test
+    void fullBulkheadRejectsNewPaymentsUpFront() {
+        pipeline = pipeline(this::blockUntilReleased, Duration.ofSeconds(5));
+        pipeline.submit(payment(4L));
+        pipeline.submit(payment(5L));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> pipeline.checkCapacity(Payment.PaymentMethod.CREDIT_CARD));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        verify(metricsRecorder).recordGatewayRejection();
+
+        pipeline.submit(payment(6L));
+        verify(paymentService, timeout(2000)).completePayment(eq(6L),
+            eq(PaymentResult.declined("Payment gateway busy - please retry")));
+    }
+
+    @Test
+    void unsupportedPaymentMethodIsABadRequest() {
+        PaymentProcessor cardsOnly = processor(payment -> PaymentResult.approved("ok"));
+        when(cardsOnly.supports(Payment.PaymentMethod.PAYPAL)).thenReturn(false);
+        pipeline = new PaymentPipeline(List.of(cardsOnly), paymentService, bulkheads(), limiters(Duration.ofSeconds(1)),
+            metricsRecorder);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> pipeline.checkCapacity(Payment.PaymentMethod.PAYPAL));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private PaymentResult blockUntilReleased(PaymentDTO payment) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return PaymentResult.approved("late");
+    }
+
+    private PaymentPipeline pipeline(Function<PaymentDTO, PaymentResult> gateway, Duration timeout) {
+        PaymentProcessor processor = processor(gateway);
+        when(processor.supports(any())).thenReturn(true);
+        return new PaymentPipeline(List.of(processor), paymentService, bulkheads(), limiters(timeout), metricsRecorder);
+    }
+
+    private static PaymentProcessor processor(Function<PaymentDTO, PaymentResult> gateway) {
+        PaymentProcessor processor = mock(PaymentProcessor.class);
+        lenient().when(processor.getName()).thenReturn("test-gateway");
+        lenient().when(processor.process(any())).thenAnswer(invocation -> gateway.apply(invocation.getArgument(0)));
+        return processor;
+    }
+
+    private static ThreadPoolBulkheadRegistry bulkheads() {
+        // one worker and one queued call
+        return ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+            .coreThreadPoolSize(1)
+            .maxThreadPoolSize(1)
+            .queueCapacity(1)
+            .build());
+    }
+
+    private static TimeLimiterRegistry limiters(Duration timeout) {
+        return TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(timeout).build());
+    }
+
+    private static PaymentDTO payment(Long id) {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setId(id);
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        return payment;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.dto.PaymentCorrectionEvent;
+import com.ecommerce.payment.entity.Payment;
+import com.ecommerce.payment.entity.ReconciliationCheckpoint;
+import com.ecommerce.payment.gateway.PaymentProcessor;
+import com.ecommerce.payment.gateway.PaymentResult;
+import com.ecommerce.payment.metrics.PaymentMetricsRecorder;
+import com.ecommerce.payment.repository.PaymentRepository;
+import com.ecommerce.payment.repository.ReconciliationCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationJobTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentProcessor processor;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PaymentMetricsRecorder metricsRecorder;
+
+    private PaymentReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new PaymentReconciliationJob(paymentRepository, checkpointRepository, paymentService, List.of(processor),
+            kafkaTemplate, metricsRecorder, true, Duration.ofMinutes(15), Duration.ofMinutes(10), CHUNK_SIZE, 2);
+        lenient().when(checkpointRepository.save(any())).then(returnsFirstArg());
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void fullRunSettlesStalePaymentsThenPublishesOrderSync() {
+        when(checkpointRepository.findById(PaymentReconciliationJob.JOB_NAME)).thenReturn(Optional.empty());
+        Payment confirmed = payment(1L, Payment.PaymentStatus.PROCESSING);
+        Payment unknown = payment(2L, Payment.PaymentStatus.PENDING);
+        when(paymentRepository.findStaleAfterId(any(), any(), eq(0L), eq(PageRequest.of(0, CHUNK_SIZE))))
+            .thenReturn(List.of(confirmed, unknown));
+        when(paymentRepository.findStaleAfterId(any(), any(), eq(2L), any())).thenReturn(List.of());
+        when(processor.supports(any())).thenReturn(true);
+        PaymentResult approved = PaymentResult.approved("captured");
+        when(processor.lookup(argThat(dto -> dto != null && dto.getId() == 1L))).thenReturn(Optional.of(approved));
+        when(processor.lookup(argThat(dto -> dto != null && dto.getId() == 2L))).thenReturn(Optional.empty());
+        Payment settled = payment(7L, Payment.PaymentStatus.COMPLETED);
+        when(paymentRepository.findLatestPerOrderAfterId(any(), any(), eq(0L), any())).thenReturn(List.of(settled));
+        when(kafkaTemplate.send(eq("payment-events"), eq("payment.reconciled"), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        job.run(false);
+
+        verify(paymentService).completePayment(1L, approved);
+        verify(paymentService).completePayment(2L,
+            PaymentResult.declined("Expired by reconciliation: no gateway confirmation"));
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("payment-events"), eq("payment.reconciled"), published.capture());
+        assertEquals(7L, ((PaymentCorrectionEvent) published.getValue()).getPaymentId());
+
+        ArgumentCaptor<ReconciliationCheckpoint> saved = ArgumentCaptor.forClass(ReconciliationCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(saved.capture());
+        ReconciliationCheckpoint last = saved.getValue();
+        assertEquals(ReconciliationCheckpoint.Phase.IDLE, last.getPhase());
+        assertEquals(last.getRunStartedAt(), last.getSyncSince());
+        assertNull(last.getLeaseOwner());
+        verify(metricsRecorder).recordReconciliationRun(any());
+    }
+
+    @Test
+    void interruptedRunResumesFromItsCheckpoint() {
+        ReconciliationCheckpoint checkpoint = checkpoint(ReconciliationCheckpoint.Phase.ORDER_SYNC, 10L);
+        when(checkpointRepository.findById(PaymentReconciliationJob.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        LocalDateTime syncSince = checkpoint.getSyncSince();
+        when(paymentRepository.findLatestPerOrderAfterId(any(), any(), eq(10L), any())).thenReturn(List.of());
+
+        job.run(true);
+
+        verify(paymentRepository, never()).findStaleAfterId(any(), any(), anyLong(), any());
+        verify(paymentRepository).findLatestPerOrderAfterId(any(), eq(syncSince), eq(10L), any());
+        assertEquals(ReconciliationCheckpoint.Phase.IDLE, checkpoint.getPhase());
+    }
+
+    @Test
+    void leaseHeldByAnotherInstanceSkipsTheRun() {
+        ReconciliationCheckpoint checkpoint = checkpoint(ReconciliationCheckpoint.Phase.STALE_PAYMENTS, 4L);
+        checkpoint.setLeaseOwner("other-instance");
+        checkpoint.setLeaseUntil(LocalDateTime.now().plusMinutes(5));
+        when(checkpointRepository.findById(PaymentReconciliationJob.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+
+        job.run(false);
+
+        verify(checkpointRepository, never()).save(any());
+        verifyNoInteractions(paymentRepository, paymentService, kafkaTemplate);
+    }
+
+    @Test
+    void failedPaymentDoesNotAbortTheRun() {
+        when(checkpointRepository.findById(PaymentReconciliationJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(paymentRepository.findStaleAfterId(any(), any(), eq(0L), any()))
+            .thenReturn(List.of(payment(1L, Payment.PaymentStatus.PENDING)));
+        when(processor.supports(any())).thenReturn(true);
+        when(processor.lookup(any())).thenReturn(Optional.empty());
+        when(paymentService.completePayment(eq(1L), any())).thenThrow(new IllegalStateException("row locked"));
+        when(paymentRepository.findLatestPerOrderAfterId(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        job.run(false);
+
+        verify(metricsRecorder).recordReconciliationRows("stale_payments", 1);
+        verify(metricsRecorder).recordReconciliationRun(any());
+    }
+
+    private static ReconciliationCheckpoint checkpoint(ReconciliationCheckpoint.Phase phase, long lastId) {
+        ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint();
+        checkpoint.setJobName(PaymentReconciliationJob.JOB_NAME);
+        checkpoint.setPhase(phase);
+        checkpoint.setLastId(lastId);
+        checkpoint.setRunStartedAt(LocalDateTime.now().minusMinutes(1));
+        checkpoint.setSyncSince(LocalDateTime.now().minusHours(1));
+        return checkpoint;
+    }
+
+    private static Payment payment(Long id, Payment.PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setOrderId(100 + id);
+        payment.setStatus(status);
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        payment.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        return payment;
+    }
+}
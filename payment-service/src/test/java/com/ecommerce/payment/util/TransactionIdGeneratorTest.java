@@ -0,0 +1,77 @@
+package com.ecommerce.payment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(5);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long last = -1;
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    long id = generator.nextId();
+                    assertTrue(id > last, "ids seen by one thread must increase");
+                    ids.add(id);
+                    last = id;
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    void idCarriesTheNodeId() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(5);
+
+        long id = generator.nextId();
+
+        assertEquals(5, (id >>> TransactionIdGenerator.SEQUENCE_BITS) & TransactionIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void transactionIdsAreFixedWidthAndSortable() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(1);
+
+        String first = generator.nextTransactionId();
+        String second = generator.nextTransactionId();
+
+        assertEquals("TXN0000000000000000042", TransactionIdGenerator.format(42));
+        assertEquals(22, first.length());
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new TransactionIdGenerator(TransactionIdGenerator.MAX_NODE_ID + 1));
+    }
+}
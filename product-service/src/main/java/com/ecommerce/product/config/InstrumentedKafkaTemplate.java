@@ -0,0 +1,142 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.metrics.OperationTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KafkaTemplate that completes every send with a callback, so results are no longer dropped by
+ * callers that ignore the returned future.
+ * <p>
+ * Each send is timed from hand-off to broker acknowledgement and recorded per topic and outcome;
+ * failures are logged and counted. At most {@code maxInFlight} sends may be unacknowledged at once;
+ * beyond that, callers block for up to {@code inFlightWait} and then fail fast instead of queueing
+ * without bound behind a slow or unavailable broker.
+ */
+public class InstrumentedKafkaTemplate<K, V> extends KafkaTemplate<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentedKafkaTemplate.class);
+
+    private final MeterRegistry registry;
+    private final Semaphore inFlight;
+    private final long inFlightWaitNanos;
+    private final Counter rejected;
+    private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
+
+    public InstrumentedKafkaTemplate(ProducerFactory<K, V> producerFactory, MeterRegistry registry,
+                                     int maxInFlight, Duration inFlightWait) {
+        super(producerFactory);
+        this.registry = registry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.inFlightWaitNanos = inFlightWait.toNanos();
+        this.rejected = Counter.builder("kafka_publish_rejected_total")
+            .description("Sends rejected because the in-flight limit stayed exhausted")
+            .register(registry);
+        Gauge.builder("kafka_publish_in_flight", inFlight, s -> maxInFlight - s.availablePermits())
+            .description("Sends awaiting broker acknowledgement")
+            .register(registry);
+    }
+
+    @Override
+    protected CompletableFuture<SendResult<K, V>> doSend(ProducerRecord<K, V> producerRecord, Observation observation) {
+        long handOff = System.nanoTime();
+        TopicMeters meters;
+        long start;
+        CompletableFuture<SendResult<K, V>> future;
+        try {
+            acquirePermit(producerRecord.topic());
+            meters = metersFor(producerRecord.topic());
+            start = System.nanoTime();
+            try {
+                future = super.doSend(producerRecord, observation);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                meters.failure(System.nanoTime() - start);
+                throw e;
+            }
+        } finally {
+            // Only the caller's blocking part (permit wait, metadata, serialization) counts against
+            // the service operation; the acknowledgement arrives on the producer thread
+            OperationTimings.add(OperationTimings.Dependency.KAFKA, System.nanoTime() - handOff);
+        }
+        future.whenComplete((result, ex) -> {
+            inFlight.release();
+            long elapsed = System.nanoTime() - start;
+            if (ex == null) {
+                meters.success(elapsed);
+            } else {
+                meters.failure(elapsed);
+                log.warn("Failed to publish {} to {}: {}", producerRecord.key(), producerRecord.topic(), ex.getMessage());
+            }
+        });
+        return future;
+    }
+
+    private void acquirePermit(String topic) {
+        boolean acquired;
+        try {
+            acquired = inFlight.tryAcquire(inFlightWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting to publish to " + topic, e);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new KafkaException("Too many unacknowledged sends; rejected publish to " + topic);
+        }
+    }
+
+    private TopicMeters metersFor(String topic) {
+        return topicMeters.computeIfAbsent(topic, t -> new TopicMeters(t, registry));
+    }
+
+    private static final class TopicMeters {
+        private final Timer successes;
+        private final Timer failures;
+        private final Counter errors;
+
+        TopicMeters(String topic, MeterRegistry registry) {
+            this.successes = latencyTimer(topic, "success", registry);
+            this.failures = latencyTimer(topic, "failure", registry);
+            this.errors = Counter.builder("kafka_publish_errors_total")
+                .description("Sends that failed or were not acknowledged")
+                .tag("topic", topic)
+                .register(registry);
+        }
+
+        private static Timer latencyTimer(String topic, String result, MeterRegistry registry) {
+            return Timer.builder("kafka_publish_latency")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+
+        void success(long nanos) {
+            successes.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void failure(long nanos) {
+            failures.record(nanos, TimeUnit.NANOSECONDS);
+            errors.increment();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.product.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.filter.LevelFilter;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import com.ecommerce.product.dto.InventoryEvent;
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.metrics.DroppedLogEventCounter;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.appender.LogstashTcpSocketAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Reflection, serialization and proxies the native image (built with {@code -Pnative}) needs beyond
+ * what Spring AOT derives from the bean definitions. Entities, repositories and controller request and
+ * response types are covered by AOT itself.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+public class NativeImageConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Jackson outside controllers: Product is published to product-events, InventoryEvent read
+            // from inventory-events
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Product.class, InventoryEvent.class);
+            // The products cache holds ProductDTO and List<ProductDTO> in Redis with JDK serialization
+            Stream.of(ProductDTO.class, Product.ProductStatus.class, ArrayList.class, BigDecimal.class,
+                    BigInteger.class, Long.class, Integer.class, Number.class, String.class, Enum.class)
+                .forEach(hints.serialization()::registerType);
+            hints.serialization().registerType(TypeReference.of("java.time.Ser"));
+            // datasource-proxy wraps every JDBC object in a JDK proxy
+            Stream.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class)
+                .forEach(type -> hints.proxies().registerJdkProxy(ProxyJdbcObject.class, type));
+            // logback-spring.xml: created and configured by Joran through reflection
+            Stream.of(ConsoleAppender.class, LevelFilter.class, ThresholdFilter.class, LogstashEncoder.class,
+                    LoggingEventAsyncDisruptorAppender.class, LogstashTcpSocketAppender.class,
+                    DroppedLogEventCounter.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+            Stream.of(Level.class, FilterReply.class, ch.qos.logback.core.util.Duration.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.tracing.AdaptiveSampler;
+import com.ecommerce.product.tracing.AdaptiveSamplingProperties;
+import com.ecommerce.product.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces Boot's fixed-probability sampler with {@link AdaptiveSampler} and registers the tail
+ * processor next to Boot's batch span processor; Boot's tracer provider picks up both.
+ */
+@Configuration
+@EnableConfigurationProperties(AdaptiveSamplingProperties.class)
+public class TracingSamplingConfig {
+
+    @Bean
+    public Sampler adaptiveSampler(AdaptiveSamplingProperties properties, MeterRegistry meterRegistry,
+                                   @Value("${management.tracing.sampling.probability:0.1}") double fallbackProbability) {
+        return new AdaptiveSampler(properties, fallbackProbability, meterRegistry);
+    }
+
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(AdaptiveSamplingProperties properties,
+                                                               ObjectProvider<SpanExporter> spanExporters,
+                                                               MeterRegistry meterRegistry) {
+        return new TailSamplingSpanProcessor(properties,
+            SpanExporter.composite(spanExporters.orderedStream().toList()), meterRegistry);
+    }
+}
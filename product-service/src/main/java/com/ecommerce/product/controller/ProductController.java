@@ -3,9 +3,11 @@ package com.ecommerce.product.controller;
 import com.ecommerce.product.dto.ProductDTO;
 import com.ecommerce.product.entity.Product;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.service.StockCounterService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -13,15 +15,27 @@ import java.util.List;
 @RequestMapping("/products")
 public class ProductController {
     
+    private static final int MAX_BATCH_SIZE = 100;
+    
     private final ProductService productService;
+    private final StockCounterService stockCounter;
     
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, StockCounterService stockCounter) {
         this.productService = productService;
+        this.stockCounter = stockCounter;
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+        return ResponseEntity.ok(stockCounter.applyLiveStock(productService.getProductById(id)));
+    }
+    
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductDTO>> getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_SIZE + " ids per batch");
+        }
+        return ResponseEntity.ok(stockCounter.applyLiveStock(productService.getProductsByIds(ids)));
     }
     
     @GetMapping
@@ -29,12 +43,12 @@ public class ProductController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String search) {
         if (category != null) {
-            return ResponseEntity.ok(productService.getProductsByCategory(category));
+            return ResponseEntity.ok(stockCounter.applyLiveStock(productService.getProductsByCategory(category)));
         }
         if (search != null) {
-            return ResponseEntity.ok(productService.searchProducts(search));
+            return ResponseEntity.ok(stockCounter.applyLiveStock(productService.searchProducts(search)));
         }
-        return ResponseEntity.ok(productService.getAllProducts());
+        return ResponseEntity.ok(stockCounter.applyLiveStock(productService.getAllProducts()));
     }
     
     @PostMapping
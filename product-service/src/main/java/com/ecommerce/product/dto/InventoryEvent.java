@@ -0,0 +1,23 @@
+package com.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryEvent {
+    private Long productId;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    // Inventory row version; orders snapshots of one product
+    private Long version;
+
+    public int availableQuantity() {
+        int reserved = reservedQuantity != null ? reservedQuantity : 0;
+        return quantity - reserved;
+    }
+}
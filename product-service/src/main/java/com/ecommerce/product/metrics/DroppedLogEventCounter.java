@@ -0,0 +1,20 @@
+package com.ecommerce.product.metrics;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.Metrics;
+import net.logstash.logback.appender.listener.TcpAppenderListener;
+
+/**
+ * Registered on the async appenders in {@code logback-spring.xml}. Logback creates it before the
+ * application context exists, so it counts through the global registry, which Boot links to the
+ * Prometheus registry once that is up.
+ */
+public class DroppedLogEventCounter implements TcpAppenderListener<ILoggingEvent> {
+
+    @Override
+    public void eventAppendFailed(Appender<ILoggingEvent> appender, ILoggingEvent event, Throwable reason) {
+        Metrics.counter("logging_events_dropped_total", "appender", appender.getName(),
+            "level", event.getLevel().toString()).increment();
+    }
+}
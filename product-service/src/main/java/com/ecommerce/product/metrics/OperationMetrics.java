@@ -0,0 +1,123 @@
+package com.ecommerce.product.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the service layer (see {@code OperationMetricsConfig}).
+ * <p>
+ * {@code service_operation_duration} is tagged by operation ({@code Class.method}) and outcome
+ * ({@code success}, {@code client_error} for 4xx {@link ResponseStatusException}s, {@code error});
+ * {@code service_operation_dependency_duration} splits the outermost operation's time by dependency
+ * (db, cache, kafka) as collected by {@link OperationTimings}, recorded only for dependencies the
+ * operation used. Both use fixed SLO buckets instead of percentile histograms so the series count
+ * per operation stays small. Meters are resolved once per method and cached, so recording does not
+ * allocate.
+ */
+@Component
+public class OperationMetrics implements MethodInterceptor {
+
+    private static final String[] OUTCOMES = {"success", "client_error", "error"};
+    private static final int SUCCESS = 0;
+    private static final int CLIENT_ERROR = 1;
+    private static final int ERROR = 2;
+
+    private final MeterRegistry registry;
+    private final Duration[] serviceLevelObjectives;
+    private final Map<Method, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    public OperationMetrics(MeterRegistry registry,
+            @Value("${metrics.operations.slo:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s,2500ms,5s}")
+            Duration[] serviceLevelObjectives) {
+        this.registry = registry;
+        this.serviceLevelObjectives = serviceLevelObjectives;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        OperationMeters operation = metersFor(invocation.getMethod());
+        OperationTimings.Frame frame = OperationTimings.enter();
+        long start = System.nanoTime();
+        int outcome = ERROR;
+        try {
+            Object result = invocation.proceed();
+            outcome = SUCCESS;
+            return result;
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                outcome = CLIENT_ERROR;
+            }
+            throw e;
+        } finally {
+            operation.outcome(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (OperationTimings.exit(frame)) {
+                for (OperationTimings.Dependency dependency : OperationTimings.dependencies()) {
+                    long nanos = frame.nanos(dependency);
+                    if (nanos > 0) {
+                        operation.dependency(dependency).record(nanos, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+        }
+    }
+
+    private OperationMeters metersFor(Method method) {
+        OperationMeters operation = meters.get(method);
+        if (operation != null) {
+            return operation;
+        }
+        return meters.computeIfAbsent(method,
+            m -> new OperationMeters(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+    }
+
+    private final class OperationMeters {
+        private final String name;
+        private final Timer[] outcomes = new Timer[OUTCOMES.length];
+        private final Timer[] dependencies = new Timer[OperationTimings.dependencies().length];
+
+        OperationMeters(String name) {
+            this.name = name;
+        }
+
+        // Registered on first use so operations that never fail or never touch a dependency do not
+        // export empty series; a racing registration returns the same meter from the registry.
+        Timer outcome(int outcome) {
+            Timer timer = outcomes[outcome];
+            if (timer == null) {
+                timer = Timer.builder("service_operation_duration")
+                    .description("Service method execution time")
+                    .tag("operation", name)
+                    .tag("outcome", OUTCOMES[outcome])
+                    .serviceLevelObjectives(serviceLevelObjectives)
+                    .register(registry);
+                outcomes[outcome] = timer;
+            }
+            return timer;
+        }
+
+        Timer dependency(OperationTimings.Dependency dependency) {
+            Timer timer = dependencies[dependency.ordinal()];
+            if (timer == null) {
+                timer = Timer.builder("service_operation_dependency_duration")
+                    .description("Time a service operation spent in the database, cache or Kafka producer")
+                    .tag("operation", name)
+                    .tag("dependency", dependency.tag())
+                    .serviceLevelObjectives(serviceLevelObjectives)
+                    .register(registry);
+                dependencies[dependency.ordinal()] = timer;
+            }
+            return timer;
+        }
+    }
+}
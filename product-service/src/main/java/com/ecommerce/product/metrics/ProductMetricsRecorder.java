@@ -9,6 +9,7 @@ public class ProductMetricsRecorder {
 
     private final Counter createdCounter;
     private final Counter stockAdjustmentCounter;
+    private final Counter stockFlushCounter;
 
     public ProductMetricsRecorder(MeterRegistry registry) {
         this.createdCounter = Counter.builder("product_created_total")
@@ -17,6 +18,9 @@ public class ProductMetricsRecorder {
         this.stockAdjustmentCounter = Counter.builder("product_stock_adjustments_total")
             .description("Total stock adjustment operations")
             .register(registry);
+        this.stockFlushCounter = Counter.builder("product_stock_rows_flushed_total")
+            .description("Product rows written by write-behind stock flushes")
+            .register(registry);
     }
 
     public void recordProductCreated() {
@@ -26,6 +30,10 @@ public class ProductMetricsRecorder {
     public void recordStockAdjustment(Number delta) {
         stockAdjustmentCounter.increment(Math.abs(delta.doubleValue()));
     }
+
+    public void recordStockFlush(int rows) {
+        stockFlushCounter.increment(rows);
+    }
 }
 
 
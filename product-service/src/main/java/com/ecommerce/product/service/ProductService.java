@@ -7,9 +7,11 @@ import com.ecommerce.product.repository.ProductRepository;
 import io.micrometer.observation.annotation.Observed;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,34 +23,51 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ProductMetricsRecorder metricsRecorder;
+    private final StockCounterService stockCounter;
     
     public ProductService(ProductRepository productRepository, KafkaTemplate<String, Object> kafkaTemplate,
-                          ProductMetricsRecorder metricsRecorder) {
+                          ProductMetricsRecorder metricsRecorder, StockCounterService stockCounter) {
         this.productRepository = productRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.metricsRecorder = metricsRecorder;
+        this.stockCounter = stockCounter;
     }
     
     @Cacheable(value = "products", key = "#id")
+    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + id));
         return ProductDTO.fromEntity(product);
     }
     
     @Cacheable(value = "products", key = "'all'")
+    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll().stream()
             .map(ProductDTO::fromEntity)
             .collect(Collectors.toList());
     }
     
+    /**
+     * Batch lookup for callers that need several products at once (e.g. the gateway's order detail
+     * aggregation); unknown ids are simply absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByIds(List<Long> ids) {
+        return productRepository.findAllById(ids).stream()
+            .map(ProductDTO::fromEntity)
+            .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
     public List<ProductDTO> getProductsByCategory(String category) {
         return productRepository.findByCategory(category).stream()
             .map(ProductDTO::fromEntity)
             .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<ProductDTO> searchProducts(String name) {
         return productRepository.findByNameContainingIgnoreCase(name).stream()
             .map(ProductDTO::fromEntity)
@@ -59,6 +78,7 @@ public class ProductService {
     @Observed(name = "product.create", contextualName = "product-create")
     public ProductDTO createProduct(Product product) {
         Product savedProduct = productRepository.save(product);
+        stockCounter.set(savedProduct.getId(), savedProduct.getStock());
         metricsRecorder.recordProductCreated();
         
         // Publish product created event
@@ -70,7 +90,7 @@ public class ProductService {
     @CacheEvict(value = "products", key = "#id")
     public ProductDTO updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + id));
         
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
@@ -81,6 +101,7 @@ public class ProductService {
         product.setStatus(productDetails.getStatus());
         
         Product updatedProduct = productRepository.save(product);
+        stockCounter.set(updatedProduct.getId(), updatedProduct.getStock());
         
         // Publish product updated event
         kafkaTemplate.send("product-events", "product.updated", updatedProduct);
@@ -91,32 +112,31 @@ public class ProductService {
     @CacheEvict(value = "products", key = "#id")
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        stockCounter.remove(id);
         
         // Publish product deleted event
         kafkaTemplate.send("product-events", "product.deleted", id);
     }
     
-    @CacheEvict(value = "products", key = "#id")
+    /**
+     * Adjusts stock through the write-behind counter; the products row is updated by the next
+     * {@link StockCounterService#flush()} and the cached product entry is left in place.
+     */
     @Observed(name = "product.stock", contextualName = "product-stock-update")
     public ProductDTO updateStock(Long id, Integer quantity) {
         Product product = productRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + id));
         
-        product.setStock(product.getStock() + quantity);
-        if (product.getStock() <= 0) {
-            product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
-        }
-        
-        Product updatedProduct = productRepository.save(product);
+        stockCounter.adjust(id, quantity);
         metricsRecorder.recordStockAdjustment(quantity);
+        ProductDTO updatedProduct = stockCounter.applyLiveStock(ProductDTO.fromEntity(product));
         
         // Publish stock updated event
         kafkaTemplate.send("product-events", "product.stock.updated", updatedProduct);
         
-        return ProductDTO.fromEntity(updatedProduct);
+        return updatedProduct;
     }
 }
-
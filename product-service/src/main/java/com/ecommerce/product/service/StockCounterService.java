@@ -0,0 +1,214 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.InventoryEvent;
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.metrics.ProductMetricsRecorder;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.stock.StockLevelStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind stock levels for products.
+ * <p>
+ * Inventory events and stock adjustments update a live level per product in the {@link StockLevelStore},
+ * which every instance shares, so replicas agree whichever of them consumed an event. Changed products
+ * are marked dirty and written to the products table by {@link #flush()} in one batch, so many
+ * adjustments to the same product collapse into a single row update and never evict the product cache.
+ * Readers overlay the live level onto cached {@link ProductDTO}s through {@link #applyLiveStock(ProductDTO)}.
+ * <p>
+ * Adjustments are deltas and product edits replace the level; both always apply. Inventory snapshots
+ * replace the level too and carry the inventory row's version, so a snapshot that arrives after a newer
+ * snapshot of the same product is dropped whatever the clocks of the hosts involved say. Product edits
+ * and deletions reach the store only once their transaction has committed, so a rolled-back edit is
+ * never flushed into the products table.
+ */
+@Service
+public class StockCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockCounterService.class);
+
+    private static final Set<String> STOCK_EVENTS = Set.of(
+        "inventory.created", "inventory.updated", "inventory.reserved",
+        "inventory.released", "inventory.confirmed");
+
+    private static final int FLUSH_BATCH = 1000;
+
+    private final StockLevelStore store;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductMetricsRecorder metricsRecorder;
+    private final ObjectMapper objectMapper;
+
+    public StockCounterService(StockLevelStore store, ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               ProductMetricsRecorder metricsRecorder, ObjectMapper objectMapper) {
+        this.store = store;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metricsRecorder = metricsRecorder;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Applies a relative change, seeding the level from the products table on first use. The seed is
+     * read before touching the store, so a slow query never holds up changes to other products.
+     */
+    public int adjust(Long productId, int delta) {
+        Integer updated = store.adjust(productId, delta);
+        if (updated == null) {
+            store.seed(productId, loadStock(productId));
+            updated = store.adjust(productId, delta);
+            if (updated == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + productId);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Replaces the stock level, e.g. from an explicit product update, once the surrounding transaction
+     * (if any) commits.
+     */
+    public void set(Long productId, int stock) {
+        afterCommit(() -> store.set(productId, stock));
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> store.remove(productId));
+    }
+
+    public ProductDTO applyLiveStock(ProductDTO product) {
+        Integer level = store.get(List.of(product.getId())).get(product.getId());
+        return level != null ? withStock(product, level) : product;
+    }
+
+    public List<ProductDTO> applyLiveStock(List<ProductDTO> products) {
+        if (products.isEmpty()) {
+            return products;
+        }
+        Map<Long, Integer> levels = store.get(products.stream()
+            .map(ProductDTO::getId)
+            .collect(Collectors.toList()));
+        return products.stream()
+            .map(product -> {
+                Integer level = levels.get(product.getId());
+                return level != null ? withStock(product, level) : product;
+            })
+            .collect(Collectors.toList());
+    }
+
+    @KafkaListener(topics = "inventory-events", groupId = "product-service-stock-group",
+        properties = "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer")
+    public void handleInventoryEvent(ConsumerRecord<String, String> record) {
+        if (!STOCK_EVENTS.contains(record.key())) {
+            return;
+        }
+        InventoryEvent event;
+        try {
+            event = objectMapper.readValue(record.value(), InventoryEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable inventory event {}: {}", record.key(), e.getMessage());
+            return;
+        }
+        if (event.getProductId() == null || event.getQuantity() == null) {
+            return;
+        }
+        // A store failure is left to the container to retry.
+        if (event.getVersion() != null) {
+            store.applySnapshot(event.getProductId(), event.availableQuantity(), event.getVersion());
+        } else {
+            // Published by an inventory-service that predates row versions; nothing to order it by
+            store.set(event.getProductId(), event.availableQuantity());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.stock.flush-interval-ms:500}")
+    public void flush() {
+        Map<Long, Integer> pending = store.drainDirty(FLUSH_BATCH);
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> products = productRepository.findAllById(pending.keySet());
+                for (Product product : products) {
+                    int stock = pending.get(product.getId());
+                    product.setStock(stock);
+                    product.setStatus(deriveStatus(product.getStatus(), stock));
+                }
+            });
+            metricsRecorder.recordStockFlush(pending.size());
+        } catch (RuntimeException e) {
+            store.markDirty(pending.keySet());
+            log.warn("Stock flush of {} products failed, will retry: {}", pending.size(), e.getMessage());
+            return;
+        }
+        // Another instance may have flushed a newer level of the same product first; write it again.
+        Map<Long, Integer> current = store.get(pending.keySet());
+        List<Long> moved = pending.keySet().stream()
+            .filter(id -> current.containsKey(id) && !current.get(id).equals(pending.get(id)))
+            .collect(Collectors.toList());
+        store.markDirty(moved);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static void afterCommit(Runnable write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    private int loadStock(Long productId) {
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + productId));
+        return product.getStock();
+    }
+
+    private static ProductDTO withStock(ProductDTO product, int stock) {
+        Product.ProductStatus status = deriveStatus(product.getStatus(), stock);
+        if (product.getStock() != null && product.getStock() == stock && product.getStatus() == status) {
+            return product;
+        }
+        return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+            stock, product.getCategory(), product.getImageUrl(), product.getSku(), status,
+            product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    static Product.ProductStatus deriveStatus(Product.ProductStatus current, int stock) {
+        if (current == Product.ProductStatus.INACTIVE) {
+            return current;
+        }
+        return stock <= 0 ? Product.ProductStatus.OUT_OF_STOCK : Product.ProductStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.product.stock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for {@link RedisStockLevelStore} ({@code product.stock.store: local}), for local
+ * runs without Redis. Levels are per instance, so only use it with a single product-service instance.
+ */
+@Component
+@ConditionalOnProperty(name = "product.stock.store", havingValue = "local")
+public class LocalStockLevelStore implements StockLevelStore {
+
+    private static final long NO_SNAPSHOT = -1;
+
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Integer adjust(Long productId, int delta) {
+        Level updated = levels.computeIfPresent(productId,
+            (id, level) -> new Level(level.stock + delta, level.snapshotVersion));
+        if (updated == null) {
+            return null;
+        }
+        dirty.add(productId);
+        return updated.stock;
+    }
+
+    @Override
+    public void seed(Long productId, int stock) {
+        levels.putIfAbsent(productId, new Level(stock, NO_SNAPSHOT));
+    }
+
+    @Override
+    public void set(Long productId, int stock) {
+        levels.merge(productId, new Level(stock, NO_SNAPSHOT),
+            (current, candidate) -> new Level(stock, current.snapshotVersion));
+        dirty.add(productId);
+    }
+
+    @Override
+    public boolean applySnapshot(Long productId, int stock, long version) {
+        Level fresh = new Level(stock, version);
+        Level winner = levels.merge(productId, fresh,
+            (current, candidate) -> candidate.snapshotVersion <= current.snapshotVersion ? current : candidate);
+        if (winner != fresh) {
+            return false;
+        }
+        dirty.add(productId);
+        return true;
+    }
+
+    @Override
+    public Map<Long, Integer> get(Collection<Long> productIds) {
+        Map<Long, Integer> known = new HashMap<>();
+        for (Long productId : productIds) {
+            Level level = levels.get(productId);
+            if (level != null) {
+                known.put(productId, level.stock);
+            }
+        }
+        return known;
+    }
+
+    @Override
+    public void remove(Long productId) {
+        levels.remove(productId);
+        dirty.remove(productId);
+    }
+
+    @Override
+    public Map<Long, Integer> drainDirty(int max) {
+        Map<Long, Integer> drained = new HashMap<>();
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext() && drained.size() < max) {
+            Long productId = it.next();
+            // Remove before reading so a concurrent change re-marks the product for the next flush.
+            it.remove();
+            Level level = levels.get(productId);
+            if (level != null) {
+                drained.put(productId, level.stock);
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public void markDirty(Collection<Long> productIds) {
+        dirty.addAll(productIds);
+    }
+
+    private static final class Level {
+        private final int stock;
+        private final long snapshotVersion;
+
+        Level(int stock, long snapshotVersion) {
+            this.stock = stock;
+            this.snapshotVersion = snapshotVersion;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecommerce.product.stock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stock levels shared by every product-service instance. Each product has a level and the version of
+ * the last inventory snapshot applied to it; adjustments, sets and snapshots run as Lua scripts, so concurrent changes from any instance or Kafka
+ * consumer apply atomically and the dirty set is drained by whichever instance flushes first. Reads fall
+ * back to the stock in the products table while Redis is unavailable.
+ */
+@Component
+@ConditionalOnProperty(name = "product.stock.store", havingValue = "redis", matchIfMissing = true)
+public class RedisStockLevelStore implements StockLevelStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisStockLevelStore.class);
+
+    private static final String LEVEL_PREFIX = "product:stock:level:";
+    // Inventory row versions; the old product:stock:version: keys held epoch millis and are not reused
+    private static final String VERSION_PREFIX = "product:stock:snapshot-version:";
+    private static final String DIRTY_KEY = "product:stock:dirty";
+
+    private static final RedisScript<Long> ADJUST = RedisScript.of(
+        "if redis.call('EXISTS', KEYS[1]) == 0 then\n"
+        + "  return false\n"
+        + "end\n"
+        + "local level = redis.call('INCRBY', KEYS[1], ARGV[1])\n"
+        + "redis.call('SADD', KEYS[2], ARGV[2])\n"
+        + "return level\n",
+        Long.class);
+
+    private static final RedisScript<Long> SET = RedisScript.of(
+        "redis.call('SET', KEYS[1], ARGV[1])\n"
+        + "redis.call('SADD', KEYS[2], ARGV[2])\n"
+        + "return 1\n",
+        Long.class);
+
+    private static final RedisScript<Long> SNAPSHOT = RedisScript.of(
+        "if tonumber(ARGV[2]) <= tonumber(redis.call('GET', KEYS[2]) or '-1') then\n"
+        + "  return 0\n"
+        + "end\n"
+        + "redis.call('SET', KEYS[1], ARGV[1])\n"
+        + "redis.call('SET', KEYS[2], ARGV[2])\n"
+        + "redis.call('SADD', KEYS[3], ARGV[3])\n"
+        + "return 1\n",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisStockLevelStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Integer adjust(Long productId, int delta) {
+        Long level = redisTemplate.execute(ADJUST, List.of(LEVEL_PREFIX + productId, DIRTY_KEY),
+            Integer.toString(delta), productId.toString());
+        return level != null ? level.intValue() : null;
+    }
+
+    @Override
+    public void seed(Long productId, int stock) {
+        redisTemplate.opsForValue().setIfAbsent(LEVEL_PREFIX + productId, Integer.toString(stock));
+    }
+
+    @Override
+    public void set(Long productId, int stock) {
+        redisTemplate.execute(SET, List.of(LEVEL_PREFIX + productId, DIRTY_KEY),
+            Integer.toString(stock), productId.toString());
+    }
+
+    @Override
+    public boolean applySnapshot(Long productId, int stock, long version) {
+        Long applied = redisTemplate.execute(SNAPSHOT,
+            List.of(LEVEL_PREFIX + productId, VERSION_PREFIX + productId, DIRTY_KEY), Integer.toString(stock), Long.toString(version), productId.toString());
+        return applied != null && applied == 1L;
+    }
+
+    @Override
+    public Map<Long, Integer> get(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = new ArrayList<>(productIds);
+        try {
+            return levels(ids, redisTemplate.opsForValue().multiGet(
+                ids.stream().map(id -> LEVEL_PREFIX + id).collect(Collectors.toList())));
+        } catch (DataAccessException e) {
+            log.warn("Redis stock levels unavailable, serving stored stock: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        redisTemplate.delete(List.of(LEVEL_PREFIX + productId, VERSION_PREFIX + productId));
+        redisTemplate.opsForSet().remove(DIRTY_KEY, productId.toString());
+    }
+
+    @Override
+    public Map<Long, Integer> drainDirty(int max) {
+        List<String> popped = redisTemplate.opsForSet().pop(DIRTY_KEY, max);
+        if (popped == null || popped.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = popped.stream().map(Long::valueOf).collect(Collectors.toList());
+        return levels(ids, redisTemplate.opsForValue().multiGet(
+            ids.stream().map(id -> LEVEL_PREFIX + id).collect(Collectors.toList())));
+    }
+
+    @Override
+    public void markDirty(Collection<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            redisTemplate.opsForSet().add(DIRTY_KEY,
+                productIds.stream().map(String::valueOf).toArray(String[]::new));
+        }
+    }
+
+    private static Map<Long, Integer> levels(List<Long> ids, List<String> values) {
+        Map<Long, Integer> known = new HashMap<>();
+        for (int i = 0; values != null && i < ids.size(); i++) {
+            String value = values.get(i);
+            if (value != null) {
+                known.put(ids.get(i), Integer.valueOf(value));
+            }
+        }
+        return known;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.product.stock;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Live stock levels behind {@link com.ecommerce.product.service.StockCounterService}. {@link #adjust} deltas
+ * and local {@link #set}s always apply; inventory snapshots carry the inventory row's version and
+ * {@link #applySnapshot} drops any that is not newer than the last snapshot applied to the product, so
+ * ordering never depends on a wall clock. Implementations must make each call atomic across every
+ * instance that shares the store, and must not block on anything but the store itself.
+ */
+public interface StockLevelStore {
+
+    /**
+     * Adds {@code delta} to a seeded level and marks the product dirty.
+     *
+     * @return the new level, or {@code null} if the product has not been seeded yet
+     */
+    Integer adjust(Long productId, int delta);
+
+    /**
+     * Seeds the level from the products table unless another caller got there first.
+     */
+    void seed(Long productId, int stock);
+
+    /**
+     * Replaces the level and marks the product dirty.
+     */
+    void set(Long productId, int stock);
+
+    /**
+     * Replaces the level with an inventory snapshot and marks the product dirty, unless a snapshot with
+     * the same or a newer version has already been applied.
+     *
+     * @return whether the level was replaced
+     */
+    boolean applySnapshot(Long productId, int stock, long version);
+
+    /**
+     * Returns the levels of the given products that are known to the store.
+     */
+    Map<Long, Integer> get(Collection<Long> productIds);
+
+    void remove(Long productId);
+
+    /**
+     * Takes up to {@code max} dirty products off the dirty set with their current levels.
+     */
+    Map<Long, Integer> drainDirty(int max);
+
+    void markDirty(Collection<Long> productIds);
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.product.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Head sampler that caps sampled root traces per route instead of sampling a fixed fraction.
+ * <p>
+ * A child follows its parent's decision. A root takes a token from its route's bucket
+ * ({@code tracing.adaptive-sampling.routes}, else {@code default-rate} per second); with no token it
+ * is still recorded but not sampled, so {@link TailSamplingSpanProcessor} can export it later if it
+ * turns out to fail or be slow. The route of an HTTP request is set by {@code SamplingRouteFilter}
+ * before the server span starts; other roots (Kafka, scheduled tasks) use the span name.
+ * <p>
+ * With adaptive sampling disabled this is a parent-based ratio sampler on
+ * {@code management.tracing.sampling.probability}, the Boot default.
+ */
+public class AdaptiveSampler implements Sampler {
+
+    private static final String OVERFLOW_ROUTE = "<other>";
+    private static final ThreadLocal<String> CURRENT_ROUTE = new ThreadLocal<>();
+
+    private final AdaptiveSamplingProperties properties;
+    private final Sampler fallback;
+    private final Map<String, RouteBudget> budgets = new ConcurrentHashMap<>();
+    private final Counter sampled;
+    private final Counter recordedOnly;
+
+    public AdaptiveSampler(AdaptiveSamplingProperties properties, double fallbackProbability, MeterRegistry registry) {
+        this.properties = properties;
+        this.fallback = Sampler.parentBased(Sampler.traceIdRatioBased(fallbackProbability));
+        this.sampled = Counter.builder("tracing_head_decisions_total")
+            .description("Root spans by head sampling decision")
+            .tag("decision", "sampled")
+            .register(registry);
+        this.recordedOnly = Counter.builder("tracing_head_decisions_total")
+            .description("Root spans by head sampling decision")
+            .tag("decision", "recorded_only")
+            .register(registry);
+    }
+
+    public static void setCurrentRoute(String route) {
+        CURRENT_ROUTE.set(route);
+    }
+
+    public static void clearCurrentRoute() {
+        CURRENT_ROUTE.remove();
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        if (!properties.isEnabled()) {
+            return fallback.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        }
+        SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        if (parent.isValid()) {
+            return parent.isSampled() ? SamplingResult.recordAndSample() : SamplingResult.create(SamplingDecision.RECORD_ONLY);
+        }
+        String route = CURRENT_ROUTE.get();
+        if (route == null || spanKind != SpanKind.SERVER) {
+            route = name;
+        }
+        if (budgetFor(route).tryAcquire()) {
+            sampled.increment();
+            return SamplingResult.recordAndSample();
+        }
+        recordedOnly.increment();
+        return SamplingResult.create(SamplingDecision.RECORD_ONLY);
+    }
+
+    @Override
+    public String getDescription() {
+        return "AdaptiveSampler{defaultRate=" + properties.getDefaultRate() + ", fallback=" + fallback.getDescription() + "}";
+    }
+
+    private RouteBudget budgetFor(String route) {
+        RouteBudget budget = budgets.get(route);
+        if (budget != null) {
+            return budget;
+        }
+        if (budgets.size() >= properties.getMaxRoutes()) {
+            return budgets.computeIfAbsent(OVERFLOW_ROUTE, RouteBudget::new);
+        }
+        return budgets.computeIfAbsent(route, RouteBudget::new);
+    }
+
+    /**
+     * Token bucket holding up to one second of tokens. The rate is looked up on every refill so a
+     * refreshed configuration applies to existing routes.
+     */
+    private final class RouteBudget {
+        private final String route;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        RouteBudget(String route) {
+            this.route = route;
+            this.tokens = rate();
+        }
+
+        synchronized boolean tryAcquire() {
+            double rate = rate();
+            long now = System.nanoTime();
+            tokens = Math.min(Math.max(rate, 1), tokens + (now - refilledAt) * rate / 1e9);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        private double rate() {
+            Double override = properties.getRoutes().get(route);
+            return override != null ? override : properties.getDefaultRate();
+        }
+    }
+}
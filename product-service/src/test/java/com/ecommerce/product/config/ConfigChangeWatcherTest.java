@@ -0,0 +1,124 @@
+package com.ecommerce.product.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The watcher is copied into every service; it is exercised here once against a stub config-server
+ * whose environment and watch endpoints answer with fixed ETags.
+ */
+class ConfigChangeWatcherTest {
+
+    private final ContextRefresher refresher = mock(ContextRefresher.class);
+    private final CountDownLatch refreshes = new CountDownLatch(1);
+    private final List<String> watchedWith = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private volatile int environmentStatus = 200;
+    private volatile String environmentEtag = "\"v1\"";
+    private volatile String currentEtag = "\"v1\"";
+    private ConfigChangeWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Counted in the stub: refresh() is synchronized, and a verify with timeout would hold its lock while polling
+        when(refresher.refresh()).thenAnswer(invocation -> {
+            refreshes.countDown();
+            return Set.of("feature.flag");
+        });
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/product-service/default", exchange -> {
+            exchange.getResponseHeaders().set("ETag", environmentEtag);
+            respond(exchange, environmentStatus);
+        });
+        server.createContext("/watch/product-service/default", exchange -> {
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            watchedWith.add(String.valueOf(etag));
+            exchange.getResponseHeaders().set("ETag", currentEtag);
+            if (currentEtag.equals(etag)) {
+                sleep(50);
+                respond(exchange, 304);
+            } else {
+                respond(exchange, 200);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void editMadeBeforeTheFirstWatchIsRefreshed() throws Exception {
+        watcher = watcher();
+        watcher.recordStartupEtag();
+        currentEtag = "\"v2\"";
+        watcher.start();
+
+        assertTrue(refreshes.await(5, TimeUnit.SECONDS));
+        assertEquals("\"v1\"", watchedWith.get(0));
+    }
+
+    @Test
+    void unchangedConfigIsNotRefreshed() throws Exception {
+        watcher = watcher();
+        watcher.recordStartupEtag();
+        watcher.start();
+
+        assertFalse(refreshes.await(300, TimeUnit.MILLISECONDS));
+        assertTrue(watchedWith.size() > 1);
+        assertTrue(watchedWith.stream().allMatch("\"v1\""::equals));
+    }
+
+    @Test
+    void firstWatchRefreshesWhenTheStartupEtagIsUnknown() throws Exception {
+        environmentStatus = 503;
+        watcher = watcher();
+        watcher.recordStartupEtag();
+        watcher.start();
+
+        assertTrue(refreshes.await(5, TimeUnit.SECONDS));
+        assertEquals("null", watchedWith.get(0));
+    }
+
+    private ConfigChangeWatcher watcher() {
+        return new ConfigChangeWatcher(refresher, "http://localhost:" + server.getAddress().getPort() + "/",
+            "product-service", "default", Duration.ofSeconds(5), Duration.ZERO);
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = status == 304 ? new byte[0] : "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
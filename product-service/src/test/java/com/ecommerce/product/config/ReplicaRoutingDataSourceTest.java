@@ -0,0 +1,117 @@
+package com.ecommerce.product.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReadReplicaProperties properties = new ReadReplicaProperties();
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.destroy();
+        }
+    }
+
+    @Test
+    void writesGoToThePrimary() throws Exception {
+        routing = routing(Map.of("replica-1", replica(new AtomicLong(0))));
+        routing.probeReplicas();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverHealthyReplicas() throws Exception {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica(new AtomicLong(1)));
+        replicas.put("replica-2", replica(new AtomicLong(2)));
+        routing = routing(replicas);
+        routing.probeReplicas();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Set<Object> keys = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(routing.determineCurrentLookupKey());
+        }
+
+        assertEquals(Set.of("replica-1", "replica-2"), keys);
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() throws Exception {
+        AtomicLong lag = new AtomicLong(60);
+        routing = routing(Map.of("replica-1", replica(lag)));
+        routing.probeReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1.0, registry.get("db_replica_fallback_total").counter().count());
+        assertEquals(60.0, registry.get("db_replica_lag_seconds").tag("replica", "replica-1").gauge().value());
+
+        lag.set(3);
+        routing.probeReplicas();
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws Exception {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("connection refused"));
+        routing = routing(Map.of("replica-1", down));
+        routing.probeReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(0.0, registry.get("db_replica_healthy").tag("replica", "replica-1").gauge().value());
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        properties.setMaxReplicationLag(Duration.ofSeconds(5));
+        // Probed by the tests; the background probe only runs once at start-up
+        properties.setProbeInterval(Duration.ofHours(1));
+        return new ReplicaRoutingDataSource(mock(DataSource.class), replicas, properties, registry);
+    }
+
+    /**
+     * A replica whose lag query reports the current value of {@code lag}, so the start-up probe and the
+     * test's own probes always agree.
+     */
+    private DataSource replica(AtomicLong lag) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.next()).thenReturn(true);
+            when(rs.getObject(properties.getLagColumn())).thenReturn(lag.get());
+            return rs;
+        });
+        return dataSource;
+    }
+}
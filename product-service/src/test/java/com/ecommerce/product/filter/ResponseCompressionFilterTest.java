@@ -0,0 +1,153 @@
+package com.ecommerce.product.filter;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ResponseCompressionFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResponseCompressionFilter gzipOnly = filter(false);
+
+    @Test
+    void wildcardDoesNotOverrideAnExplicitRefusal() {
+        assertNull(gzipOnly.negotiate("gzip;q=0, *"));
+        assertNull(gzipOnly.negotiate("*, gzip;q=0"));
+        assertEquals("gzip", gzipOnly.negotiate("*"));
+        assertEquals("gzip", gzipOnly.negotiate("identity, *;q=0.5"));
+        assertNull(gzipOnly.negotiate("identity"));
+        assertNull(gzipOnly.negotiate("gzip;q=0"));
+        assertNull(gzipOnly.negotiate(""));
+    }
+
+    @Test
+    void brotliIsPreferredUnlessGzipIsRankedHigher() {
+        assumeTrue(Brotli4jLoader.isAvailable());
+        ResponseCompressionFilter filter = filter(true);
+
+        assertEquals("br", filter.negotiate("gzip, deflate, br"));
+        assertEquals("br", filter.negotiate("*"));
+        assertEquals("gzip", filter.negotiate("br;q=0.5, gzip"));
+        assertEquals("gzip", filter.negotiate("br;q=0, *"));
+        assertEquals("gzip", gzipOnly.negotiate("gzip, deflate, br"));
+    }
+
+    @Test
+    void largeJsonIsCompressedAsItIsWritten() throws Exception {
+        byte[] json = json(64 * 1024);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        gzipOnly.doFilter(request("gzip"), response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(json);
+        });
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(json, gunzip(response.getContentAsByteArray()));
+        assertEquals(json.length, registry.get("http_compression_original_bytes_total").counter().count());
+        assertEquals(response.getContentAsByteArray().length,
+            registry.get("http_compression_compressed_bytes_total").counter().count());
+    }
+
+    @Test
+    void smallJsonOfUnknownLengthGoesOutUncompressed() throws Exception {
+        byte[] json = json(512);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        gzipOnly.doFilter(request("gzip"), response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(json);
+            res.getOutputStream().flush();
+        });
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(json.length, response.getContentLength());
+        assertArrayEquals(json, response.getContentAsByteArray());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    void declaredLengthIsDroppedOnlyWhenCompressing() throws Exception {
+        byte[] json = json(8 * 1024);
+        MockHttpServletResponse compressed = new MockHttpServletResponse();
+        MockHttpServletResponse small = new MockHttpServletResponse();
+
+        gzipOnly.doFilter(request("gzip"), compressed, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.setContentLength(json.length);
+            res.getOutputStream().write(json);
+        });
+        gzipOnly.doFilter(request("gzip"), small, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.setContentLength(100);
+            res.getOutputStream().write(json, 0, 100);
+        });
+
+        assertNull(compressed.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertArrayEquals(json, gunzip(compressed.getContentAsByteArray()));
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(100, small.getContentLength());
+    }
+
+    @Test
+    void otherMediaTypesAreWrittenStraightThrough() throws Exception {
+        byte[] chunk = new byte[16 * 1024];
+        Arrays.fill(chunk, (byte) 'x');
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger seenAfterFirstChunk = new AtomicInteger();
+
+        FilterChain download = (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            OutputStream out = res.getOutputStream();
+            out.write(chunk);
+            seenAfterFirstChunk.set(response.getContentAsByteArray().length);
+            out.write(chunk);
+        };
+        gzipOnly.doFilter(request("gzip"), response, download);
+
+        assertEquals(chunk.length, seenAfterFirstChunk.get());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(2 * chunk.length, response.getContentAsByteArray().length);
+    }
+
+    private ResponseCompressionFilter filter(boolean brotli) {
+        return new ResponseCompressionFilter(registry, 2048, "application/json,text/plain", 6, brotli, 4);
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return request;
+    }
+
+    private static byte[] json(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size - 40; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"product\"},");
+        }
+        json.setLength(json.length() - 1);
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.product.metrics;
+
+import com.ecommerce.product.config.OperationMetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The advisor, interceptor and cache resolver are copied into every service; they are exercised here
+ * once, wired by {@link OperationMetricsConfig} around two small {@code @Service} beans.
+ */
+class OperationMetricsTest {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TestConfig.class);
+    private final MeterRegistry registry = context.getBean(MeterRegistry.class);
+    private final CatalogService catalog = context.getBean(CatalogService.class);
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void outcomesAreTaggedByStatus() {
+        catalog.find(1L);
+        assertThrows(ResponseStatusException.class, () -> catalog.find(-1L));
+        assertThrows(IllegalStateException.class, () -> catalog.find(0L));
+
+        assertEquals(1, outcome("CatalogService.find", "success").count());
+        assertEquals(1, outcome("CatalogService.find", "client_error").count());
+        assertEquals(1, outcome("CatalogService.find", "error").count());
+    }
+
+    @Test
+    void dependencyTimeIsAttributedToTheOutermostOperation() {
+        catalog.checkout();
+
+        assertEquals(5, dependency("CatalogService.checkout", "db").totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(3, dependency("CatalogService.checkout", "kafka").totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, outcome("EventPublisher.publish", "success").count());
+        assertNull(registry.find("service_operation_dependency_duration")
+            .tag("operation", "EventPublisher.publish").timer());
+        assertNull(registry.find("service_operation_dependency_duration")
+            .tag("operation", "CatalogService.checkout").tag("dependency", "cache").timer());
+    }
+
+    @Test
+    void cacheTimeIsRecordedAndCacheHitsAreStillTimed() {
+        catalog.find(1L);
+        catalog.find(1L);
+
+        assertEquals(1, catalog.loads());
+        assertEquals(2, outcome("CatalogService.find", "success").count());
+        assertEquals(2, dependency("CatalogService.find", "cache").count());
+    }
+
+    private Timer outcome(String operation, String outcome) {
+        return registry.get("service_operation_duration").tag("operation", operation).tag("outcome", outcome).timer();
+    }
+
+    private Timer dependency(String operation, String dependency) {
+        return registry.get("service_operation_dependency_duration")
+            .tag("operation", operation).tag("dependency", dependency).timer();
+    }
+
+    @Configuration
+    @EnableCaching
+    @Import(OperationMetricsConfig.class)
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        OperationMetrics operationMetrics(MeterRegistry registry) {
+            return new OperationMetrics(registry, new Duration[] {Duration.ofMillis(10)});
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("products");
+        }
+
+        @Bean
+        EventPublisher eventPublisher() {
+            return new EventPublisher();
+        }
+
+        @Bean
+        CatalogService catalogService(EventPublisher events) {
+            return new CatalogService(events);
+        }
+    }
+
+    @Service
+    static class CatalogService {
+        private final EventPublisher events;
+        private final AtomicInteger loads = new AtomicInteger();
+
+        CatalogService(EventPublisher events) {
+            this.events = events;
+        }
+
+        @Cacheable("products")
+        public String find(Long id) {
+            if (id < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + id);
+            }
+            if (id == 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            loads.incrementAndGet();
+            return "product-" + id;
+        }
+
+        public int loads() {
+            return loads.get();
+        }
+
+        public void checkout() {
+            OperationTimings.add(OperationTimings.Dependency.DB, TimeUnit.MILLISECONDS.toNanos(5));
+            events.publish();
+        }
+    }
+
+    @Service
+    static class EventPublisher {
+        public void publish() {
+            OperationTimings.add(OperationTimings.Dependency.KAFKA, TimeUnit.MILLISECONDS.toNanos(3));
+        }
+    }
+}
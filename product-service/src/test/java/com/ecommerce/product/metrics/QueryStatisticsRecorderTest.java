@@ -0,0 +1,80 @@
+package com.ecommerce.product.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatisticsRecorderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryStatisticsRecorder recorder = new QueryStatisticsRecorder(registry, 100, 2);
+
+    @Test
+    void fingerprintDropsLiteralsAndCollapsesInLists() {
+        assertEquals("select * from products where name = ? and id in (?+) and price > ?",
+            QueryStatisticsRecorder.fingerprint(
+                "select *  from products\n where name = 'O''Brien' and id in (1, 2,3) and price > 9.99"));
+    }
+
+    @Test
+    void executionsAreAggregatedByFingerprint() {
+        execute("select * from products where id = 1", 10, true);
+        execute("select * from products where id = 2", 30, false);
+        execute("update products set stock = 5 where id = 1", 5, true);
+
+        List<Map<String, Object>> top = recorder.topByTotalTime(10);
+
+        assertEquals(2, top.size());
+        Map<String, Object> select = top.get(0);
+        assertEquals("select * from products where id = ?", select.get("fingerprint"));
+        assertEquals(2L, select.get("count"));
+        assertEquals(1L, select.get("errors"));
+        assertEquals(40L, select.get("totalMs"));
+        assertEquals(30L, select.get("maxMs"));
+        assertEquals(2L, registry.get("db_query_duration").tag("statement", "select").timer().count());
+        assertEquals(1L, registry.get("db_query_duration").tag("statement", "update").timer().count());
+    }
+
+    @Test
+    void onlyStatementsOverTheThresholdAreCapturedAsSlow() {
+        execute("select * from products where id = 1", 99, true);
+        execute("select * from products where category = 'books'", 150, true);
+
+        List<Map<String, Object>> slow = recorder.recentSlowQueries();
+
+        assertEquals(1, slow.size());
+        assertEquals("select * from products where category = ?", slow.get(0).get("fingerprint"));
+        assertEquals(150L, slow.get(0).get("elapsedMs"));
+        assertEquals(1.0, registry.get("db_slow_queries_total").counter().count());
+    }
+
+    @Test
+    void fingerprintsBeyondTheLimitShareOneBucket() {
+        execute("select * from products", 1, true);
+        execute("select * from orders", 1, true);
+        execute("select * from payments", 1, true);
+        execute("select * from users", 1, true);
+
+        List<Map<String, Object>> top = recorder.topByTotalTime(10);
+
+        assertEquals(3, top.size());
+        assertTrue(top.stream().anyMatch(stats -> "<other>".equals(stats.get("fingerprint"))
+            && Long.valueOf(2).equals(stats.get("count"))));
+    }
+
+    private void execute(String sql, long elapsedMs, boolean success) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMs);
+        execInfo.setSuccess(success);
+        execInfo.setDataSourceName("primary");
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        recorder.beforeQuery(execInfo, queries);
+        recorder.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,213 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.metrics.ProductMetricsRecorder;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.stock.LocalStockLevelStore;
+import com.ecommerce.product.stock.StockLevelStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockCounterServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final StockLevelStore store = new LocalStockLevelStore();
+    private final ProductMetricsRecorder metricsRecorder = new ProductMetricsRecorder(new SimpleMeterRegistry());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StockCounterService replicaA;
+    private StockCounterService replicaB;
+
+    @BeforeEach
+    void setUp() {
+        // Two instances over one store, as two product-service replicas share Redis
+        replicaA = new StockCounterService(store, productRepository, transactionManager, metricsRecorder, objectMapper);
+        replicaB = new StockCounterService(store, productRepository, transactionManager, metricsRecorder, objectMapper);
+    }
+
+    @Test
+    void concurrentAdjustmentsOnBothReplicasAreNotLost() throws Exception {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 1000)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            StockCounterService replica = t % 2 == 0 ? replicaA : replicaB;
+            int delta = t % 4 == 0 ? -1 : 2;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    replica.adjust(1L, delta);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // two threads take 1 and six add 2, 500 times each
+        assertEquals(1000 + 500 * (6 * 2 - 2), store.get(List.of(1L)).get(1L));
+    }
+
+    @Test
+    void slowSeedQueryDoesNotHoldUpOtherProducts() throws Exception {
+        CountDownLatch seeding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            seeding.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(product(1L, 10));
+        });
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product(2L, 20)));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> blocked = executor.submit(() -> replicaA.adjust(1L, 1));
+        assertTrue(seeding.await(10, TimeUnit.SECONDS));
+
+        assertEquals(25, replicaB.adjust(2L, 5));
+        assertFalse(blocked.isDone());
+
+        release.countDown();
+        assertEquals(11, blocked.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void racingSeedsKeepEveryDelta() throws Exception {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 50)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            StockCounterService replica = t % 2 == 0 ? replicaA : replicaB;
+            futures.add(executor.submit(() -> {
+                start.await();
+                replica.adjust(1L, 1);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(54, store.get(List.of(1L)).get(1L));
+    }
+
+    @Test
+    void snapshotsAreOrderedByInventoryRowVersionNotTimestamp() {
+        // The newer snapshot was stamped by a host whose clock runs behind
+        replicaA.handleInventoryEvent(inventoryEvent(1L, 10, 0, 7L, 2_000));
+        replicaB.handleInventoryEvent(inventoryEvent(1L, 10, 4, 8L, 1_000));
+        assertEquals(6, store.get(List.of(1L)).get(1L));
+
+        // Late or redelivered snapshots do not undo anything applied since
+        replicaA.handleInventoryEvent(inventoryEvent(1L, 10, 0, 7L, 3_000));
+        replicaB.adjust(1L, -1);
+        replicaA.handleInventoryEvent(inventoryEvent(1L, 10, 4, 8L, 3_000));
+        assertEquals(5, store.get(List.of(1L)).get(1L));
+
+        replicaB.handleInventoryEvent(inventoryEvent(1L, 10, 2, 9L, 0));
+        assertEquals(8, store.get(List.of(1L)).get(1L));
+    }
+
+    @Test
+    void productEditsReachTheStoreOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            replicaA.set(1L, 40);
+            replicaA.remove(2L);
+            assertTrue(store.get(List.of(1L)).isEmpty());
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(store.get(List.of(1L)).isEmpty());
+        assertTrue(store.drainDirty(10).isEmpty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            replicaA.set(1L, 40);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(40, store.drainDirty(10).get(1L));
+    }
+
+    @Test
+    void failedFlushMarksProductsDirtyAgain() {
+        store.set(1L, 5);
+        when(productRepository.findAllById(any())).thenThrow(new IllegalStateException("database down"));
+
+        replicaA.flush();
+
+        verify(productRepository).findAllById(any());
+        assertEquals(5, store.drainDirty(10).get(1L));
+    }
+
+    @Test
+    void flushWritesLevelAndDerivedStatusOnce() {
+        Product product = product(1L, 5);
+        store.set(1L, 0);
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+        replicaA.flush();
+        replicaB.flush();
+
+        verify(productRepository, times(1)).findAllById(any());
+        assertEquals(0, product.getStock());
+        assertEquals(Product.ProductStatus.OUT_OF_STOCK, product.getStatus());
+    }
+
+    private static Product product(Long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStock(stock);
+        product.setStatus(Product.ProductStatus.ACTIVE);
+        return product;
+    }
+
+    private static ConsumerRecord<String, String> inventoryEvent(Long productId, int quantity, int reserved,
+                                                                 long version, long timestamp) {
+        String value = "{\"productId\":" + productId + ",\"quantity\":" + quantity
+            + ",\"reservedQuantity\":" + reserved + ",\"version\":" + version + "}";
+        return new ConsumerRecord<>("inventory-events", 0, 0L, timestamp, TimestampType.CREATE_TIME,
+            -1, -1, "inventory.updated", value, new RecordHeaders(), Optional.empty());
+    }
+}
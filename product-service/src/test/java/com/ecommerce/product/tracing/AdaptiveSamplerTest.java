@@ -0,0 +1,95 @@
+package com.ecommerce.product.tracing;
+
+import com.ecommerce.product.filter.SamplingRouteFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The sampler and {@link SamplingRouteFilter} are copied into every service; they are exercised here
+ * once. Server spans are started under the generic name Boot gives them before handler mapping, so
+ * only the route from the filter can tell requests apart.
+ */
+class AdaptiveSamplerTest {
+
+    private final AdaptiveSamplingProperties properties = new AdaptiveSamplingProperties();
+    private final SamplingRouteFilter filter = new SamplingRouteFilter(properties);
+    private final SdkTracerProvider tracerProvider;
+    private final Tracer tracer;
+
+    AdaptiveSamplerTest() {
+        properties.setDefaultRate(1);
+        tracerProvider = SdkTracerProvider.builder()
+            .setSampler(new AdaptiveSampler(properties, 1.0, new SimpleMeterRegistry()))
+            .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.shutdown();
+    }
+
+    @Test
+    void eachRouteHasItsOwnBudget() throws Exception {
+        assertTrue(serve("GET", "/products/1"));
+        assertFalse(serve("GET", "/products/2"));
+        assertTrue(serve("GET", "/products/search"));
+        assertTrue(serve("POST", "/products/3"));
+        assertFalse(serve("GET", "/products/0f8fad5b-d9cb-469f-a165-70867728950e"));
+    }
+
+    @Test
+    void routeOverridesApplyToServerSpans() throws Exception {
+        properties.getRoutes().put("GET /products/{id}", 2.0);
+
+        assertTrue(serve("GET", "/products/1"));
+        assertTrue(serve("GET", "/products/2"));
+        assertFalse(serve("GET", "/products/3"));
+    }
+
+    @Test
+    void childrenFollowTheRootAndOtherRootsUseTheirSpanName() throws Exception {
+        AtomicBoolean childSampled = new AtomicBoolean();
+        AtomicBoolean consumerSampled = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/1"), new MockHttpServletResponse(), (req, res) -> {
+            Span server = tracer.spanBuilder("http get").setSpanKind(SpanKind.SERVER).startSpan();
+            try (Scope ignored = server.makeCurrent()) {
+                Span child = tracer.spanBuilder("select products").startSpan();
+                childSampled.set(child.getSpanContext().isSampled());
+                child.end();
+            } finally {
+                server.end();
+            }
+            Span consumer = tracer.spanBuilder("inventory-events receive").setSpanKind(SpanKind.CONSUMER).startSpan();
+            consumerSampled.set(consumer.getSpanContext().isSampled());
+            consumer.end();
+        });
+
+        assertTrue(childSampled.get());
+        assertTrue(consumerSampled.get(), "a Kafka root inside a request must not spend the request's budget");
+        assertFalse(serve("GET", "/products/2"));
+    }
+
+    private boolean serve(String method, String path) throws Exception {
+        AtomicBoolean sampled = new AtomicBoolean();
+        filter.doFilter(new MockHttpServletRequest(method, path), new MockHttpServletResponse(), (req, res) -> {
+            Span server = tracer.spanBuilder("http " + method.toLowerCase()).setSpanKind(SpanKind.SERVER).startSpan();
+            sampled.set(server.getSpanContext().isSampled());
+            server.end();
+        });
+        return sampled.get();
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -19,6 +21,8 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -51,7 +55,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 username = jwtUtil.extractUsername(jwt);
                 
                 // If we got here, token signature is valid. Now check expiration
-                if (username != null && !jwtUtil.isTokenExpired(jwt)) {
+                boolean expired = username != null && jwtUtil.isTokenExpired(jwt);
+                if (username != null && !expired) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             username,
                             null,
@@ -59,20 +64,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("JWT token validated successfully for user: " + username + " on " + requestURI);
+                    log.debug("JWT token validated successfully for user: {} on {}", username, requestURI);
                 } else {
-                    logger.warn("JWT token validation failed: username=" + username + ", expired=" + (username != null ? jwtUtil.isTokenExpired(jwt) : "N/A") + " for " + requestURI);
+                    log.warn("JWT token validation failed: username={}, expired={} for {}", username, username != null ? expired : "N/A", requestURI);
                     // Clear any existing authentication if token is invalid
                     SecurityContextHolder.clearContext();
                 }
             } catch (Exception e) {
-                logger.error("JWT token validation failed for " + requestURI + ": " + e.getMessage());
+                log.error("JWT token validation failed for {}: {}", requestURI, e.getMessage());
                 // Clear any existing authentication if token is invalid
                 SecurityContextHolder.clearContext();
             }
         } else {
             // No auth header for protected endpoint - Spring Security will handle the 403
-            logger.debug("No Authorization header found for protected endpoint: " + requestURI);
+            log.debug("No Authorization header found for protected endpoint: {}", requestURI);
         }
 
         filterChain.doFilter(request, response);
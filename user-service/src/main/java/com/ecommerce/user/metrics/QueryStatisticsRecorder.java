@@ -0,0 +1,197 @@
+package com.ecommerce.user.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement executed through the proxied DataSource.
+ * <p>
+ * Statements are aggregated by fingerprint (SQL with literals replaced by {@code ?}) so the top-N view
+ * stays bounded and never contains bind values. Executions slower than the configured threshold are
+ * logged and kept in a small ring buffer for the {@code queries} actuator endpoint. Statement time is
+ * also added to the calling service operation's {@link OperationTimings}.
+ */
+@Component
+public class QueryStatisticsRecorder implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatisticsRecorder.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String OVERFLOW_FINGERPRINT = "<other>";
+    private static final int SLOW_QUERY_HISTORY = 50;
+
+    private final Map<String, QueryStats> statistics = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Map<String, Object>> slowQueries = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger slowQueryCount = new AtomicInteger();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final Counter slowQueryCounter;
+    private final long slowThresholdMs;
+    private final int maxFingerprints;
+
+    public QueryStatisticsRecorder(MeterRegistry registry,
+            @Value("${datasource.query-stats.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${datasource.query-stats.max-fingerprints:500}") int maxFingerprints) {
+        this.registry = registry;
+        this.slowThresholdMs = slowThresholdMs;
+        this.maxFingerprints = maxFingerprints;
+        this.slowQueryCounter = Counter.builder("db_slow_queries_total")
+            .description("JDBC statements slower than the slow-query threshold")
+            .register(registry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        OperationTimings.queryStarted();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        OperationTimings.queryFinished();
+        long elapsedMs = execInfo.getElapsedTime();
+        boolean success = execInfo.isSuccess();
+        for (QueryInfo queryInfo : queryInfoList) {
+            String fingerprint = fingerprint(queryInfo.getQuery());
+            statsFor(fingerprint).record(elapsedMs, success);
+            timerFor(statementType(fingerprint)).record(Duration.ofMillis(elapsedMs));
+            if (elapsedMs >= slowThresholdMs) {
+                recordSlowQuery(fingerprint, elapsedMs, execInfo.getDataSourceName());
+            }
+        }
+    }
+
+    public List<Map<String, Object>> topByTotalTime(int limit) {
+        return statistics.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, QueryStats> e) -> e.getValue().totalMs.sum()).reversed())
+            .limit(limit)
+            .map(e -> e.getValue().toMap(e.getKey()))
+            .collect(Collectors.toList());
+    }
+
+    public List<Map<String, Object>> recentSlowQueries() {
+        return new ArrayList<>(slowQueries);
+    }
+
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+
+    public void reset() {
+        statistics.clear();
+        slowQueries.clear();
+        slowQueryCount.set(0);
+    }
+
+    static String fingerprint(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?+)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private static String statementType(String fingerprint) {
+        int end = fingerprint.indexOf(' ');
+        String keyword = (end < 0 ? fingerprint : fingerprint.substring(0, end)).toLowerCase();
+        switch (keyword) {
+            case "select":
+            case "insert":
+            case "update":
+            case "delete":
+                return keyword;
+            default:
+                return "other";
+        }
+    }
+
+    private QueryStats statsFor(String fingerprint) {
+        QueryStats stats = statistics.get(fingerprint);
+        if (stats != null) {
+            return stats;
+        }
+        if (statistics.size() >= maxFingerprints) {
+            return statistics.computeIfAbsent(OVERFLOW_FINGERPRINT, key -> new QueryStats());
+        }
+        return statistics.computeIfAbsent(fingerprint, key -> new QueryStats());
+    }
+
+    private Timer timerFor(String statementType) {
+        return timers.computeIfAbsent(statementType, type -> Timer.builder("db_query_duration")
+            .description("JDBC statement execution time")
+            .tag("statement", type)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    private void recordSlowQuery(String fingerprint, long elapsedMs, String dataSourceName) {
+        slowQueryCounter.increment();
+        log.warn("Slow query ({} ms on {}): {}", elapsedMs, dataSourceName, fingerprint);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", OffsetDateTime.now().toString());
+        entry.put("elapsedMs", elapsedMs);
+        entry.put("dataSource", dataSourceName);
+        entry.put("fingerprint", fingerprint);
+        slowQueries.addFirst(entry);
+        if (slowQueryCount.incrementAndGet() > SLOW_QUERY_HISTORY) {
+            slowQueries.pollLast();
+            slowQueryCount.decrementAndGet();
+        }
+    }
+
+    private static final class QueryStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Long::max, 0);
+
+        void record(long elapsedMs, boolean success) {
+            count.increment();
+            totalMs.add(elapsedMs);
+            maxMs.accumulate(elapsedMs);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        Map<String, Object> toMap(String fingerprint) {
+            long executions = count.sum();
+            long total = totalMs.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("fingerprint", fingerprint);
+            map.put("count", executions);
+            map.put("errors", errors.sum());
+            map.put("totalMs", total);
+            map.put("meanMs", executions == 0 ? 0.0 : (double) total / executions);
+            map.put("maxMs", maxMs.get());
+            return map;
+        }
+    }
+}
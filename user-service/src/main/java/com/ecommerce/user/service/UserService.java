@@ -55,6 +55,7 @@ public class UserService {
     }
     
     @Cacheable(value = "users", key = "#id")
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with id: " + id));
@@ -62,12 +63,14 @@ public class UserService {
     }
     
     @Cacheable(value = "users", key = "#username")
+    @Transactional(readOnly = true)
     public UserDTO getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with username: " + username));
         return UserDTO.fromEntity(user);
     }
     
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
             .map(UserDTO::fromEntity)